@@ -0,0 +1,168 @@
+package com.tanvir.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * FIFO of length-prefixed messages in a memory-mapped file of fixed size, used as a ring. Read and
+ * write positions grow monotonically and live in the file header, so whatever was not replayed
+ * before a restart is replayed after it. A message that does not fit before the end of the file is
+ * preceded by a wrap marker and written at the start; a message that does not fit at all is refused.
+ * A length prefix that points outside the unread bytes means the file is corrupt; the spool is then
+ * emptied rather than read past its data.
+ */
+@Slf4j
+final class SpoolFile implements Closeable {
+
+    private static final int MAGIC = 0x5A53504C;
+    private static final int HEADER_BYTES = 32;
+    private static final int WRAP = -1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private long readPosition;
+    private long writePosition;
+    private long messages;
+
+    SpoolFile(Path path, int sizeBytes) throws IOException {
+        if (sizeBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Spool size must be more than " + HEADER_BYTES + " bytes, was " + sizeBytes);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+        this.capacity = sizeBytes - HEADER_BYTES;
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == capacity
+                && buffer.getLong(8) <= buffer.getLong(16) && buffer.getLong(16) - buffer.getLong(8) <= capacity) {
+            readPosition = buffer.getLong(8);
+            writePosition = buffer.getLong(16);
+            messages = buffer.getLong(24);
+        } else {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, capacity);
+            writeHeader();
+        }
+    }
+
+    synchronized boolean append(byte[] message) {
+        int needed = Integer.BYTES + message.length;
+        int offset = offset(writePosition);
+        int contiguous = capacity - offset;
+        long padding = contiguous < needed ? contiguous : 0;
+        if (needed > capacity || writePosition + padding + needed - readPosition > capacity) {
+            return false;
+        }
+        if (padding > 0) {
+            if (contiguous >= Integer.BYTES) {
+                buffer.putInt(HEADER_BYTES + offset, WRAP);
+            }
+            writePosition += padding;
+            offset = 0;
+        }
+        buffer.putInt(HEADER_BYTES + offset, message.length);
+        buffer.put(HEADER_BYTES + offset + Integer.BYTES, message);
+        writePosition += needed;
+        messages++;
+        writeHeader();
+        return true;
+    }
+
+    /**
+     * @return the oldest message, or {@code null} when the spool is empty
+     */
+    synchronized byte[] peek() {
+        if (!skipWrap()) {
+            return null;
+        }
+        int length = messageLength();
+        if (length < 0) {
+            return null;
+        }
+        byte[] message = new byte[length];
+        buffer.get(HEADER_BYTES + offset(readPosition) + Integer.BYTES, message);
+        return message;
+    }
+
+    synchronized void removeFirst() {
+        if (!skipWrap()) {
+            return;
+        }
+        int length = messageLength();
+        if (length < 0) {
+            return;
+        }
+        readPosition += Integer.BYTES + length;
+        messages--;
+        writeHeader();
+    }
+
+    synchronized long sizeInBytes() {
+        return writePosition - readPosition;
+    }
+
+    synchronized long messageCount() {
+        return messages;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Moves the read position past a wrap marker or a tail too short to hold one.
+     *
+     * @return whether a message is left to read
+     */
+    private boolean skipWrap() {
+        if (readPosition == writePosition) {
+            return false;
+        }
+        int offset = offset(readPosition);
+        int contiguous = capacity - offset;
+        if (contiguous < Integer.BYTES || buffer.getInt(HEADER_BYTES + offset) == WRAP) {
+            readPosition += contiguous;
+        }
+        return readPosition != writePosition;
+    }
+
+    /**
+     * @return the length of the message at the read position, or {@code -1} after emptying the spool
+     * when the length does not fit in the unread bytes
+     */
+    private int messageLength() {
+        int offset = offset(readPosition);
+        int length = buffer.getInt(HEADER_BYTES + offset);
+        if (length < 0 || (long) Integer.BYTES + length > writePosition - readPosition
+                || Integer.BYTES + length > capacity - offset) {
+            log.warn("Discarding {} corrupt spool bytes, message length {} at position {}",
+                    writePosition - readPosition, length, readPosition);
+            readPosition = writePosition;
+            messages = 0;
+            writeHeader();
+            return -1;
+        }
+        return length;
+    }
+
+    private int offset(long position) {
+        return (int) (position % capacity);
+    }
+
+    private void writeHeader() {
+        buffer.putLong(8, readPosition);
+        buffer.putLong(16, writePosition);
+        buffer.putLong(24, messages);
+    }
+}
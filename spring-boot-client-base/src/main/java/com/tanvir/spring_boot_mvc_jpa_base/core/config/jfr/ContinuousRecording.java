@@ -0,0 +1,145 @@
+package com.tanvir.spring_boot_mvc_jpa_base.core.config.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a flight recording running for the life of the application, bounded by
+ * {@code jfr.max-age-minutes} and {@code jfr.max-size-bytes} in the disk repository, so the minutes
+ * before a latency spike can still be dumped after the fact. Failing to start it is logged and
+ * never stops the application.
+ */
+@Slf4j
+public class ContinuousRecording {
+
+    public static final String NAME = "continuous";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JfrProperties properties;
+    private final String applicationName;
+    private volatile Recording recording;
+
+    public ContinuousRecording(JfrProperties properties, String applicationName) {
+        this.properties = properties;
+        this.applicationName = applicationName;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(properties.getConfiguration()).getSettings());
+            settings.putAll(properties.getSettings());
+            Recording continuous = new Recording(settings);
+            continuous.setName(NAME);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(Duration.ofMinutes(properties.getMaxAgeMinutes()));
+            continuous.setMaxSize(properties.getMaxSizeBytes());
+            continuous.start();
+            recording = continuous;
+            log.info("Continuous flight recording started from the {} settings, keeping {} minutes",
+                    properties.getConfiguration(), properties.getMaxAgeMinutes());
+        } catch (IOException | ParseException | RuntimeException e) {
+            log.warn("Could not start the continuous flight recording : {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Recording continuous = recording;
+        recording = null;
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    public boolean isRunning() {
+        Recording continuous = recording;
+        return continuous != null && continuous.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Writes the last {@code minutes} of recorded data, capped at {@code jfr.max-age-minutes}, to a new
+     * file. The data is cut at chunk boundaries, so the file may reach slightly further back. Only the
+     * newest {@code jfr.max-dump-files} dumps of this application are kept.
+     */
+    public Path dump(long minutes) throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("The continuous flight recording is not running");
+        }
+        long boundedMinutes = Math.max(1, Math.min(minutes, properties.getMaxAgeMinutes()));
+        Path directory = properties.getDumpDirectory().isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "jfr")
+                : Path.of(properties.getDumpDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(applicationName + "-" + FILE_TIMESTAMP.format(LocalDateTime.now()) + "-" + boundedMinutes + "m.jfr");
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            snapshot.setMaxAge(Duration.ofMinutes(boundedMinutes));
+            snapshot.dump(file);
+        }
+        deleteOldDumps(directory);
+        return file;
+    }
+
+    private void deleteOldDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(applicationName + "-") && name.endsWith(".jfr");
+                    })
+                    .sorted(Comparator.comparing(ContinuousRecording::lastModified).reversed())
+                    .toList();
+        }
+        for (Path old : dumps.subList(Math.min(dumps.size(), Math.max(1, properties.getMaxDumpFiles())), dumps.size())) {
+            try {
+                Files.deleteIfExists(old);
+            } catch (IOException e) {
+                log.warn("Could not delete old flight recording dump {} : {}", old, e.getMessage());
+            }
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public Map<String, Object> status() {
+        Recording continuous = recording;
+        if (continuous == null) {
+            return Map.of("state", "NOT_STARTED");
+        }
+        return Map.of(
+                "state", continuous.getState().name(),
+                "configuration", properties.getConfiguration(),
+                "maxAgeMinutes", properties.getMaxAgeMinutes(),
+                "maxSizeBytes", properties.getMaxSizeBytes(),
+                "maxDumpFiles", properties.getMaxDumpFiles(),
+                "recordedBytes", continuous.getSize());
+    }
+}
@@ -0,0 +1,17 @@
+package com.tanvir.spring_boot_mvc_jpa_base.core.config.jfr;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrConfig {
+
+    @Bean
+    public ContinuousRecording continuousRecording(JfrProperties properties,
+                                                   @Value("${spring.application.name:application}") String applicationName) {
+        return new ContinuousRecording(properties, applicationName);
+    }
+}
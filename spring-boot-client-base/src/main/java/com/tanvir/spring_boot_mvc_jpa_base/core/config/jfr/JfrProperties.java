@@ -0,0 +1,33 @@
+package com.tanvir.spring_boot_mvc_jpa_base.core.config.jfr;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jfr")
+public class JfrProperties {
+    private boolean enabled = true;
+    /**
+     * JDK settings profile the recording starts from: {@code default} or {@code profile}.
+     */
+    private String configuration = "default";
+    /**
+     * Overrides on top of the profile, keyed like {@code jdk.ThreadPark#threshold}.
+     */
+    private Map<String, String> settings = new HashMap<>();
+    private long maxAgeMinutes = 30;
+    private long maxSizeBytes = 256L * 1024 * 1024;
+    /**
+     * Where dumps are written; empty means {@code jfr} in the temp directory.
+     */
+    private String dumpDirectory = "";
+    /**
+     * Dumps kept in the dump directory; older ones are deleted after each new dump.
+     */
+    private int maxDumpFiles = 5;
+}
@@ -0,0 +1,58 @@
+package com.tanvir.spring_boot_mvc_jpa_base.core.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer appender for the {@code ring-logging} profile. Events go into a preallocated disruptor
+ * ring and one consumer thread hands them to the attached appenders, so the encoders are only ever
+ * used from that thread. Events below INFO are dropped once free slots fall under
+ * {@code debugHeadroomPercent}, leaving that headroom for INFO and above. With
+ * {@code appendTimeout} 0, a full ring drops events rather than blocking the caller.
+ */
+public class DebugSheddingAsyncAppender extends LoggingEventAsyncDisruptorAppender {
+
+    private static final long DROP_WARNING_INTERVAL = 10_000;
+
+    private int debugHeadroomPercent = 25;
+    private long debugHeadroom;
+    private final AtomicLong droppedDebugEvents = new AtomicLong();
+
+    @Override
+    public void start() {
+        if (debugHeadroomPercent < 0 || debugHeadroomPercent > 100) {
+            addError("debugHeadroomPercent must be between 0 and 100, was " + debugHeadroomPercent);
+            return;
+        }
+        super.start();
+        debugHeadroom = (long) getRingBufferSize() * debugHeadroomPercent / 100;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!event.getLevel().isGreaterOrEqual(Level.INFO)
+                && getDisruptor().getRingBuffer().remainingCapacity() < debugHeadroom) {
+            long dropped = droppedDebugEvents.incrementAndGet();
+            if (dropped == 1 || dropped % DROP_WARNING_INTERVAL == 0) {
+                addWarn("Ring buffer is short of headroom, " + dropped + " events below INFO dropped so far");
+            }
+            return;
+        }
+        super.append(event);
+    }
+
+    public int getDebugHeadroomPercent() {
+        return debugHeadroomPercent;
+    }
+
+    public void setDebugHeadroomPercent(int debugHeadroomPercent) {
+        this.debugHeadroomPercent = debugHeadroomPercent;
+    }
+
+    public long getDroppedDebugEvents() {
+        return droppedDebugEvents.get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.tanvir.spring_boot_mvc_jpa_base.core.config.tracing;
+
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import brave.sampler.BoundarySampler;
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces probability sampling with head sampling by trace id plus tail sampling: every span is
+ * recorded locally, and {@link TailSamplingSpanHandler} decides which unsampled traces still reach
+ * the span reporters Spring Boot configured.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "tracing.tail-sampling", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(TailSamplingProperties.class)
+public class TailSamplingConfig {
+
+    @Bean
+    public Sampler braveSampler(TailSamplingProperties properties) {
+        return BoundarySampler.create((float) properties.getHeadRate());
+    }
+
+    @Bean
+    public TracingCustomizer tailSamplingTracingCustomizer(TailSamplingProperties properties, MeterRegistry meterRegistry) {
+        return builder -> {
+            List<SpanHandler> reporters = new ArrayList<>(builder.spanHandlers());
+            builder.clearSpanHandlers()
+                    .alwaysSampleLocal()
+                    .addSpanHandler(new TailSamplingSpanHandler(reporters, properties, meterRegistry));
+        };
+    }
+}
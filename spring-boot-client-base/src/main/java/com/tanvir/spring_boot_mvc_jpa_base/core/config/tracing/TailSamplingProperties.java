@@ -0,0 +1,33 @@
+package com.tanvir.spring_boot_mvc_jpa_base.core.config.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "tracing.tail-sampling")
+public class TailSamplingProperties {
+    private boolean enabled = true;
+    /**
+     * Fraction of new traces reported whatever their outcome, picked by trace id so every service
+     * agrees on the same traces.
+     */
+    private double headRate = 0.01;
+    /**
+     * Traces whose local root takes longer than this are reported even when not head sampled.
+     */
+    private long latencyThresholdMs = 1000;
+    /**
+     * Latency thresholds per route pattern (the {@code uri} tag of server spans), used when the gateway
+     * did not send one.
+     */
+    private Map<String, Long> routes = new HashMap<>();
+    /**
+     * Number of unsampled spans held while their trace is undecided; rounded up to a power of two.
+     */
+    private int bufferSize = 8192;
+}
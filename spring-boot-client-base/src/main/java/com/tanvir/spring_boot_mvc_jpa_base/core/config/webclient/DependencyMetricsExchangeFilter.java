@@ -0,0 +1,109 @@
+package com.tanvir.spring_boot_mvc_jpa_base.core.config.webclient;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ConnectTimeoutException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the calls a {@link org.springframework.web.reactive.function.client.WebClient} makes to one
+ * dependency, from subscription until the response headers arrive:
+ * <ul>
+ *     <li>{@code http.client.dependency{dependency,method,status}} timer with percentiles, where
+ *     {@code status} is the status class ({@code 2xx}…) or {@code ERROR}/{@code TIMEOUT}/{@code CANCELLED}</li>
+ *     <li>{@code http.client.dependency.errors{dependency,method,exception}} and
+ *     {@code http.client.dependency.timeouts{dependency,method}} counters</li>
+ *     <li>{@code http.client.dependency.in-flight{dependency}} gauge</li>
+ * </ul>
+ * Register it as the first filter so it also sees timeouts applied by the filters after it.
+ */
+public class DependencyMetricsExchangeFilter implements ExchangeFilterFunction {
+
+    public static final String TIMER_NAME = "http.client.dependency";
+    public static final String ERRORS_METRIC_NAME = "http.client.dependency.errors";
+    public static final String TIMEOUTS_METRIC_NAME = "http.client.dependency.timeouts";
+    public static final String IN_FLIGHT_METRIC_NAME = "http.client.dependency.in-flight";
+
+    private final String dependency;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public DependencyMetricsExchangeFilter(String dependency, MeterRegistry meterRegistry) {
+        this.dependency = dependency;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(IN_FLIGHT_METRIC_NAME, inFlight, AtomicInteger::get)
+                .tag("dependency", dependency)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            String method = request.method().name();
+            long startNanos = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            inFlight.incrementAndGet();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(method, statusClass(response.statusCode().value()), startNanos);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            if (isTimeout(e)) {
+                                meterRegistry.counter(TIMEOUTS_METRIC_NAME, "dependency", dependency, "method", method).increment();
+                                record(method, "TIMEOUT", startNanos);
+                            } else {
+                                meterRegistry.counter(ERRORS_METRIC_NAME, "dependency", dependency, "method", method,
+                                        "exception", e.getClass().getSimpleName()).increment();
+                                record(method, "ERROR", startNanos);
+                            }
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(method, "CANCELLED", startNanos);
+                        }
+                    })
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private void record(String method, String status, long startNanos) {
+        Timer.builder(TIMER_NAME)
+                .tag("dependency", dependency)
+                .tag("method", method)
+                .tag("status", status)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    static String statusClass(int status) {
+        return status >= 100 && status < 600 ? (status / 100) + "xx" : "UNKNOWN";
+    }
+
+    static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException
+                    || cause instanceof io.netty.handler.timeout.TimeoutException
+                    || cause instanceof ConnectTimeoutException
+                    || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,7 +1,7 @@
 package com.tanvir.spring_boot_mvc_jpa_base.core.config.webclient;
 
-import com.tanvir.spring_boot_mvc_jpa_base.core.config.enums.DateTimeFormatterPattern;
 import com.tanvir.spring_boot_mvc_jpa_base.core.filter.helpers.enums.HeaderNames;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.tracing.Tracer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -15,9 +15,6 @@ import reactor.netty.http.client.HttpClient;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -25,18 +22,21 @@ import java.util.Optional;
 @Slf4j
 public class WebClientConfig {
 
-    private DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DateTimeFormatterPattern.DATE_TIME.getValue());
     private final HttpClient httpClient;
     private final Tracer tracer;
+    private final MeterRegistry meterRegistry;
+    private final String localHostAddress = resolveLocalHostAddress();
 
 
     @Value("${external.base-url}")
     private String EXTERNAL_BASE_URL;
 
 
-    public WebClientConfig(@Qualifier("reactiveHttpClientWithTimeout") HttpClient httpClient, Tracer tracer) {
+    public WebClientConfig(@Qualifier("reactiveHttpClientWithTimeout") HttpClient httpClient, Tracer tracer,
+                           MeterRegistry meterRegistry) {
         this.httpClient = httpClient;
         this.tracer = tracer;
+        this.meterRegistry = meterRegistry;
     }
 
 
@@ -49,14 +49,12 @@ public class WebClientConfig {
         return WebClient.builder()
                 .baseUrl(baseUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new DependencyMetricsExchangeFilter(baseUrl, meterRegistry))
                 .filter((ClientRequest request, ExchangeFunction next) -> {
                     ClientRequest updatedRequest = setRequestHeaders(request);
                     logRequest(updatedRequest);
                     return next.exchange(updatedRequest)
-                            .doOnNext((ClientResponse response) -> {
-                                setResponseHeaders(updatedRequest, response);
-                                logResponse(response, baseUrl);
-                            });
+                            .doOnNext((ClientResponse response) -> logResponse(response, baseUrl));
                 })
 //                .filter(handle401And403())
                 .build();
@@ -79,53 +77,34 @@ public class WebClientConfig {
                     .findFirst()
                     .orElse(traceId);
         return ClientRequest.from(request)
-                .header(HeaderNames.REQUEST_SENT_TIME_IN_MS.getValue(), LocalDateTime.now().format(formatter))
                 .header(HeaderNames.TRACE_ID.getValue(), traceId)
                 .build();
     }
 
-    private void setResponseHeaders(ClientRequest request, ClientResponse response) {
-        response.mutate().header(HeaderNames.RESPONSE_RECEIVED_TIME_IN_MS.getValue(), LocalDateTime.now().format(formatter));
-        if (!Objects.requireNonNull(request.headers().get(HeaderNames.REQUEST_SENT_TIME_IN_MS.getValue()))
-                .stream()
-                .allMatch(String::isEmpty)) {
-            String s = Objects.requireNonNull(request.headers().get(HeaderNames.REQUEST_SENT_TIME_IN_MS.getValue()))
-                    .stream()
-                    .findAny().orElse(LocalDateTime.now().format(formatter));
-            response.mutate().header(HeaderNames.RESPONSE_TRANSMISSION_TIME_IN_MS.getValue(),
-                    String.valueOf(
-                            LocalDateTime.now()
-                                    .atZone(ZoneId.systemDefault())
-                                    .toInstant()
-                                    .toEpochMilli()
-                                    - LocalDateTime
-                                    .parse(s, formatter)
-                                    .atZone(ZoneId.systemDefault())
-                                    .toInstant()
-                                    .toEpochMilli()
-                    ));
+    private static String resolveLocalHostAddress() {
+        try {
+            return InetAddress.getLocalHost().getHostAddress();
+        } catch (UnknownHostException e) {
+            log.warn("Could not resolve the local host address", e);
+            return "unknown";
         }
     }
 
     private void logRequest(ClientRequest request) {
-        try {
-            log.info("""
-                            Request Sending From {}
-                             Uri : {}
-                             Method : {}
-                             Headers : {}
-                             Content type : {}
-                             Acceptable Media Type {}
-                            """,
-                    InetAddress.getLocalHost().getHostAddress(),
-                    request.url(),
-                    request.method(),
-                    request.headers(),
-                    request.headers().getContentType(),
-                    request.headers().getAccept());
-        } catch (UnknownHostException e) {
-            throw new RuntimeException(e);
-        }
+        log.info("""
+                        Request Sending From {}
+                         Uri : {}
+                         Method : {}
+                         Headers : {}
+                         Content type : {}
+                         Acceptable Media Type {}
+                        """,
+                localHostAddress,
+                request.url(),
+                request.method(),
+                request.headers(),
+                request.headers().getContentType(),
+                request.headers().getAccept());
     }
 
     private void logResponse(ClientResponse response, String baseUrl) {
@@ -140,13 +119,6 @@ public class WebClientConfig {
                 response.statusCode(),
                 response.headers().contentType()
         );
-        log.info("Response receiving time from {} is {} ms", baseUrl,
-                Objects.requireNonNull(response.headers()
-                        .header(HeaderNames.RESPONSE_TRANSMISSION_TIME_IN_MS.getValue())
-                        .stream()
-                        .findFirst()
-                        .orElse("0")
-                ));
     }
 
     // Add this method to your config
@@ -7,36 +7,75 @@ import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.transport.logging.AdvancedByteBufFormat;
 
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.TrustManagerFactory;
 import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.security.KeyStore;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class HttpClientConfig {
     @Value("${gateway.timeout.in.ms}")
     private int TIMEOUT;
 
+    /**
+     * Pool shared by every outbound call. Entries under {@code http.client.hosts} ({@code host:port})
+     * get their own pool sizing; all other hosts use {@code http.client.pool}.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider reactiveConnectionProvider(HttpClientProperties properties) {
+        HttpClientProperties.Pool pool = properties.getPool();
+        ConnectionProvider.Builder builder = configure(ConnectionProvider.builder(pool.getName()), pool)
+                .metrics(pool.isMetrics());
+        properties.getHosts().forEach((hostAndPort, hostPool) -> {
+            int separator = hostAndPort.lastIndexOf(':');
+            builder.forRemoteHost(InetSocketAddress.createUnresolved(hostAndPort.substring(0, separator),
+                    Integer.parseInt(hostAndPort.substring(separator + 1))), spec -> configure(spec, hostPool));
+        });
+        return builder.build();
+    }
+
     @Bean
-    public HttpClient reactiveHttpClientWithTimeout() {
-        return HttpClient
-                .create()
+    public HttpClient reactiveHttpClientWithTimeout(ConnectionProvider reactiveConnectionProvider, HttpClientProperties properties) {
+        HttpClientProperties.Dns dns = properties.getDns();
+        HttpClient httpClient = HttpClient
+                .create(reactiveConnectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT)
                 .responseTimeout(Duration.ofMillis(TIMEOUT))
                 .doOnConnected(connection -> {
                     connection.addHandlerLast(new ReadTimeoutHandler(TIMEOUT, TimeUnit.MILLISECONDS));
                     connection.addHandlerLast(new WriteTimeoutHandler(TIMEOUT, TimeUnit.MILLISECONDS));
                 })
-                .wiretap("reactor.netty.http.client.HttpClient",
-                        LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL);
+                .resolver(spec -> spec
+                        .cacheMinTimeToLive(Duration.ofSeconds(dns.getCacheMinTtlSeconds()))
+                        .cacheMaxTimeToLive(Duration.ofSeconds(dns.getCacheMaxTtlSeconds()))
+                        .cacheNegativeTimeToLive(Duration.ofSeconds(dns.getCacheNegativeTtlSeconds())));
+        if (properties.isWiretap()) {
+            httpClient = httpClient.wiretap("reactor.netty.http.client.HttpClient",
+                    LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL);
+        }
+        return httpClient;
+    }
+
+    private static <T extends ConnectionProvider.ConnectionPoolSpec<T>> T configure(T spec, HttpClientProperties.Pool pool) {
+        spec.maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(pool.getMaxIdleTimeMs()))
+                .maxLifeTime(Duration.ofMillis(pool.getMaxLifeTimeMs()))
+                .evictInBackground(Duration.ofMillis(pool.getEvictInBackgroundMs()));
+        return pool.isLifo() ? spec.lifo() : spec.fifo();
     }
 
 }
@@ -0,0 +1,40 @@
+package com.tanvir.programmanagement.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "http.client")
+public class HttpClientProperties {
+    private boolean wiretap = false;
+    private Pool pool = new Pool();
+    private Map<String, Pool> hosts = new HashMap<>();
+    private Dns dns = new Dns();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private String name = "http-client";
+        private int maxConnections = 500;
+        private int pendingAcquireMaxCount = 1000;
+        private long pendingAcquireTimeoutMs = 5000;
+        private long maxIdleTimeMs = 30000;
+        private long maxLifeTimeMs = 300000;
+        private long evictInBackgroundMs = 30000;
+        private boolean lifo = true;
+        private boolean metrics = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Dns {
+        private long cacheMinTtlSeconds = 10;
+        private long cacheMaxTtlSeconds = 300;
+        private long cacheNegativeTtlSeconds = 5;
+    }
+}
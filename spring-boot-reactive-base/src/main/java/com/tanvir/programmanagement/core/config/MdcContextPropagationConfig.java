@@ -0,0 +1,37 @@
+package com.tanvir.programmanagement.core.config;
+
+import com.tanvir.programmanagement.core.filters.MDCKeys;
+import io.micrometer.context.ContextRegistry;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Registers one {@link io.micrometer.context.ThreadLocalAccessor} per MDC key written by
+ * {@code IWebFilter}. With {@code Hooks.enableAutomaticContextPropagation()} Reactor only
+ * restores these values when a signal hops threads, instead of {@link HooksConfig} wrapping every
+ * operator of every pipeline. {@code traceId} and {@code spanId} are left to micrometer tracing,
+ * which already propagates them the same way.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mdc.propagation.mode", havingValue = "context-propagation", matchIfMissing = true)
+public class MdcContextPropagationConfig {
+
+    public static final List<MDCKeys> PROPAGATED_KEYS = List.of(MDCKeys.METHOD, MDCKeys.URI, MDCKeys.REQUEST_TRACE_ID);
+
+    public MdcContextPropagationConfig() {
+        registerThreadLocalAccessors();
+    }
+
+    public static void registerThreadLocalAccessors() {
+        for (MDCKeys mdcKey : PROPAGATED_KEYS) {
+            String key = mdcKey.getValue();
+            ContextRegistry.getInstance().registerThreadLocalAccessor(key,
+                    () -> MDC.get(key),
+                    value -> MDC.put(key, value),
+                    () -> MDC.remove(key));
+        }
+    }
+}
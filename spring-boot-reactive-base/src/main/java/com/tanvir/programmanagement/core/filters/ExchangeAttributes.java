@@ -0,0 +1,16 @@
+package com.tanvir.programmanagement.core.filters;
+
+import lombok.Getter;
+
+@Getter
+public enum ExchangeAttributes {
+    REQUEST_DEADLINE_NANOS("requestDeadlineNanos"),
+    TRACE_PARENT("traceParent"),
+    ;
+
+    private final String value;
+
+    ExchangeAttributes(String value) {
+        this.value = value;
+    }
+}
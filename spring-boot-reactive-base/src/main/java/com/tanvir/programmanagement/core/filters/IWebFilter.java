@@ -1,15 +1,19 @@
 package com.tanvir.programmanagement.core.filters;
 
-import io.micrometer.tracing.Tracer;
+import com.tanvir.programmanagement.core.config.MdcContextPropagationConfig;
+import com.tanvir.programmanagement.core.tracing.TraceContextResolver;
+import com.tanvir.programmanagement.core.tracing.TraceParent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -18,28 +22,50 @@ import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoField;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class IWebFilter implements WebFilter {
 
-    private final Tracer tracer;
+    private final TraceContextResolver traceContextResolver;
+
+    @Value("${mdc.propagation.mode:context-propagation}")
+    private String mdcPropagationMode;
 
     @Override
     public Mono<Void> filter(ServerWebExchange serverWebExchange, WebFilterChain webFilterChain) {
-        ServerWebExchange mutatedServerWebExchange = setRequestHeaders(serverWebExchange);
-        setMdcAttributeForLogBack(mutatedServerWebExchange);
+        TraceParent traceParent = traceContextResolver.resolve(serverWebExchange);
+        ServerWebExchange mutatedServerWebExchange = setRequestHeaders(serverWebExchange, traceParent);
+        Long deadlineNanos = readDeadline(mutatedServerWebExchange);
+        setMdcAttributeForLogBack(mutatedServerWebExchange, traceParent);
         logRequest(mutatedServerWebExchange.getRequest());
-        setResponseHeader(mutatedServerWebExchange);
+        setResponseHeader(mutatedServerWebExchange, traceParent);
         logResponse(mutatedServerWebExchange);
 
 //        return webFilterChain.filter(serverWebExchange);
 
-        Map<String, String> mdcContextMap = MDC.getCopyOfContextMap(); // copy the current MDC context
-
         return webFilterChain.filter(serverWebExchange)
-            .contextWrite(ctx -> ctx.put("mdcContextMap", mdcContextMap)); // put the MDC context into the subscriber context
+            .contextWrite(context -> deadlineNanos != null
+                ? context.put(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue(), deadlineNanos)
+                : context)
+            .contextWrite(this::writeMdcContext);
+    }
+
+    private Long readDeadline(ServerWebExchange serverWebExchange) {
+        String remainingMs = serverWebExchange.getRequest().getHeaders().getFirst(HeaderNames.REQUEST_DEADLINE_IN_MS.getValue());
+        if (remainingMs == null) {
+            return null;
+        }
+        try {
+            long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Long.parseLong(remainingMs.trim()));
+            serverWebExchange.getAttributes().put(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue(), deadlineNanos);
+            return deadlineNanos;
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed {} header : {}", HeaderNames.REQUEST_DEADLINE_IN_MS.getValue(), remainingMs);
+            return null;
+        }
     }
 
     private void logRequest(ServerHttpRequest request) {
@@ -93,7 +119,7 @@ public class IWebFilter implements WebFilter {
         });
     }
 
-    private void setResponseHeader(ServerWebExchange serverWebExchange) {
+    private void setResponseHeader(ServerWebExchange serverWebExchange, TraceParent traceParent) {
         DateTimeFormatter formatter = new DateTimeFormatterBuilder()
                 .appendPattern("yyyy-MM-dd'T'HH:mm:ss")
                 .appendFraction(ChronoField.NANO_OF_SECOND, 3, 6, true)
@@ -119,64 +145,46 @@ public class IWebFilter implements WebFilter {
                     );
                 });
             serverWebExchange.getResponse().getHeaders().set(HeaderNames.RESPONSE_SENT_TIME_IN_MS.getValue(), String.valueOf(LocalDateTime.now()));
-            serverWebExchange.getResponse().getHeaders().set(HeaderNames.TRACE_ID.getValue(),
-                Objects.requireNonNull(serverWebExchange.getRequest().getHeaders().get(HeaderNames.TRACE_ID.getValue()))
-                    .stream()
-                    .findAny()
-                    .orElse(""));
+            if (traceContextResolver.isLegacyHeaders()) {
+                serverWebExchange.getResponse().getHeaders().set(HeaderNames.TRACE_ID.getValue(), traceParent.traceId());
+            }
             return Mono.empty();
         });
     }
 
-    private ServerWebExchange setRequestHeaders(ServerWebExchange serverWebExchange) {
+    private ServerWebExchange setRequestHeaders(ServerWebExchange serverWebExchange, TraceParent traceParent) {
         return serverWebExchange.mutate()
                 .request(originalRequest -> originalRequest.headers(headers -> {
                     headers.set(HeaderNames.REQUEST_RECEIVED_TIME_IN_MS.getValue(), LocalDateTime.now().toString());
-
-                    String traceId = headers.getOrEmpty(HeaderNames.TRACE_ID.getValue())
-                            .stream()
-                            .findFirst()
-                        .orElseGet(() -> {
-                            if (tracer.currentSpan() != null) {
-                                return Objects.requireNonNull(tracer.currentSpan()).context().traceId();
-                            } else {
-                                return "default-trace-id";
-                            }
-                        });
-
-                    headers.set(HeaderNames.TRACE_ID.getValue(), traceId);
+                    if (traceContextResolver.isLegacyHeaders()) {
+                        headers.set(HeaderNames.TRACE_ID.getValue(), traceParent.traceId());
+                    }
                 }))
                 .build();
     }
 
 
-    private void setMdcAttributeForLogBack(ServerWebExchange serverWebExchange) {
-        MDC.put("Method", Objects.requireNonNull(serverWebExchange.getRequest().getMethod()).name());
-        MDC.put("Uri", serverWebExchange.getRequest().getPath().value());
-        final String traceId;
-        final String spanId;
-        if (tracer.currentSpan() != null) {
-            traceId = Objects.requireNonNull(tracer.currentSpan()).context().traceId();
-        } else {
-            traceId = "default-trace-id";
+    private Context writeMdcContext(Context context) {
+        if ("hook".equals(mdcPropagationMode)) {
+            Map<String, String> mdcContextMap = MDC.getCopyOfContextMap();
+            return mdcContextMap != null ? context.put("mdcContextMap", mdcContextMap) : context;
         }
-        if (tracer.currentSpan() != null) {
-            spanId = Objects.requireNonNull(tracer.currentSpan()).context().spanId();
-        } else {
-            spanId = "default-span-id";
+        Context mdcContext = context;
+        for (MDCKeys mdcKey : MdcContextPropagationConfig.PROPAGATED_KEYS) {
+            String value = MDC.get(mdcKey.getValue());
+            if (value != null) {
+                mdcContext = mdcContext.put(mdcKey.getValue(), value);
+            }
         }
-        MDC.put("traceId", Objects.requireNonNull(serverWebExchange.getRequest().getHeaders().get(HeaderNames.TRACE_ID.getValue()))
-            .stream()
-            .findFirst()
-            .orElseGet(() -> traceId));
-        MDC.put("spanId", Objects.requireNonNull(serverWebExchange.getRequest().getHeaders().get(HeaderNames.TRACE_ID.getValue()))
-            .stream()
-            .findFirst()
-            .orElseGet(() -> spanId));
-        MDC.put("Request-Trace-Id", Objects.requireNonNull(serverWebExchange.getRequest().getHeaders().get(HeaderNames.TRACE_ID.getValue()))
-            .stream()
-            .findFirst()
-            .orElseGet(() -> traceId));
+        return mdcContext;
+    }
+
+    private void setMdcAttributeForLogBack(ServerWebExchange serverWebExchange, TraceParent traceParent) {
+        MDC.put(MDCKeys.METHOD.getValue(), Objects.requireNonNull(serverWebExchange.getRequest().getMethod()).name());
+        MDC.put(MDCKeys.URI.getValue(), serverWebExchange.getRequest().getPath().value());
+        MDC.put("traceId", traceParent.traceId());
+        MDC.put("spanId", traceParent.spanId());
+        MDC.put(MDCKeys.REQUEST_TRACE_ID.getValue(), traceParent.traceId());
     }
 
 }
@@ -7,6 +7,7 @@ public enum MDCKeys {
     TRACE_ID("Trace-ID"),
     METHOD("Method"),
     URI("Uri"),
+    REQUEST_TRACE_ID("Request-Trace-Id"),
     ;
 
     private final String value;
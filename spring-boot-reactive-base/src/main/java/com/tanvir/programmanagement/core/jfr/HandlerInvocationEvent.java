@@ -0,0 +1,44 @@
+package com.tanvir.programmanagement.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One call of a router handler, from invocation until its {@code ServerResponse} is ready; writing
+ * the body is not included.
+ */
+@Name("com.tanvir.programmanagement.HandlerInvocation")
+@Label("Handler Invocation")
+@Category({"Program Management"})
+@StackTrace(false)
+@Threshold("10 ms")
+public class HandlerInvocationEvent extends Event {
+
+    @Label("Route Pattern")
+    String pattern;
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Outcome")
+    @Description("Reactor signal the handler completed with")
+    String outcome;
+
+    @Label("Error")
+    @Description("Exception the handler failed with, if it was not turned into a response")
+    String error;
+
+    @Label("Trace Id")
+    String traceId;
+}
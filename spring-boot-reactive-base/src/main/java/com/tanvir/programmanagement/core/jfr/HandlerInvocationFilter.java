@@ -0,0 +1,54 @@
+package com.tanvir.programmanagement.core.jfr;
+
+import com.tanvir.programmanagement.core.filters.ExchangeAttributes;
+import com.tanvir.programmanagement.core.tracing.TraceParent;
+import jdk.jfr.EventType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records a {@link HandlerInvocationEvent} around every handler of the routers it is applied to.
+ * Handlers pass straight through, without an event being allocated, while no recording has the
+ * event enabled.
+ */
+@Component
+public class HandlerInvocationFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(HandlerInvocationEvent.class);
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        if (!EVENT_TYPE.isEnabled()) {
+            return next.handle(request);
+        }
+        HandlerInvocationEvent event = new HandlerInvocationEvent();
+        event.begin();
+        return Mono.defer(() -> next.handle(request))
+                .doOnSuccess(response -> commit(event, request, response != null ? response.statusCode().value() : 0,
+                        SignalType.ON_COMPLETE, null))
+                .doOnError(e -> commit(event, request, 0, SignalType.ON_ERROR, e))
+                .doOnCancel(() -> commit(event, request, 0, SignalType.CANCEL, null));
+    }
+
+    private static void commit(HandlerInvocationEvent event, ServerRequest request, int status, SignalType outcome, Throwable error) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        TraceParent traceParent = request.exchange().getAttribute(ExchangeAttributes.TRACE_PARENT.getValue());
+        event.pattern = request.attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE).map(Object::toString).orElse(null);
+        event.method = request.method().name();
+        event.path = request.path();
+        event.status = status;
+        event.outcome = outcome.name();
+        event.error = error != null ? error.getClass().getName() : null;
+        event.traceId = traceParent != null ? traceParent.traceId() : null;
+        event.commit();
+    }
+}
@@ -0,0 +1,42 @@
+package com.tanvir.programmanagement.core.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    private static final long DEFAULT_DUMP_MINUTES = 5;
+
+    private final ContinuousRecording continuousRecording;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return continuousRecording.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> dump(@Nullable Long minutes) {
+        if (!continuousRecording.isRunning()) {
+            return Map.of("error", "The continuous flight recording is not running");
+        }
+        try {
+            Path file = continuousRecording.dump(minutes != null ? minutes : DEFAULT_DUMP_MINUTES);
+            return Map.of("file", file.toString(), "bytes", Files.size(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.tanvir.programmanagement.core.tracing;
+
+import brave.baggage.BaggageField;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reports head sampled spans at once and holds the others until the local root span of their trace
+ * ends. The trace is then reported anyway when the root failed, a span of the trace failed, or the
+ * root took longer than its latency threshold; otherwise its spans are left to be overwritten.
+ * <p>
+ * Pending spans live in a fixed ring: adding is one slot write, memory is bounded whatever the
+ * traffic, and a trace that stays undecided for longer than the ring takes to wrap loses its oldest
+ * spans rather than growing the heap. Each pending span links to the previous one whose trace id hashed
+ * to the same bucket, so a kept trace walks only its own chain back to the oldest slot still in the
+ * ring instead of scanning the whole ring.
+ * <p>
+ * The latency threshold comes from the {@code sampling-threshold-in-ms} baggage field the gateway sends
+ * with the threshold of its route, so this service keeps its part of a trace whenever that part alone
+ * would have made the gateway keep it; otherwise from {@code routes} by route pattern.
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+    public static final String THRESHOLD_FIELD = "sampling-threshold-in-ms";
+    public static final String METRIC_NAME = "tracing.tail-sampling.traces";
+    private static final int ERROR_SLOTS = 1024;
+
+    private final List<SpanHandler> reporters;
+    private final TailSamplingProperties properties;
+    private final AtomicReferenceArray<Pending> ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(1);
+    private final AtomicLongArray chainHeads;
+    private final AtomicLongArray failedTraces = new AtomicLongArray(ERROR_SLOTS);
+    private final Counter headSampled;
+    private final Counter keptOnError;
+    private final Counter keptSlow;
+    private final Counter dropped;
+
+    public TailSamplingSpanHandler(List<SpanHandler> reporters, TailSamplingProperties properties, MeterRegistry meterRegistry) {
+        this.reporters = List.copyOf(reporters);
+        this.properties = properties;
+        int size = Integer.highestOneBit(Math.max(1, properties.getBufferSize() - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.chainHeads = new AtomicLongArray(size);
+        this.headSampled = meterRegistry.counter(METRIC_NAME, "decision", "head");
+        this.keptOnError = meterRegistry.counter(METRIC_NAME, "decision", "error");
+        this.keptSlow = meterRegistry.counter(METRIC_NAME, "decision", "slow");
+        this.dropped = meterRegistry.counter(METRIC_NAME, "decision", "dropped");
+    }
+
+    @Override
+    public boolean begin(TraceContext context, MutableSpan span, TraceContext parent) {
+        if (Boolean.TRUE.equals(context.sampled())) {
+            for (SpanHandler reporter : reporters) {
+                if (!reporter.begin(context, span, parent)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+            return true;
+        }
+        if (Boolean.TRUE.equals(context.sampled())) {
+            if (context.isLocalRoot()) {
+                headSampled.increment();
+            }
+            report(context, span, cause);
+            return true;
+        }
+        boolean failed = failed(span);
+        if (!context.isLocalRoot()) {
+            if (failed) {
+                failedTraces.set(errorSlot(context.traceId()), context.traceId());
+            }
+            long sequence = cursor.getAndIncrement();
+            long previous = chainHeads.getAndSet(chainSlot(context.traceId()), sequence);
+            ring.set((int) (sequence & mask), new Pending(context, span, sequence, previous, new AtomicBoolean()));
+            return true;
+        }
+        if (failed || failedTraces.get(errorSlot(context.traceId())) == context.traceId()) {
+            keptOnError.increment();
+        } else if (span.finishTimestamp() - span.startTimestamp() > TimeUnit.MILLISECONDS.toMicros(thresholdMs(context, span))) {
+            keptSlow.increment();
+        } else {
+            dropped.increment();
+            return true;
+        }
+        reportPending(context);
+        report(sampled(context), span, cause);
+        return true;
+    }
+
+    @Override
+    public boolean handlesAbandoned() {
+        return false;
+    }
+
+    /**
+     * Follows the chain of the trace's bucket from the newest span. Sequences only decrease along it, so
+     * the walk stops at the first slot that was overwritten since; spans of other traces in the bucket
+     * are skipped, and each span is reported once even when two roots of the trace end together.
+     */
+    private void reportPending(TraceContext context) {
+        long oldest = cursor.get() - ring.length();
+        long sequence = chainHeads.get(chainSlot(context.traceId()));
+        while (sequence > 0 && sequence >= oldest) {
+            Pending pending = ring.get((int) (sequence & mask));
+            if (pending == null || pending.sequence != sequence) {
+                return;
+            }
+            if (pending.context.traceId() == context.traceId() && pending.context.traceIdHigh() == context.traceIdHigh()
+                    && pending.reported.compareAndSet(false, true)) {
+                report(sampled(pending.context), pending.span, Cause.FINISHED);
+            }
+            sequence = pending.previous;
+        }
+    }
+
+    private void report(TraceContext context, MutableSpan span, Cause cause) {
+        for (SpanHandler reporter : reporters) {
+            if (!reporter.end(context, span, cause)) {
+                return;
+            }
+        }
+    }
+
+    private long thresholdMs(TraceContext context, MutableSpan span) {
+        BaggageField field = BaggageField.getByName(context, THRESHOLD_FIELD);
+        String propagated = field != null ? field.getValue(context) : null;
+        if (propagated != null) {
+            try {
+                return Long.parseLong(propagated);
+            } catch (NumberFormatException ignored) {
+                // fall back to the local threshold
+            }
+        }
+        String route = span.tag("uri");
+        Long routeThreshold = route != null ? properties.getRoutes().get(route) : null;
+        return routeThreshold != null ? routeThreshold : properties.getLatencyThresholdMs();
+    }
+
+    private static boolean failed(MutableSpan span) {
+        return span.error() != null || span.tag("error") != null || "SERVER_ERROR".equals(span.tag("outcome"));
+    }
+
+    private static TraceContext sampled(TraceContext context) {
+        return context.toBuilder().sampled(true).build();
+    }
+
+    private static int errorSlot(long traceId) {
+        return (int) (traceId ^ (traceId >>> 32)) & (ERROR_SLOTS - 1);
+    }
+
+    private int chainSlot(long traceId) {
+        return (int) (traceId ^ (traceId >>> 32)) & mask;
+    }
+
+    private record Pending(TraceContext context, MutableSpan span, long sequence, long previous, AtomicBoolean reported) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.tanvir.programmanagement.core.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "tracing.zipkin")
+public class ZipkinReporterProperties {
+    /**
+     * Spans held in memory for the reporter thread; beyond this, new spans are dropped and counted.
+     */
+    private int queuedMaxSpans = 10000;
+    /**
+     * Longest a span waits for its batch to fill before the batch is sent.
+     */
+    private long messageTimeoutMs = 1000;
+    private Spool spool = new Spool();
+
+    @Getter
+    @Setter
+    public static class Spool {
+        private boolean enabled = true;
+        /**
+         * Spool file; empty means {@code zipkin-spool-<application name>.dat} in the temp directory.
+         */
+        private String file = "";
+        private int sizeBytes = 64 * 1024 * 1024;
+        /**
+         * How long to spool without trying the collector after it failed, and how often to replay.
+         */
+        private long retryIntervalMs = 5000;
+    }
+}
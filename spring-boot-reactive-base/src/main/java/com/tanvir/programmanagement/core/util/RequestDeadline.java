@@ -0,0 +1,35 @@
+package com.tanvir.programmanagement.core.util;
+
+import com.tanvir.programmanagement.core.filters.ExchangeAttributes;
+import com.tanvir.programmanagement.core.util.exception.ExceptionHandlerUtil;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Applies the deadline that {@code IWebFilter} read from {@code Request-Deadline-In-Ms} to a handler
+ * pipeline. Running out of time cancels the pipeline and fails it with a {@code 504}
+ * {@link ExceptionHandlerUtil}.
+ */
+@UtilityClass
+public class RequestDeadline {
+
+    public <T> Function<Mono<T>, Mono<T>> within(ServerRequest serverRequest) {
+        return mono -> serverRequest.attribute(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue())
+                .map(deadlineNanos -> {
+                    long remainingNanos = (Long) deadlineNanos - System.nanoTime();
+                    return remainingNanos <= 0
+                            ? Mono.<T>error(deadlineExceeded())
+                            : mono.timeout(Duration.ofNanos(remainingNanos), Mono.error(RequestDeadline::deadlineExceeded));
+                })
+                .orElse(mono);
+    }
+
+    public ExceptionHandlerUtil deadlineExceeded() {
+        return new ExceptionHandlerUtil(HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded");
+    }
+}
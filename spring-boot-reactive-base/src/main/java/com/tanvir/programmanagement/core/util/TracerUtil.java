@@ -1,29 +1,26 @@
 package com.tanvir.programmanagement.core.util;
 
+import com.tanvir.programmanagement.core.tracing.TraceContextResolver;
+import com.tanvir.programmanagement.core.tracing.TraceIds;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
-
 @Component
 @Slf4j
 public class TracerUtil {
 
-//    private final Tracer tracer;
+    private final TraceContextResolver traceContextResolver;
 //    private final TransactionRepositoryService transactionRepositoryService;
 
-//    public TracerUtil(Tracer tracer) {
-//        this.tracer = tracer;
-//    }
+    public TracerUtil(TraceContextResolver traceContextResolver) {
+        this.traceContextResolver = traceContextResolver;
+    }
 
+    /**
+     * The trace id of the span in scope, or a fresh one when there is none.
+     */
     public String getCurrentTraceId() {
-        /*Span span =  tracer.currentSpan();
-        if (span == null) {
-            log.info("Sleuth Span is Null !");
-            return "";
-        }
-        return span.context().traceId();*/
-        return String.valueOf(UUID.randomUUID());
+        return traceContextResolver.current().traceId();
     }
 
     /*public String getTraceId(String refId) throws ExceptionHandlerUtil {
@@ -34,7 +31,7 @@ public class TracerUtil {
     }*/
 
     public String getReqId() {
-        return String.valueOf(UUID.randomUUID());
+        return TraceIds.newTraceId();
     }
 
     /*public String getReqId(String refId) throws ExceptionHandlerUtil {
@@ -1,5 +1,6 @@
 package com.tanvir.programmanagement.task.adapter.in.web.handler;
 
+import com.tanvir.programmanagement.core.util.RequestDeadline;
 import com.tanvir.programmanagement.core.util.exception.ErrorHandler;
 import com.tanvir.programmanagement.core.util.exception.ExceptionHandlerUtil;
 import com.tanvir.programmanagement.task.application.port.in.TaskManagementUseCase;
@@ -22,6 +23,7 @@ public class TaskManagementHandller {
         String clientId = serverRequest.pathVariable("clientId");
         String taskId  = serverRequest.pathVariable("taskId");
         return taskManagementUseCase.getTaskDetailById(taskId)
+                .transform(RequestDeadline.within(serverRequest))
                 .flatMap(responseDto -> ServerResponse.ok()
                         .contentType(MediaType.APPLICATION_JSON)
                         .bodyValue(responseDto))
@@ -32,6 +34,7 @@ public class TaskManagementHandller {
     public Mono<ServerResponse> getTaskList(ServerRequest serverRequest) {
         String clientId = serverRequest.pathVariable("clientId");
         return taskManagementUseCase.getTaskList()
+                .transform(RequestDeadline.within(serverRequest))
                 .flatMap(responseDto -> ServerResponse.ok()
                         .contentType(MediaType.APPLICATION_JSON)
                         .bodyValue(responseDto))
@@ -1,5 +1,6 @@
 package com.tanvir.programmanagement.task.adapter.in.web.router;
 
+import com.tanvir.programmanagement.core.jfr.HandlerInvocationFilter;
 import com.tanvir.programmanagement.core.routes.RouteNames;
 import com.tanvir.programmanagement.task.adapter.in.web.handler.TaskManagementHandller;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +16,7 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 @RequiredArgsConstructor
 public class TaskManagementRouter {
     private final TaskManagementHandller handler;
+    private final HandlerInvocationFilter handlerInvocationFilter;
     @Bean
     public RouterFunction<ServerResponse> taskManagementRouterConfig() {
         return RouterFunctions.route()
@@ -22,6 +24,7 @@ public class TaskManagementRouter {
                         .GET(RouteNames.PROGRAM_BASE_URL.concat(RouteNames.TASK).concat(RouteNames.DETAILS), handler::getTaskDetails)
                         .GET(RouteNames.PROGRAM_BASE_URL.concat(RouteNames.TASK).concat(RouteNames.LIST), handler::getTaskList)
                 )
+                .filter(handlerInvocationFilter)
                 .build();
     }
 }
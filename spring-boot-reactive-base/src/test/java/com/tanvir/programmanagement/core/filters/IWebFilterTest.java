@@ -0,0 +1,68 @@
+package com.tanvir.programmanagement.core.filters;
+
+import com.tanvir.programmanagement.core.tracing.TraceContextResolver;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IWebFilterTest {
+
+    private final IWebFilter webFilter = new IWebFilter(new TraceContextResolver(Tracer.NOOP, true));
+
+    @Test
+    void shouldReadDeadlineIntoAttributeAndContext() {
+        AtomicReference<Long> contextDeadline = new AtomicReference<>();
+        long beforeNanos = System.nanoTime();
+        MockServerWebExchange exchange = exchange("250");
+
+        webFilter.filter(exchange, filtered -> Mono.deferContextual(context -> {
+            contextDeadline.set(context.getOrDefault(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue(), null));
+            return Mono.empty();
+        })).block();
+
+        Long deadlineNanos = exchange.getAttribute(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue());
+        assertNotNull(deadlineNanos);
+        assertEquals(deadlineNanos, contextDeadline.get());
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - beforeNanos);
+        assertTrue(remainingMs >= 250 && remainingMs < 1000, "deadline " + remainingMs + " ms after the request");
+    }
+
+    @Test
+    void shouldIgnoreMalformedDeadline() {
+        AtomicReference<Boolean> hasDeadline = new AtomicReference<>();
+        MockServerWebExchange exchange = exchange("soon");
+
+        webFilter.filter(exchange, filtered -> Mono.deferContextual(context -> {
+            hasDeadline.set(context.hasKey(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue()));
+            return Mono.empty();
+        })).block();
+
+        assertNull(exchange.getAttribute(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue()));
+        assertFalse(hasDeadline.get());
+    }
+
+    @Test
+    void shouldLeaveRequestsWithoutDeadlineUnbounded() {
+        MockServerWebExchange exchange = exchange(null);
+
+        webFilter.filter(exchange, filtered -> Mono.empty()).block();
+
+        assertNull(exchange.getAttribute(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue()));
+    }
+
+    private static MockServerWebExchange exchange(String deadlineMs) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/program/client/task/list")
+                .header(HeaderNames.TRACE_ID.getValue(), "4bf92f3577b34da6a3ce929d0e0e4736");
+        if (deadlineMs != null) {
+            request.header(HeaderNames.REQUEST_DEADLINE_IN_MS.getValue(), deadlineMs);
+        }
+        return MockServerWebExchange.from(request);
+    }
+}
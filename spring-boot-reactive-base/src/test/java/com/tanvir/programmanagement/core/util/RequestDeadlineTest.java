@@ -0,0 +1,67 @@
+package com.tanvir.programmanagement.core.util;
+
+import com.tanvir.programmanagement.core.filters.ExchangeAttributes;
+import com.tanvir.programmanagement.core.util.exception.ExceptionHandlerUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestDeadlineTest {
+
+    @Test
+    void shouldPassThroughWithoutDeadline() {
+        MockServerRequest request = MockServerRequest.builder().build();
+
+        StepVerifier.create(Mono.just("tasks").transform(RequestDeadline.within(request)))
+                .expectNext("tasks")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCancelPipelineWhenDeadlinePasses() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        MockServerRequest request = withDeadline(TimeUnit.MILLISECONDS.toNanos(50));
+
+        StepVerifier.create(Mono.never().doOnCancel(() -> cancelled.set(true)).transform(RequestDeadline.within(request)))
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(ExceptionHandlerUtil.class, e);
+                    assertEquals(HttpStatus.GATEWAY_TIMEOUT, ((ExceptionHandlerUtil) e).getCode());
+                })
+                .verify(Duration.ofSeconds(2));
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void shouldFailAtOnceWhenDeadlineIsSpent() {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        MockServerRequest request = withDeadline(-TimeUnit.MILLISECONDS.toNanos(1));
+
+        StepVerifier.create(Mono.just("tasks").doOnSubscribe(s -> subscribed.set(true)).transform(RequestDeadline.within(request)))
+                .expectError(ExceptionHandlerUtil.class)
+                .verify(Duration.ofSeconds(2));
+        assertFalse(subscribed.get());
+    }
+
+    @Test
+    void shouldCompleteWithinDeadline() {
+        MockServerRequest request = withDeadline(TimeUnit.SECONDS.toNanos(5));
+
+        StepVerifier.create(Mono.just("tasks").transform(RequestDeadline.within(request)))
+                .expectNext("tasks")
+                .verifyComplete();
+    }
+
+    private static MockServerRequest withDeadline(long remainingNanos) {
+        return MockServerRequest.builder()
+                .attribute(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue(), System.nanoTime() + remainingNanos)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.tanvir.gateway.core.config;
+
+import com.tanvir.gateway.core.filters.MDCKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.MDC;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Map;
+
+/**
+ * Compares the legacy {@link HooksConfig} per-operator lift against context-propagation based MDC
+ * on pipelines shaped like the ones the gateway runs per exchange.
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=MdcPropagationBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+public class MdcPropagationBenchmark {
+
+    @Param({"none", "hook", "context-propagation"})
+    public String mode;
+
+    private Context hookContext;
+    private Context propagationContext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Hooks.resetOnEachOperator();
+        Hooks.disableAutomaticContextPropagation();
+        MDC.put(MDCKeys.METHOD.getValue(), "GET");
+        MDC.put(MDCKeys.URI.getValue(), "/api/v1/program/client/task/list");
+        MDC.put(MDCKeys.REQUEST_TRACE_ID.getValue(), "4bf92f3577b34da6a3ce929d0e0e4736");
+        hookContext = Context.of("mdcContextMap", Map.copyOf(MDC.getCopyOfContextMap()));
+        propagationContext = Context.of(
+                MDCKeys.METHOD.getValue(), "GET",
+                MDCKeys.URI.getValue(), "/api/v1/program/client/task/list",
+                MDCKeys.REQUEST_TRACE_ID.getValue(), "4bf92f3577b34da6a3ce929d0e0e4736");
+        switch (mode) {
+            case "hook" -> new HooksConfig();
+            case "context-propagation" -> {
+                MdcContextPropagationConfig.registerThreadLocalAccessors();
+                Hooks.enableAutomaticContextPropagation();
+            }
+            default -> {
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Hooks.resetOnEachOperator();
+        Hooks.disableAutomaticContextPropagation();
+        MDC.clear();
+    }
+
+    @Benchmark
+    public Integer monoChain() {
+        return Mono.just(1)
+                .map(value -> value + 1)
+                .flatMap(value -> Mono.just(value * 2))
+                .filter(value -> value > 0)
+                .doOnNext(value -> MDC.get(MDCKeys.URI.getValue()))
+                .contextWrite(context())
+                .block();
+    }
+
+    @Benchmark
+    public Integer fusedFluxChain() {
+        return Flux.range(0, 64)
+                .map(value -> value + 1)
+                .filter(value -> (value & 1) == 0)
+                .reduce(0, Integer::sum)
+                .contextWrite(context())
+                .block();
+    }
+
+    private Context context() {
+        return "hook".equals(mode) ? hookContext : propagationContext;
+    }
+}
@@ -0,0 +1,175 @@
+package com.tanvir.gateway.core.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.filter.ThresholdFilter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.Duration;
+import com.tanvir.gateway.core.filters.MDCKeys;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Compares the default {@code logback-spring.xml} pipeline (synchronous Console, JSON and error
+ * appenders next to an {@code AsyncAppender} with caller data) against the {@code ring-logging}
+ * profile, where {@link DebugSheddingAsyncAppender} feeds the same appenders from one thread.
+ * Console output goes to a null stream; the files go to a temporary directory.
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=LoggingPipelineBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+public class LoggingPipelineBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [ gateway, %X{spanId:-}, %X{traceId:-}, %X{Method} %X{Uri} ] [%t] %-5level ";
+
+    @Param({"async-caller-data", "ring"})
+    public String pipeline;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private Path logDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logDir = Files.createTempDirectory("logging-benchmark");
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+
+        boolean ring = "ring".equals(pipeline);
+        String caller = ring ? "%logger{0}" : "%class{0}";
+        Appender<ILoggingEvent> console = console(PATTERN + caller + " - %msg%n");
+        Appender<ILoggingEvent> plainFile = file("app.log", pattern(PATTERN + caller + " - %msg%n"));
+        Appender<ILoggingEvent> jsonFile = file("app-json.log", json());
+        Appender<ILoggingEvent> errorFile = file("error.log", pattern(PATTERN + caller + " - %msg%n"));
+        ThresholdFilter errorsOnly = new ThresholdFilter();
+        errorsOnly.setLevel("ERROR");
+        errorsOnly.start();
+        errorFile.addFilter(errorsOnly);
+
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        if (ring) {
+            DebugSheddingAsyncAppender ringAppender = new DebugSheddingAsyncAppender();
+            ringAppender.setContext(loggerContext);
+            ringAppender.setRingBufferSize(16384);
+            ringAppender.setAppendTimeout(Duration.buildByMilliseconds(0));
+            ringAppender.setWaitStrategyType("sleeping");
+            ringAppender.addAppender(console);
+            ringAppender.addAppender(plainFile);
+            ringAppender.addAppender(errorFile);
+            ringAppender.addAppender(jsonFile);
+            ringAppender.start();
+            root.addAppender(ringAppender);
+        } else {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(5000);
+            async.setDiscardingThreshold(0);
+            async.setIncludeCallerData(true);
+            async.addAppender(plainFile);
+            async.start();
+            root.addAppender(console);
+            root.addAppender(async);
+            root.addAppender(errorFile);
+            root.addAppender(jsonFile);
+        }
+        logger = loggerContext.getLogger(LoggingPipelineBenchmark.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        loggerContext.reset();
+        try (Stream<Path> files = Files.walk(logDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * The MDC of a request, on each benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class RequestMdc {
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            MDC.put("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+            MDC.put("spanId", "00f067aa0ba902b7");
+            MDC.put(MDCKeys.METHOD.getValue(), "GET");
+            MDC.put(MDCKeys.URI.getValue(), "/api/v1/program/client/task/list");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            MDC.clear();
+        }
+    }
+
+    @Benchmark
+    public void info(RequestMdc requestMdc) {
+        logger.info("Routed {} to {} in {} ms", "/api/v1/program/client/task/list", "program-task-service", 12);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void infoFromFourEventLoops(RequestMdc requestMdc) {
+        logger.info("Routed {} to {} in {} ms", "/api/v1/program/client/task/list", "program-task-service", 12);
+    }
+
+    private Appender<ILoggingEvent> console(String pattern) {
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(loggerContext);
+        console.setEncoder(pattern(pattern));
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.start();
+        return console;
+    }
+
+    private Appender<ILoggingEvent> file(String name, Encoder<ILoggingEvent> encoder) {
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(loggerContext);
+        file.setName(name);
+        file.setFile(logDir.resolve(name).toString());
+        file.setEncoder(encoder);
+        file.start();
+        return file;
+    }
+
+    private Encoder<ILoggingEvent> pattern(String pattern) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(pattern);
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> json() {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(loggerContext);
+        encoder.start();
+        return encoder;
+    }
+}
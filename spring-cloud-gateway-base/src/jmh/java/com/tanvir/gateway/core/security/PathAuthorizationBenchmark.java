@@ -0,0 +1,74 @@
+package com.tanvir.gateway.core.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the compiled {@link PathAuthorizationTrie} against matching the same rules one
+ * {@link PathPattern} at a time, which is what a chain of {@code pathMatchers(...)} does. The path is
+ * matched by the last rule, the worst case for the linear scan.
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=PathAuthorizationBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+public class PathAuthorizationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int ruleCount;
+
+    private PathAuthorizationTrie trie;
+    private List<PathPattern> patterns;
+    private String path;
+    private PathContainer pathContainer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<AuthorizationProperties.Rule> rules = new ArrayList<>();
+        patterns = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            String pattern = switch (i % 3) {
+                case 0 -> "/api/v1/service" + i + "/**";
+                case 1 -> "/api/v1/service" + i + "/*/items";
+                default -> "/api/v1/service" + i + "/list";
+            };
+            AuthorizationProperties.Rule rule = new AuthorizationProperties.Rule();
+            rule.setPath(pattern);
+            rule.setRoles(List.of("USER"));
+            rules.add(rule);
+            patterns.add(PathPatternParser.defaultInstance.parse(pattern));
+        }
+        trie = PathAuthorizationTrie.compile(rules, AuthorizationAccess.AUTHENTICATED);
+        int last = ruleCount - 1;
+        path = switch (last % 3) {
+            case 0 -> "/api/v1/service" + last + "/tasks/42";
+            case 1 -> "/api/v1/service" + last + "/42/items";
+            default -> "/api/v1/service" + last + "/list";
+        };
+        pathContainer = PathContainer.parsePath(path);
+    }
+
+    @Benchmark
+    public RequiredAccess trie() {
+        return trie.match(path);
+    }
+
+    @Benchmark
+    public PathPattern linear() {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(pathContainer)) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+}
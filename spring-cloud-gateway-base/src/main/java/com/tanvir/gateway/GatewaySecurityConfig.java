@@ -1,12 +1,20 @@
 package com.tanvir.gateway;
 
+import com.tanvir.gateway.core.security.CachingJwtAuthenticationManager;
+import com.tanvir.gateway.core.security.JwtValidationCache;
+import com.tanvir.gateway.core.security.TrieReactiveAuthorizationManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtReactiveAuthenticationManager;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
 
 import reactor.core.publisher.Flux;
 
@@ -14,8 +22,26 @@ import reactor.core.publisher.Flux;
 @EnableWebFluxSecurity
 public class GatewaySecurityConfig {
 
+    /**
+     * Paths the rules permit to everyone never reach the bearer token filter.
+     */
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain permitAllSecurityFilterChain(ServerHttpSecurity http,
+                                                               TrieReactiveAuthorizationManager authorizationManager) {
+        http
+                .securityMatcher(exchange -> authorizationManager.isPermitAll(exchange.getRequest().getPath().pathWithinApplication())
+                        ? ServerWebExchangeMatcher.MatchResult.match()
+                        : ServerWebExchangeMatcher.MatchResult.notMatch())
+                .authorizeExchange(exchanges -> exchanges.anyExchange().permitAll())
+                .csrf(ServerHttpSecurity.CsrfSpec::disable);
+        return http.build();
+    }
+
+    @Bean
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http, ReactiveJwtDecoder jwtDecoder,
+                                                            JwtValidationCache jwtValidationCache,
+                                                            TrieReactiveAuthorizationManager authorizationManager) {
         JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
         authoritiesConverter.setAuthoritiesClaimName("roles");
         authoritiesConverter.setAuthorityPrefix("ROLE_");
@@ -25,17 +51,14 @@ public class GatewaySecurityConfig {
             Flux.fromIterable(authoritiesConverter.convert(jwt))
         );
 
+        JwtReactiveAuthenticationManager jwtAuthenticationManager = new JwtReactiveAuthenticationManager(jwtDecoder);
+        jwtAuthenticationManager.setJwtAuthenticationConverter(jwtAuthenticationConverter);
+
         http
-                .authorizeExchange(exchanges -> exchanges
-                        .pathMatchers("/auth/**", "/login/**", "/oauth2/**", "/logout", "/error").permitAll()
-                        .pathMatchers("/client/**").permitAll()
-                        .pathMatchers("/api/v1/program/client/task/list").hasRole("ROLE_USER")
-                        .pathMatchers("/api/v1/admin/**").hasRole("ADMIN")
-                        .anyExchange().authenticated()
-                )
+                .authorizeExchange(exchanges -> exchanges.anyExchange().access(authorizationManager))
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter))
+                        .jwt(jwt -> jwt.authenticationManager(new CachingJwtAuthenticationManager(jwtAuthenticationManager, jwtValidationCache)))
                 );
         return http.build();
     }
@@ -2,9 +2,11 @@ package com.tanvir.gateway;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import reactor.core.publisher.Hooks;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SpringCloudGatewayApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,104 @@
+package com.tanvir.gateway.core.accesslog;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Raw references captured on the event loop. Nothing is formatted until {@link #appendJson}
+ * runs on the access log writer thread.
+ */
+@Getter
+@Builder
+public class AccessLogEntry {
+    private final long timestamp;
+    private final String routeId;
+    private final String method;
+    private final String path;
+    private final String query;
+    private final int status;
+    private final long durationNanos;
+    private final String outcome;
+    private final String traceId;
+    private final InetSocketAddress remoteAddress;
+    private final List<Map.Entry<String, String>> requestHeaders;
+    private final List<Map.Entry<String, String>> responseHeaders;
+
+    void appendJson(StringBuilder json) {
+        json.append('{');
+        appendField(json, "timestamp", timestamp).append(',');
+        appendField(json, "routeId", routeId).append(',');
+        appendField(json, "method", method).append(',');
+        appendField(json, "path", path).append(',');
+        if (query != null) {
+            appendField(json, "query", query).append(',');
+        }
+        appendField(json, "status", status).append(',');
+        json.append("\"durationMs\":").append(durationNanos / 1_000_000).append('.');
+        long fraction = (durationNanos / 1_000) % 1_000;
+        if (fraction < 100) {
+            json.append(fraction < 10 ? "00" : "0");
+        }
+        json.append(fraction).append(',');
+        appendField(json, "outcome", outcome).append(',');
+        appendField(json, "traceId", traceId);
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            json.append(',');
+            appendField(json, "client", remoteAddress.getAddress().getHostAddress());
+        }
+        if (requestHeaders != null) {
+            json.append(',');
+            appendHeaders(json, "requestHeaders", requestHeaders);
+        }
+        if (responseHeaders != null) {
+            json.append(',');
+            appendHeaders(json, "responseHeaders", responseHeaders);
+        }
+        json.append('}');
+    }
+
+    private static void appendHeaders(StringBuilder json, String name, List<Map.Entry<String, String>> headers) {
+        appendString(json, name).append(":{");
+        for (int i = 0; i < headers.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendField(json, headers.get(i).getKey(), headers.get(i).getValue());
+        }
+        json.append('}');
+    }
+
+    private static StringBuilder appendField(StringBuilder json, String name, long value) {
+        return appendString(json, name).append(':').append(value);
+    }
+
+    private static StringBuilder appendField(StringBuilder json, String name, String value) {
+        appendString(json, name).append(':');
+        return value == null ? json.append("null") : appendString(json, value);
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+}
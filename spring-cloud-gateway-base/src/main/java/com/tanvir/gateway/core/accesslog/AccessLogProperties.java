@@ -0,0 +1,24 @@
+package com.tanvir.gateway.core.accesslog;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+    private boolean enabled = true;
+    private double sampleRate = 0.01;
+    private boolean keepErrors = true;
+    private long slowThresholdMs = 1000;
+    private int queueCapacity = 8192;
+    private AccessLogVerbosity verbosity = AccessLogVerbosity.BASIC;
+    private Map<String, AccessLogVerbosity> routes = new HashMap<>();
+    private List<String> excludedPaths = new ArrayList<>(List.of("/actuator", "/swagger"));
+}
@@ -0,0 +1,7 @@
+package com.tanvir.gateway.core.accesslog;
+
+public enum AccessLogVerbosity {
+    NONE,
+    BASIC,
+    HEADERS,
+}
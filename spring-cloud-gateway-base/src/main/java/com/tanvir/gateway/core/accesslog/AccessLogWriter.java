@@ -0,0 +1,86 @@
+package com.tanvir.gateway.core.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single consumer thread that renders access log entries and hands them to logback. The event
+ * loop only ever calls {@link #offer}, which never blocks; entries are dropped and counted when
+ * the queue is full.
+ */
+@Component
+@Slf4j
+public class AccessLogWriter {
+
+    public static final String LOGGER_NAME = "gateway.access-log";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final BlockingQueue<AccessLogEntry> queue;
+    private final Counter written;
+    private final Counter dropped;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.written = meterRegistry.counter("gateway.access-log.entries", "outcome", "written");
+        this.dropped = meterRegistry.counter("gateway.access-log.entries", "outcome", "dropped");
+        meterRegistry.gaugeCollectionSize("gateway.access-log.queue.size", Tags.empty(), queue);
+        this.worker = new Thread(this::drain, "access-log-writer");
+        this.worker.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void offer(AccessLogEntry entry) {
+        if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        StringBuilder json = new StringBuilder(512);
+        while (running || !queue.isEmpty()) {
+            try {
+                AccessLogEntry entry = running ? queue.take() : queue.poll();
+                if (entry == null) {
+                    break;
+                }
+                write(entry, json);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write access log entry : {}", e.getMessage());
+            }
+        }
+    }
+
+    private void write(AccessLogEntry entry, StringBuilder json) {
+        json.setLength(0);
+        entry.appendJson(json);
+        ACCESS_LOG.info(json.toString());
+        written.increment();
+    }
+}
@@ -0,0 +1,99 @@
+package com.tanvir.gateway.core.accesslog;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a completed exchange is worth an access log line and, only if it is, captures
+ * the fields needed to render it later. Errors and slow exchanges are always kept (tail
+ * sampling); everything else is kept with {@code gateway.access-log.sample-rate} probability.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessLogger {
+
+    private final AccessLogProperties properties;
+    private final AccessLogWriter accessLogWriter;
+
+    public void log(ServerWebExchange serverWebExchange, long elapsedNanos, SignalType signalType, String traceId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ServerHttpRequest request = serverWebExchange.getRequest();
+        String path = request.getPath().value();
+        if (isExcluded(path)) {
+            return;
+        }
+        Route route = serverWebExchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+        AccessLogVerbosity verbosity = routeId != null
+                ? properties.getRoutes().getOrDefault(routeId, properties.getVerbosity())
+                : properties.getVerbosity();
+        if (verbosity == AccessLogVerbosity.NONE) {
+            return;
+        }
+        HttpStatusCode statusCode = serverWebExchange.getResponse().getStatusCode();
+        int status = statusCode != null ? statusCode.value() : 0;
+        if (!isSampled(status, elapsedNanos, signalType)) {
+            return;
+        }
+        accessLogWriter.offer(AccessLogEntry.builder()
+                .timestamp(System.currentTimeMillis())
+                .routeId(routeId)
+                .method(request.getMethod().name())
+                .path(path)
+                .query(request.getURI().getRawQuery())
+                .status(status)
+                .durationNanos(elapsedNanos)
+                .outcome(signalType.name())
+                .traceId(traceId)
+                .remoteAddress(request.getRemoteAddress())
+                .requestHeaders(verbosity == AccessLogVerbosity.HEADERS ? copy(request.getHeaders()) : null)
+                .responseHeaders(verbosity == AccessLogVerbosity.HEADERS ? copy(serverWebExchange.getResponse().getHeaders()) : null)
+                .build());
+    }
+
+    private boolean isSampled(int status, long elapsedNanos, SignalType signalType) {
+        if (properties.isKeepErrors() && (signalType == SignalType.ON_ERROR || status >= 500)) {
+            return true;
+        }
+        if (properties.getSlowThresholdMs() > 0 && elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(properties.getSlowThresholdMs())) {
+            return true;
+        }
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private boolean isExcluded(String path) {
+        List<String> excludedPaths = properties.getExcludedPaths();
+        for (int i = 0; i < excludedPaths.size(); i++) {
+            if (path.startsWith(excludedPaths.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Map.Entry<String, String>> copy(HttpHeaders headers) {
+        List<Map.Entry<String, String>> copy = new ArrayList<>(headers.size());
+        headers.forEach((name, values) -> {
+            if (!HttpHeaders.AUTHORIZATION.equalsIgnoreCase(name) && !HttpHeaders.COOKIE.equalsIgnoreCase(name)) {
+                copy.add(Map.entry(name, String.join(",", values)));
+            }
+        });
+        return copy;
+    }
+}
@@ -0,0 +1,98 @@
+package com.tanvir.gateway.core.admission;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.filters.GatewayFilterOrder;
+import com.tanvir.gateway.core.filters.HeaderNames;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Sheds load per route before any other route work is done: when a route has as many requests in
+ * flight as its {@link AdaptiveConcurrencyLimiter} allows, new ones wait in the queue of their
+ * {@link PriorityClass} for a bounded time and get {@code 503} with {@code Retry-After} when they
+ * cannot be queued or time out, instead of piling up behind a slow backend. A response of
+ * {@code 503}/{@code 504} or an error counts as a drop and shrinks the limit; a client that goes away,
+ * a cache hit, a {@code 429} or a circuit breaker fallback only releases its slot.
+ */
+@Component
+public class AdaptiveConcurrencyGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String REJECTED_METRIC_NAME = "gateway.admission.rejected";
+
+    private final AdaptiveConcurrencyLimiterRegistry limiterRegistry;
+    private final PriorityClassifier priorityClassifier;
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyGlobalFilter(AdaptiveConcurrencyLimiterRegistry limiterRegistry, PriorityClassifier priorityClassifier,
+                                           AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.limiterRegistry = limiterRegistry;
+        this.priorityClassifier = priorityClassifier;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null || properties.getExcludedRoutes().contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+        AdaptiveConcurrencyLimiter limiter = limiterRegistry.limiter(route.getId());
+        return priorityClassifier.classify(exchange, route)
+                .flatMap(priorityClass -> limiter.acquire(priorityClass)
+                        .flatMap(permit -> admitted(exchange, chain, permit).thenReturn(Boolean.TRUE))
+                        .switchIfEmpty(Mono.defer(() -> rejected(exchange, route.getId(), priorityClass).thenReturn(Boolean.FALSE))))
+                .then();
+    }
+
+    private Mono<Void> rejected(ServerWebExchange exchange, String routeId, PriorityClass priorityClass) {
+        meterRegistry.counter(REJECTED_METRIC_NAME, "routeId", routeId, "priority", priorityClass.name()).increment();
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        return exchange.getResponse().setComplete();
+    }
+
+    private Mono<Void> admitted(ServerWebExchange exchange, GatewayFilterChain chain, AdaptiveConcurrencyLimiter.Permit permit) {
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (servedByGateway(exchange, status)) {
+                        permit.ignored();
+                    } else if (status != null && (status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                            || status.value() == HttpStatus.GATEWAY_TIMEOUT.value())) {
+                        permit.dropped(System.nanoTime());
+                    } else {
+                        permit.succeeded(System.nanoTime());
+                    }
+                })
+                .doOnError(e -> permit.dropped(System.nanoTime()))
+                .doOnCancel(permit::ignored);
+    }
+
+    /**
+     * Cache hits, rate limiter rejections and circuit breaker fallbacks never reach the backend, so
+     * their round trip says nothing about its latency and a fallback {@code 503} is not a drop.
+     */
+    private static boolean servedByGateway(ServerWebExchange exchange, HttpStatusCode status) {
+        return exchange.getAttributes().containsKey(ExchangeAttributes.FALLBACK_RESPONSE.getValue())
+                || (status != null && status.value() == HttpStatus.TOO_MANY_REQUESTS.value())
+                || "HIT".equals(exchange.getResponse().getHeaders().getFirst(HeaderNames.GATEWAY_CACHE.getValue()));
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.ADMISSION;
+    }
+}
@@ -0,0 +1,282 @@
+package com.tanvir.gateway.core.admission;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit of one route, learned from the RTT of its requests.
+ * <p>
+ * Requests are sampled into fixed windows. When a window closes, its mean RTT is compared to a slow
+ * moving long-term RTT: while the route is no slower than {@code rttTolerance} times its long-term
+ * RTT the limit grows by roughly its square root, beyond that it shrinks by the ratio of the two
+ * (at most halving). A window with dropped requests (errors, 503/504) cuts the limit by
+ * {@code backoffRatio} instead. Windows in which in-flight never reached half the limit leave it alone,
+ * so an idle route does not grow an unbounded limit.
+ * <p>
+ * Acquiring and releasing are a CAS on the in-flight count; samples go to {@link LongAdder}s and the
+ * thread that finds the window expired swaps in a new one and recomputes the limit, so nothing blocks.
+ * <p>
+ * {@link #acquire(PriorityClass)} adds priority on top: each {@link PriorityClass} may only fill its
+ * {@code limitShare} of the limit, and at the limit requests wait in a {@link WeightedFairQueue} for at
+ * most their class's {@code maxQueueMs}. A released slot goes straight to the next waiter, so while
+ * the route is saturated low classes are the ones that wait longest and time out first. The queue is
+ * only touched while something is waiting.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String routeId;
+    private final AdmissionProperties properties;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<Window> window;
+    private final Map<PriorityClass, PriorityPolicy> policies = new EnumMap<>(PriorityClass.class);
+    private final WeightedFairQueue<Waiter> queue;
+    private volatile double estimatedLimit;
+    private volatile int limit;
+    private volatile double longRttNanos;
+
+    AdaptiveConcurrencyLimiter(String routeId, AdmissionProperties properties, long nowNanos) {
+        this.routeId = routeId;
+        this.properties = properties;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(properties.getWindowMs());
+        this.window = new AtomicReference<>(new Window(nowNanos));
+        this.estimatedLimit = properties.getInitialLimit();
+        this.limit = properties.getInitialLimit();
+        for (PriorityClass priorityClass : PriorityClass.values()) {
+            policies.put(priorityClass, properties.policy(priorityClass));
+        }
+        this.queue = new WeightedFairQueue<>(policies);
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * @return a permit to release when the request ends, or {@code null} when the route is at its limit
+     */
+    public Permit tryAcquire(long nowNanos) {
+        return reserve(limit) ? new Permit(nowNanos) : null;
+    }
+
+    /**
+     * Same as {@link #tryAcquire(long)} within the share of the limit {@code priorityClass} may use.
+     */
+    public Permit tryAcquire(PriorityClass priorityClass, long nowNanos) {
+        return reserve(capacity(priorityClass)) ? new Permit(nowNanos) : null;
+    }
+
+    /**
+     * Admits at once when there is room and nobody is waiting, otherwise queues the request.
+     *
+     * @return the permit, or an empty {@link Mono} when the class's queue is full or the request waited
+     * longer than the class's {@code maxQueueMs}
+     */
+    public Mono<Permit> acquire(PriorityClass priorityClass) {
+        return Mono.defer(() -> {
+            if (queue.size() == 0) {
+                Permit permit = tryAcquire(priorityClass, System.nanoTime());
+                if (permit != null) {
+                    return Mono.just(permit);
+                }
+            }
+            PriorityPolicy policy = policies.get(priorityClass);
+            if (policy.maxQueueMs() <= 0 || policy.maxQueueLength() <= 0) {
+                return Mono.empty();
+            }
+            return Mono.create(sink -> {
+                Waiter waiter = new Waiter(priorityClass, sink);
+                if (!queue.offer(priorityClass, waiter)) {
+                    sink.success();
+                    return;
+                }
+                Disposable timeout = Schedulers.parallel().schedule(waiter::abandon, policy.maxQueueMs(), TimeUnit.MILLISECONDS);
+                sink.onCancel(() -> waiter.cancelled = true);
+                sink.onDispose(() -> {
+                    timeout.dispose();
+                    waiter.abandon();
+                });
+                dispatch();
+            });
+        });
+    }
+
+    private int capacity(PriorityClass priorityClass) {
+        return Math.max(1, (int) (limit * policies.get(priorityClass).limitShare()));
+    }
+
+    private boolean reserve(int capacity) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        window.get().maxInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        if (queue.size() > 0) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Hands free slots to waiters in weighted fair order. Waiters increment the queue size before they
+     * call this and releasers decrement in-flight before they check it, so a slot freed while a request
+     * is being queued is always seen by one of the two.
+     */
+    private void dispatch() {
+        while (queue.size() > 0) {
+            Waiter waiter = queue.poll(priorityClass -> reserve(capacity(priorityClass)));
+            if (waiter == null) {
+                return;
+            }
+            if (!waiter.grant(new Permit(System.nanoTime()))) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private void sample(long nowNanos, long rttNanos, boolean dropped) {
+        Window current = window.get();
+        if (dropped) {
+            current.drops.increment();
+        } else {
+            current.rttSum.add(rttNanos);
+            current.samples.increment();
+        }
+        if (nowNanos - current.startNanos >= windowNanos && current.samples.sum() + current.drops.sum() >= properties.getMinWindowSamples()
+                && window.compareAndSet(current, new Window(nowNanos))) {
+            update(current);
+        }
+    }
+
+    private void update(Window closed) {
+        double current = estimatedLimit;
+        double next;
+        long samples = closed.samples.sum();
+        if (closed.drops.sum() > 0) {
+            next = current * properties.getBackoffRatio();
+        } else if (samples == 0 || closed.maxInFlight.get() < current / 2) {
+            return;
+        } else {
+            double shortRtt = (double) closed.rttSum.sum() / samples;
+            double longRtt = longRttNanos == 0 ? shortRtt : longRttNanos + (shortRtt - longRttNanos) / properties.getLongWindow();
+            longRttNanos = longRtt;
+            double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRtt / shortRtt));
+            next = current * gradient + Math.sqrt(current);
+        }
+        next = current * (1 - properties.getSmoothing()) + next * properties.getSmoothing();
+        next = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), next));
+        estimatedLimit = next;
+        int previous = limit;
+        limit = (int) next;
+        if (limit > previous && queue.size() > 0) {
+            dispatch();
+        }
+    }
+
+    private final class Waiter {
+        private final PriorityClass priorityClass;
+        private final MonoSink<Permit> sink;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile boolean cancelled;
+
+        private Waiter(PriorityClass priorityClass, MonoSink<Permit> sink) {
+            this.priorityClass = priorityClass;
+            this.sink = sink;
+        }
+
+        private boolean grant(Permit permit) {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            sink.success(permit);
+            if (cancelled) {
+                permit.ignored();
+            }
+            return true;
+        }
+
+        /**
+         * Timed out, cancelled or completed: leaves the queue, answering empty if not granted yet.
+         */
+        private void abandon() {
+            if (done.compareAndSet(false, true)) {
+                queue.remove(priorityClass, this);
+                sink.success();
+            }
+        }
+    }
+
+    private static final class Window {
+        private final long startNanos;
+        private final LongAdder rttSum = new LongAdder();
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder drops = new LongAdder();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private Window(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * One admitted request. The first of {@link #succeeded}, {@link #dropped} or {@link #ignored}
+     * releases it; later calls are ignored.
+     */
+    public final class Permit {
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public void succeeded(long nowNanos) {
+            if (released.compareAndSet(false, true)) {
+                sample(nowNanos, nowNanos - startNanos, false);
+                release();
+            }
+        }
+
+        public void dropped(long nowNanos) {
+            if (released.compareAndSet(false, true)) {
+                sample(nowNanos, 0, true);
+                release();
+            }
+        }
+
+        public void ignored() {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.tanvir.gateway.core.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One {@link AdaptiveConcurrencyLimiter} per route, created on the route's first request.
+ */
+@Component
+public class AdaptiveConcurrencyLimiterRegistry {
+
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyLimiterRegistry(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public AdaptiveConcurrencyLimiter limiter(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(routeId);
+        return limiter != null ? limiter : limiters.computeIfAbsent(routeId, this::create);
+    }
+
+    private AdaptiveConcurrencyLimiter create(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(routeId, properties, System.nanoTime());
+        Gauge.builder("gateway.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("routeId", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("routeId", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                .tag("routeId", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tanvir.gateway.core.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+    private int initialLimit = 50;
+    private int minLimit = 10;
+    private int maxLimit = 1000;
+    /**
+     * Weight of a newly computed limit against the current one.
+     */
+    private double smoothing = 0.2;
+    /**
+     * How much slower than the long-term RTT a window may be before the limit shrinks.
+     */
+    private double rttTolerance = 1.5;
+    /**
+     * Number of windows the long-term RTT averages over.
+     */
+    private int longWindow = 60;
+    private long windowMs = 1000;
+    private int minWindowSamples = 10;
+    /**
+     * Multiplicative decrease applied when a window saw dropped requests.
+     */
+    private double backoffRatio = 0.9;
+    private long retryAfterSeconds = 1;
+    private List<String> excludedRoutes = new ArrayList<>();
+    /**
+     * Priority class of a JWT role, without the {@code ROLE_} prefix. The highest class among the
+     * caller's roles wins; authenticated callers without a listed role are {@code USER}.
+     */
+    private Map<String, PriorityClass> rolePriorities = new LinkedHashMap<>(Map.of(
+            "ADMIN", PriorityClass.ADMIN,
+            "USER", PriorityClass.USER));
+    /**
+     * Overrides of the {@link PriorityClass} defaults; unset fields keep the default.
+     */
+    private Map<PriorityClass, Priority> priorities = new EnumMap<>(PriorityClass.class);
+
+    public PriorityPolicy policy(PriorityClass priorityClass) {
+        PriorityPolicy defaults = priorityClass.defaultPolicy();
+        Priority priority = priorities.get(priorityClass);
+        if (priority == null) {
+            return defaults;
+        }
+        return new PriorityPolicy(
+                priority.getWeight() != null ? priority.getWeight() : defaults.weight(),
+                priority.getLimitShare() != null ? priority.getLimitShare() : defaults.limitShare(),
+                priority.getMaxQueueMs() != null ? priority.getMaxQueueMs() : defaults.maxQueueMs(),
+                priority.getMaxQueueLength() != null ? priority.getMaxQueueLength() : defaults.maxQueueLength());
+    }
+
+    @Getter
+    @Setter
+    public static class Priority {
+        private Double weight;
+        private Double limitShare;
+        private Long maxQueueMs;
+        private Integer maxQueueLength;
+    }
+}
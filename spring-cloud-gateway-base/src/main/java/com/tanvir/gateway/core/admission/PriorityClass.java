@@ -0,0 +1,38 @@
+package com.tanvir.gateway.core.admission;
+
+import lombok.Getter;
+
+/**
+ * Admission priority of an exchange, highest first. The values are defaults that
+ * {@code gateway.admission.priorities.<class>.*} overrides.
+ */
+@Getter
+public enum PriorityClass {
+    SYSTEM(16, 1.0, 2000, 256),
+    ADMIN(8, 1.0, 1000, 256),
+    USER(2, 0.9, 250, 1024),
+    ANONYMOUS(1, 0.5, 0, 0),
+    ;
+
+    /**
+     * Share of the dequeue rate this class gets while several classes are waiting.
+     */
+    private final double weight;
+    /**
+     * Fraction of the route limit this class may occupy, leaving headroom for the classes above it.
+     */
+    private final double limitShare;
+    private final long maxQueueMs;
+    private final int maxQueueLength;
+
+    PriorityClass(double weight, double limitShare, long maxQueueMs, int maxQueueLength) {
+        this.weight = weight;
+        this.limitShare = limitShare;
+        this.maxQueueMs = maxQueueMs;
+        this.maxQueueLength = maxQueueLength;
+    }
+
+    public PriorityPolicy defaultPolicy() {
+        return new PriorityPolicy(weight, limitShare, maxQueueMs, maxQueueLength);
+    }
+}
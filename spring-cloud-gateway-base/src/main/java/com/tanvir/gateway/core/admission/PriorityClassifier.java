@@ -0,0 +1,81 @@
+package com.tanvir.gateway.core.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Assigns an exchange its {@link PriorityClass}: the route metadata {@code priority} when set
+ * (e.g. {@code SYSTEM} for health check routes), otherwise the highest class among the caller's JWT
+ * roles per {@code gateway.admission.role-priorities}. Authenticated callers without a mapped role are
+ * {@code USER}, anonymous ones {@code ANONYMOUS}. The route metadata is parsed once per route; an
+ * unknown class is logged and treated as {@code USER}.
+ */
+@Component
+@Slf4j
+public class PriorityClassifier {
+
+    public static final String PRIORITY_METADATA = "priority";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final AdmissionProperties properties;
+    private final Cache<Route, Optional<PriorityClass>> routePriorities = Caffeine.newBuilder().weakKeys().build();
+
+    public PriorityClassifier(AdmissionProperties properties) {
+        this.properties = properties;
+    }
+
+    public Mono<PriorityClass> classify(ServerWebExchange exchange, Route route) {
+        Optional<PriorityClass> configured = routePriorities.get(route, PriorityClassifier::routePriority);
+        if (configured.isPresent()) {
+            return Mono.just(configured.get());
+        }
+        return exchange.getPrincipal()
+                .map(this::classify)
+                .defaultIfEmpty(PriorityClass.ANONYMOUS);
+    }
+
+    private static Optional<PriorityClass> routePriority(Route route) {
+        Object configured = route.getMetadata().get(PRIORITY_METADATA);
+        if (configured == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(PriorityClass.valueOf(configured.toString().trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalid {} '{}' on route {}, using {}", PRIORITY_METADATA, configured, route.getId(), PriorityClass.USER);
+            return Optional.of(PriorityClass.USER);
+        }
+    }
+
+    PriorityClass classify(Principal principal) {
+        if (!(principal instanceof Authentication authentication)) {
+            return PriorityClass.USER;
+        }
+        if (!authentication.isAuthenticated()) {
+            return PriorityClass.ANONYMOUS;
+        }
+        PriorityClass result = null;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String role = authority.getAuthority();
+            if (role == null || !role.startsWith(ROLE_PREFIX)) {
+                continue;
+            }
+            PriorityClass mapped = properties.getRolePriorities().get(role.substring(ROLE_PREFIX.length()));
+            if (mapped != null && (result == null || mapped.ordinal() < result.ordinal())) {
+                result = mapped;
+            }
+        }
+        return result != null ? result : PriorityClass.USER;
+    }
+}
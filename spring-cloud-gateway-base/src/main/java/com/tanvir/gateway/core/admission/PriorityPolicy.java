@@ -0,0 +1,7 @@
+package com.tanvir.gateway.core.admission;
+
+/**
+ * Effective admission settings of one {@link PriorityClass}.
+ */
+public record PriorityPolicy(double weight, double limitShare, long maxQueueMs, int maxQueueLength) {
+}
@@ -0,0 +1,108 @@
+package com.tanvir.gateway.core.admission;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Bounded per-class FIFO queues drained in self-clocked weighted fair order: every element gets a
+ * finish tag of {@code max(virtualTime, lastFinish[class]) + 1 / weight} and the head with the
+ * smallest tag goes first. A class of weight 8 is therefore dequeued eight times as often as a class
+ * of weight 1 while both are waiting, and a class that was idle does not get to catch up on its share.
+ * <p>
+ * Only used while a route is at its limit, so a monitor is enough; {@link #size()} is readable
+ * without it so releasing threads can skip the queue when nothing waits.
+ */
+final class WeightedFairQueue<E> {
+
+    private static final PriorityClass[] CLASSES = PriorityClass.values();
+
+    private final Map<PriorityClass, PriorityPolicy> policies;
+    private final ArrayDeque<Entry<E>>[] queues;
+    private final double[] lastFinish;
+    private final AtomicInteger size = new AtomicInteger();
+    private double virtualTime;
+
+    @SuppressWarnings("unchecked")
+    WeightedFairQueue(Map<PriorityClass, PriorityPolicy> policies) {
+        this.policies = policies;
+        this.queues = new ArrayDeque[CLASSES.length];
+        for (int i = 0; i < CLASSES.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+        this.lastFinish = new double[CLASSES.length];
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    synchronized int size(PriorityClass priority) {
+        return queues[priority.ordinal()].size();
+    }
+
+    /**
+     * @return {@code false} when the queue of the element's class is full
+     */
+    synchronized boolean offer(PriorityClass priority, E element) {
+        PriorityPolicy policy = policies.get(priority);
+        ArrayDeque<Entry<E>> queue = queues[priority.ordinal()];
+        if (queue.size() >= policy.maxQueueLength()) {
+            return false;
+        }
+        double finishTag = Math.max(virtualTime, lastFinish[priority.ordinal()]) + 1 / policy.weight();
+        lastFinish[priority.ordinal()] = finishTag;
+        queue.addLast(new Entry<>(element, finishTag));
+        size.incrementAndGet();
+        return true;
+    }
+
+    synchronized boolean remove(PriorityClass priority, E element) {
+        if (queues[priority.ordinal()].removeIf(entry -> entry.element == element)) {
+            onRemoved();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes the head with the smallest finish tag among the classes for which {@code reserve} succeeds.
+     * {@code reserve} is asked in finish tag order and claims the capacity for the element it accepts.
+     *
+     * @return the dequeued element, or {@code null} when no waiting class could be admitted
+     */
+    synchronized E poll(Predicate<PriorityClass> reserve) {
+        boolean[] tried = new boolean[queues.length];
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < queues.length; i++) {
+                Entry<E> head = queues[i].peekFirst();
+                if (!tried[i] && head != null && (next < 0 || head.finishTag < queues[next].peekFirst().finishTag)) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                return null;
+            }
+            tried[next] = true;
+            if (reserve.test(CLASSES[next])) {
+                Entry<E> entry = queues[next].pollFirst();
+                virtualTime = entry.finishTag;
+                onRemoved();
+                return entry.element;
+            }
+        }
+    }
+
+    private void onRemoved() {
+        if (size.decrementAndGet() == 0) {
+            virtualTime = 0;
+            Arrays.fill(lastFinish, 0);
+        }
+    }
+
+    private record Entry<E>(E element, double finishTag) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.tanvir.gateway.core.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Joins the upstream body of responses accepted by {@code shouldCapture} and hands a read-only direct
+ * copy of it to {@code onBody} before writing the joined buffer downstream. {@code onBody} runs before
+ * the response is committed, so it may still add headers. Bodies larger than {@code maxBytes} are
+ * written but not handed over: without a {@code Content-Length}, at most {@code maxBytes} plus one
+ * buffer is held back before the body streams through unchanged.
+ */
+public class BodyCaptureResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final Predicate<ServerHttpResponse> shouldCapture;
+    private final int maxBytes;
+    private final Consumer<ByteBuffer> onBody;
+
+    public BodyCaptureResponseDecorator(ServerHttpResponse delegate, Predicate<ServerHttpResponse> shouldCapture,
+                                        int maxBytes, Consumer<ByteBuffer> onBody) {
+        super(delegate);
+        this.shouldCapture = shouldCapture;
+        this.maxBytes = maxBytes;
+        this.onBody = onBody;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (getHeaders().getContentLength() > maxBytes || !shouldCapture.test(getDelegate())) {
+            return super.writeWith(body);
+        }
+        // hold buffers back only until the body ends or grows past maxBytes, then pass the rest through
+        long[] seen = {0};
+        return super.writeWith(Flux.<DataBuffer>from(body)
+                .bufferUntil(buffer -> (seen[0] += buffer.readableByteCount()) > maxBytes)
+                .switchOnFirst((first, groups) -> {
+                    if (!first.hasValue() || first.get().stream().mapToLong(DataBuffer::readableByteCount).sum() > maxBytes) {
+                        return groups.flatMapIterable(group -> group);
+                    }
+                    return groups.map(group -> {
+                        DataBuffer joined = group.get(0).factory().join(group);
+                        onBody.accept(toDirectBuffer(joined));
+                        return joined;
+                    });
+                })
+                .doOnDiscard(Object.class, BodyCaptureResponseDecorator::releaseDiscarded));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWith(Flux.from(body).flatMapSequential(publisher -> publisher));
+    }
+
+    private static void releaseDiscarded(Object discarded) {
+        if (discarded instanceof DataBuffer buffer) {
+            DataBufferUtils.release(buffer);
+        } else if (discarded instanceof Collection<?> group) {
+            group.forEach(BodyCaptureResponseDecorator::releaseDiscarded);
+        }
+    }
+
+    public static ByteBuffer toDirectBuffer(DataBuffer dataBuffer) {
+        int length = dataBuffer.readableByteCount();
+        ByteBuffer direct = ByteBuffer.allocateDirect(length);
+        dataBuffer.toByteBuffer(dataBuffer.readPosition(), direct, 0, length);
+        return direct.asReadOnlyBuffer();
+    }
+}
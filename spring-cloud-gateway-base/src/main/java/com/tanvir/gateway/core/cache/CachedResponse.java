@@ -0,0 +1,51 @@
+package com.tanvir.gateway.core.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * A stored response. The body lives in a read-only direct buffer, so cached bytes stay off the heap
+ * and every hit writes a {@link ByteBuffer#duplicate()} of it without copying. Compressed variants
+ * are built on the first hit that asks for them and kept with the entry.
+ */
+@Getter
+@Builder
+public class CachedResponse {
+    private final HttpHeaders headers;
+    private final ByteBuffer body;
+    private final String etag;
+    private final long storedAtNanos;
+    private final long expiresAtNanos;
+    private final ConcurrentMap<String, ByteBuffer> encodedBodies = new ConcurrentHashMap<>(2);
+
+    public ByteBuffer bodyView() {
+        return body.duplicate();
+    }
+
+    public ByteBuffer encodedBodyView(String coding, UnaryOperator<ByteBuffer> encoder) {
+        return encodedBodies.computeIfAbsent(coding, key -> encoder.apply(bodyView())).duplicate();
+    }
+
+    public boolean isFresh(long nowNanos) {
+        return expiresAtNanos - nowNanos > 0;
+    }
+
+    public long ageSeconds(long nowNanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(nowNanos - storedAtNanos);
+    }
+
+    int weight() {
+        int headerBytes = headers.entrySet().stream()
+                .mapToInt(header -> header.getKey().length() + header.getValue().stream().mapToInt(String::length).sum())
+                .sum();
+        // compressed variants are added after the entry is weighed; reserve room for one of them
+        return body.capacity() + body.capacity() / 4 + headerBytes + 128;
+    }
+}
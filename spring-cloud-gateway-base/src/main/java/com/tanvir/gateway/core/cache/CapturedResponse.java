@@ -0,0 +1,46 @@
+package com.tanvir.gateway.core.cache;
+
+import com.tanvir.gateway.core.filters.HeaderNames;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An upstream response that can be written again to other exchanges.
+ */
+@Getter
+@AllArgsConstructor
+public class CapturedResponse {
+
+    private static final Set<String> EXCHANGE_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        EXCHANGE_HEADERS.addAll(List.of(HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, "Keep-Alive",
+                HttpHeaders.SET_COOKIE, HttpHeaders.DATE, HttpHeaders.AGE,
+                HeaderNames.GATEWAY_CACHE.getValue(), HeaderNames.TRACE_ID.getValue(), HeaderNames.SPAN_ID.getValue(),
+                HeaderNames.RATE_LIMIT_REMAINING.getValue(), HeaderNames.RATE_LIMIT_BURST_CAPACITY.getValue(),
+                HeaderNames.RATE_LIMIT_REPLENISH_RATE.getValue()));
+    }
+
+    private final int status;
+    private final HttpHeaders headers;
+    private final ByteBuffer body;
+
+    /**
+     * Read-only copy of the headers that describe the representation rather than this exchange.
+     */
+    public static HttpHeaders shareableHeaders(HttpHeaders headers) {
+        HttpHeaders shareable = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!EXCHANGE_HEADERS.contains(name)) {
+                shareable.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(shareable);
+    }
+}
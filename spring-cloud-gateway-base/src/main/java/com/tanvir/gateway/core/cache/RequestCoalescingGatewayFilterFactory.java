@@ -0,0 +1,161 @@
+package com.tanvir.gateway.core.cache;
+
+import com.tanvir.gateway.core.filters.GatewayFilterOrder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collapses concurrent identical GET requests onto one upstream call.
+ *
+ * <pre>
+ * filters:
+ *   - name: RequestCoalescing
+ *     args:
+ *       maxWaiters: 1000
+ *       timeoutMs: 5000
+ * </pre>
+ *
+ * The first request for a route, path, query and principal becomes the leader and goes upstream;
+ * requests arriving while it is in flight wait for its {@code 2xx} response and get a copy of it.
+ * Waiters beyond {@code maxWaiters}, waiters not answered within {@code timeoutMs} and all waiters of
+ * a leader that failed, was cancelled or got a non-shareable response go upstream on their own.
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    public static final String METRIC_NAME = "gateway.coalescing.requests";
+
+    private final ResponseCache responseCache;
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingGatewayFilterFactory(ResponseCache responseCache, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxWaiters", "timeoutMs");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+        Duration timeout = Duration.ofMillis(config.getTimeoutMs());
+        Counter leaders = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "leader");
+        Counter followers = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "follower");
+        Counter overflows = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "overflow");
+        Counter fallbacks = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "fallback");
+
+        GatewayFilter filter = (exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            return exchange.getPrincipal().map(Principal::getName).defaultIfEmpty("").flatMap(principalName -> {
+                String key = key(exchange.getRequest(), principalName);
+                Flight flight = new Flight();
+                Flight existing = flights.putIfAbsent(key, flight);
+                if (existing == null) {
+                    leaders.increment();
+                    return lead(exchange, chain, flight)
+                            .doFinally(signalType -> {
+                                flights.remove(key, flight);
+                                flight.sink.tryEmitEmpty();
+                            });
+                }
+                if (existing.waiters.incrementAndGet() > config.getMaxWaiters()) {
+                    overflows.increment();
+                    return chain.filter(exchange);
+                }
+                followers.increment();
+                return existing.sink.asMono()
+                        .timeout(timeout)
+                        .onErrorResume(TimeoutException.class, e -> Mono.empty())
+                        .flatMap(response -> write(exchange, response).thenReturn(Boolean.TRUE))
+                        .switchIfEmpty(Mono.defer(() -> {
+                            fallbacks.increment();
+                            return chain.filter(exchange).thenReturn(Boolean.FALSE);
+                        }))
+                        .then();
+            });
+        };
+        return new OrderedGatewayFilter(filter, GatewayFilterOrder.REQUEST_COALESCING);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, Flight flight) {
+        ServerHttpResponse decorated = new BodyCaptureResponseDecorator(exchange.getResponse(),
+                RequestCoalescingGatewayFilterFactory::isShareable,
+                responseCache.getMaxEntryBytes(),
+                body -> {
+                    ServerHttpResponse response = exchange.getResponse();
+                    flight.sink.tryEmitValue(new CapturedResponse(response.getStatusCode().value(),
+                            CapturedResponse.shareableHeaders(response.getHeaders()), body));
+                });
+        return chain.filter(exchange.mutate().response(decorated).build());
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, CapturedResponse captured) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        captured.getHeaders().forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        response.setStatusCode(HttpStatusCode.valueOf(captured.getStatus()));
+        headers.setContentLength(captured.getBody().remaining());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(captured.getBody().duplicate())));
+    }
+
+    private static boolean isShareable(ServerHttpResponse response) {
+        return response.getStatusCode() != null && response.getStatusCode().is2xxSuccessful()
+                && !response.getHeaders().containsKey(HttpHeaders.SET_COOKIE);
+    }
+
+    private static String key(ServerHttpRequest request, String principalName) {
+        StringBuilder key = new StringBuilder(128).append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        return key.append("\n@").append(principalName).toString();
+    }
+
+    private static final class Flight {
+        private final Sinks.One<CapturedResponse> sink = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int maxWaiters = 1000;
+        private long timeoutMs = 5000;
+    }
+}
@@ -0,0 +1,84 @@
+package com.tanvir.gateway.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Size-bounded response store shared by all routes using the {@code ResponseCache} filter. Caffeine's
+ * W-TinyLFU admission keeps the frequently read entries when the byte budget is full, so a burst of
+ * one-off URLs cannot flush the hot ones.
+ * <p>
+ * Responses with {@code Vary} are stored under the base key plus the values of the varying request
+ * headers; the header names are remembered per base key.
+ */
+@Component
+public class ResponseCache {
+
+    public static final String METRIC_NAME = "gateway.response-cache";
+
+    private final Cache<String, CachedResponse> responses;
+    private final Cache<String, List<String>> varyHeaders;
+    private final int maxEntryBytes;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${gateway.response-cache.max-size-bytes:67108864}") long maxSizeBytes,
+                         @Value("${gateway.response-cache.max-entry-bytes:1048576}") int maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSizeBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.weight())
+                .recordStats()
+                .build();
+        this.varyHeaders = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, METRIC_NAME);
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public CachedResponse get(String baseKey, VaryValues varyValues) {
+        List<String> vary = varyHeaders.getIfPresent(baseKey);
+        String key = vary == null ? baseKey : baseKey + varyValues.of(vary);
+        CachedResponse response = responses.getIfPresent(key);
+        if (response != null && !response.isFresh(System.nanoTime())) {
+            responses.asMap().remove(key, response);
+            return null;
+        }
+        return response;
+    }
+
+    public void put(String baseKey, List<String> vary, VaryValues varyValues, CachedResponse response) {
+        if (vary.isEmpty()) {
+            varyHeaders.invalidate(baseKey);
+            responses.put(baseKey, response);
+        } else {
+            varyHeaders.put(baseKey, vary);
+            responses.put(baseKey + varyValues.of(vary), response);
+        }
+    }
+
+    public void invalidateRoute(String routeId) {
+        String prefix = routeId + ' ';
+        responses.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        varyHeaders.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public void invalidateAll() {
+        responses.invalidateAll();
+        varyHeaders.invalidateAll();
+    }
+
+    @FunctionalInterface
+    public interface VaryValues {
+        String of(List<String> headerNames);
+    }
+}
@@ -0,0 +1,262 @@
+package com.tanvir.gateway.core.cache;
+
+import com.tanvir.gateway.core.compression.ResponseCompression;
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.filters.GatewayFilterOrder;
+import com.tanvir.gateway.core.filters.HeaderNames;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Caches {@code 200} responses of GET routes in the shared {@link ResponseCache}.
+ *
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttlSeconds: 120
+ *       keyHeaders: Accept-Language
+ *       privateData: true
+ * </pre>
+ *
+ * The key is route, path, query, the {@code keyHeaders} values and, with {@code privateData}, the
+ * authenticated principal. Backend {@code Cache-Control} wins over {@code ttlSeconds}: {@code no-store},
+ * {@code no-cache} and {@code max-age=0} are not stored, {@code s-maxage}/{@code max-age} set the TTL and
+ * {@code private} responses are only stored per principal. Every stored response has an ETag, the
+ * backend's or a weak CRC32C of the body, and a matching {@code If-None-Match} is answered with
+ * {@code 304}. Behind a {@code Compression} filter a hit is served from a compressed variant kept with
+ * the entry. Responses served by a circuit breaker fallback are never stored.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String METRIC_NAME = "gateway.response-cache.requests";
+
+    private final ResponseCache responseCache;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache responseCache, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttlSeconds");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        Counter hits = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "hit");
+        Counter notModified = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "not_modified");
+        Counter misses = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "miss");
+        Counter bypassed = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "bypass");
+
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD) {
+                return chain.filter(exchange);
+            }
+            Mono<String> principal = config.isPrivateData()
+                    ? exchange.getPrincipal().map(Principal::getName).defaultIfEmpty("")
+                    : Mono.just("");
+            return principal.flatMap(principalName -> {
+                String baseKey = baseKey(routeId, request, config, principalName);
+                ResponseCache.VaryValues varyValues = names -> varyValues(request, names);
+                HttpHeaders responseHeaders = exchange.getResponse().getHeaders();
+                if (hasDirective(request.getHeaders(), "no-cache") || hasDirective(request.getHeaders(), "no-store")) {
+                    bypassed.increment();
+                    responseHeaders.set(HeaderNames.GATEWAY_CACHE.getValue(), "BYPASS");
+                } else {
+                    CachedResponse cached = responseCache.get(baseKey, varyValues);
+                    if (cached != null) {
+                        boolean matches = etagMatches(request.getHeaders().getIfNoneMatch(), cached.getEtag());
+                        (matches ? notModified : hits).increment();
+                        return serve(exchange, cached, matches);
+                    }
+                    misses.increment();
+                    responseHeaders.set(HeaderNames.GATEWAY_CACHE.getValue(), "MISS");
+                }
+                if (request.getMethod() == HttpMethod.HEAD) {
+                    return chain.filter(exchange);
+                }
+                long defaultTtlNanos = TimeUnit.SECONDS.toNanos(config.getTtlSeconds());
+                boolean perPrincipal = !principalName.isEmpty();
+                ServerHttpResponse decorated = new BodyCaptureResponseDecorator(exchange.getResponse(),
+                        response -> !exchange.getAttributes().containsKey(ExchangeAttributes.FALLBACK_RESPONSE.getValue())
+                                && ttlNanos(response, defaultTtlNanos, perPrincipal) > 0,
+                        responseCache.getMaxEntryBytes(),
+                        body -> store(exchange.getResponse(), body, baseKey, varyValues,
+                                ttlNanos(exchange.getResponse(), defaultTtlNanos, perPrincipal)));
+                return chain.filter(exchange.mutate().response(decorated).build());
+            });
+        };
+        return new OrderedGatewayFilter(filter, GatewayFilterOrder.RESPONSE_CACHE);
+    }
+
+    private void store(ServerHttpResponse response, ByteBuffer body, String baseKey,
+                       ResponseCache.VaryValues varyValues, long ttlNanos) {
+        HttpHeaders headers = response.getHeaders();
+        String etag = headers.getETag();
+        if (etag == null) {
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            etag = "W/\"" + Long.toHexString(crc.getValue()) + '-' + Integer.toHexString(body.remaining()) + '"';
+            headers.setETag(etag);
+        }
+        long nowNanos = System.nanoTime();
+        responseCache.put(baseKey, headers.getVary(), varyValues, CachedResponse.builder()
+                .headers(CapturedResponse.shareableHeaders(headers))
+                .body(body)
+                .etag(etag)
+                .storedAtNanos(nowNanos)
+                .expiresAtNanos(nowNanos + ttlNanos)
+                .build());
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, boolean notModified) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        cached.getHeaders().forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        long nowNanos = System.nanoTime();
+        headers.set(HeaderNames.GATEWAY_CACHE.getValue(), "HIT");
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(nowNanos)));
+        if (notModified) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        ByteBuffer body = cached.bodyView();
+        ResponseCompression compression = exchange.getAttribute(ExchangeAttributes.RESPONSE_COMPRESSION.getValue());
+        if (compression != null && compression.appliesTo(HttpStatus.OK, headers, body.remaining())) {
+            compression.applyHeaders(headers);
+            body = cached.encodedBodyView(compression.getCoding().getToken(), compression::compress);
+        }
+        headers.setContentLength(body.remaining());
+        if (exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Time to live granted by the backend response, or zero when it must not be stored.
+     */
+    private static long ttlNanos(ServerHttpResponse response, long defaultTtlNanos, boolean perPrincipal) {
+        HttpHeaders headers = response.getHeaders();
+        if (response.getStatusCode() == null || response.getStatusCode().value() != HttpStatus.OK.value()
+                || headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getVary().contains("*")) {
+            return 0;
+        }
+        long maxAgeSeconds = -1;
+        long sharedMaxAgeSeconds = -1;
+        for (String directive : directives(headers)) {
+            if (directive.equals("no-store") || directive.equals("no-cache")
+                    || (directive.equals("private") && !perPrincipal)) {
+                return 0;
+            }
+            if (directive.startsWith("max-age=")) {
+                maxAgeSeconds = parseSeconds(directive.substring("max-age=".length()));
+            } else if (directive.startsWith("s-maxage=")) {
+                sharedMaxAgeSeconds = parseSeconds(directive.substring("s-maxage=".length()));
+            }
+        }
+        long seconds = sharedMaxAgeSeconds >= 0 ? sharedMaxAgeSeconds : maxAgeSeconds;
+        return seconds >= 0 ? TimeUnit.SECONDS.toNanos(seconds) : defaultTtlNanos;
+    }
+
+    private static boolean hasDirective(HttpHeaders headers, String name) {
+        return directives(headers).contains(name);
+    }
+
+    private static List<String> directives(HttpHeaders headers) {
+        List<String> cacheControl = headers.getOrEmpty(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl.isEmpty()) {
+            return List.of();
+        }
+        return cacheControl.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(directive -> directive.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static boolean etagMatches(List<String> ifNoneMatch, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch) {
+            if (candidate.equals("*") || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String baseKey(String routeId, ServerHttpRequest request, Config config, String principalName) {
+        StringBuilder key = new StringBuilder(128)
+                .append(routeId).append(' ')
+                .append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        for (String header : config.getKeyHeaders()) {
+            key.append('\n').append(header).append(':').append(String.join(",", request.getHeaders().getOrEmpty(header)));
+        }
+        if (!principalName.isEmpty()) {
+            key.append("\n@").append(principalName);
+        }
+        return key.toString();
+    }
+
+    private static String varyValues(ServerHttpRequest request, List<String> headerNames) {
+        StringBuilder values = new StringBuilder();
+        for (String header : headerNames) {
+            values.append("\nvary ").append(header).append(':').append(String.join(",", request.getHeaders().getOrEmpty(header)));
+        }
+        return values.toString();
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private long ttlSeconds = 60;
+        private List<String> keyHeaders = List.of();
+        private boolean privateData = true;
+    }
+}
@@ -0,0 +1,110 @@
+package com.tanvir.gateway.core.compression;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+/**
+ * Compresses the body on its way to the client, one {@link DataBuffer} at a time, when
+ * {@link ResponseCompression#appliesTo} accepts the response. The decision is taken when the first
+ * buffer arrives, right before the headers are committed, so decorators further from the wire still see
+ * the identity headers. Without a {@code Content-Length}, buffers are held back until the size threshold
+ * is reached or the body ends; buffers still held back when the exchange is cancelled are released.
+ * Bodies written with {@link #writeAndFlushWith} are flushed after every inner publisher so streams stay
+ * live.
+ */
+class CompressingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final ResponseCompression compression;
+    private final BiConsumer<Long, Long> onComplete;
+
+    CompressingResponseDecorator(ServerHttpResponse delegate, ResponseCompression compression,
+                                 BiConsumer<Long, Long> onComplete) {
+        super(delegate);
+        this.compression = compression;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        long contentLength = getHeaders().getContentLength();
+        if (contentLength >= 0) {
+            return super.writeWith(Flux.<DataBuffer>from(body)
+                    .switchOnFirst((first, buffers) -> first.hasValue() ? compressIfApplicable(buffers, contentLength) : buffers)
+                    .doOnDiscard(Object.class, CompressingResponseDecorator::releaseDiscarded));
+        }
+        // unknown length: hold buffers back until the threshold is reached or the body ends
+        long[] seen = {0};
+        return super.writeWith(Flux.<DataBuffer>from(body)
+                .bufferUntil(buffer -> (seen[0] += buffer.readableByteCount()) >= compression.getMinResponseBytes())
+                .switchOnFirst((first, groups) -> {
+                    Flux<DataBuffer> buffers = groups.flatMapIterable(group -> group);
+                    if (!first.hasValue()) {
+                        return buffers;
+                    }
+                    long length = first.get().stream().mapToLong(DataBuffer::readableByteCount).sum();
+                    return compressIfApplicable(buffers, length);
+                })
+                .doOnDiscard(Object.class, CompressingResponseDecorator::releaseDiscarded));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return super.writeAndFlushWith(Flux.<Publisher<? extends DataBuffer>>from(body).switchOnFirst((first, chunks) -> {
+            if (!first.hasValue() || !compression.appliesTo(getStatusCode(), getHeaders(), -1)) {
+                return chunks;
+            }
+            compression.applyHeaders(getHeaders());
+            StreamingCompressor compressor = compression.streamingCompressor(bufferFactory());
+            return chunks
+                    .<Publisher<? extends DataBuffer>>map(chunk -> Flux.<DataBuffer>from(chunk)
+                            .<DataBuffer>handle((buffer, sink) -> emit(compressor.compress(buffer), sink))
+                            .concatWith(Mono.fromSupplier(compressor::flush)))
+                    .concatWith(Mono.fromSupplier(() -> Mono.fromSupplier(() -> finish(compressor))))
+                    .doFinally(signal -> compressor.release());
+        }));
+    }
+
+    private Flux<DataBuffer> compressIfApplicable(Flux<DataBuffer> buffers, long length) {
+        if (!compression.appliesTo(getStatusCode(), getHeaders(), length)) {
+            return buffers;
+        }
+        compression.applyHeaders(getHeaders());
+        StreamingCompressor compressor = compression.streamingCompressor(bufferFactory());
+        return buffers
+                .<DataBuffer>handle((buffer, sink) -> emit(compressor.compress(buffer), sink))
+                .concatWith(Mono.fromSupplier(() -> finish(compressor)))
+                .doFinally(signal -> compressor.release());
+    }
+
+    private DataBuffer finish(StreamingCompressor compressor) {
+        DataBuffer tail = compressor.finish();
+        onComplete.accept(compressor.getBytesIn(), compressor.getBytesOut());
+        return tail;
+    }
+
+    /**
+     * Discarded elements are single buffers or the groups collected by {@code bufferUntil}.
+     */
+    private static void releaseDiscarded(Object discarded) {
+        if (discarded instanceof DataBuffer buffer) {
+            DataBufferUtils.release(buffer);
+        } else if (discarded instanceof Collection<?> group) {
+            group.forEach(CompressingResponseDecorator::releaseDiscarded);
+        }
+    }
+
+    private static void emit(DataBuffer buffer, SynchronousSink<DataBuffer> sink) {
+        if (buffer != null) {
+            sink.next(buffer);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.tanvir.gateway.core.compression;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.filters.GatewayFilterOrder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+/**
+ * Compresses responses of a route with gzip or deflate, whichever the client's {@code Accept-Encoding}
+ * prefers.
+ *
+ * <pre>
+ * filters:
+ *   - name: Compression
+ *     args:
+ *       minResponseBytes: 1024
+ *       mimeTypes: application/json, text/*
+ * </pre>
+ *
+ * Responses shorter than {@code minResponseBytes}, of other content types, already encoded or marked
+ * {@code no-transform} pass through untouched. {@code Accept-Encoding} is never forwarded, even when
+ * no coding is acceptable to the client, so the backend always answers in identity and the response
+ * cache stores one representation; it keeps the compressed variant next to it and serves that without
+ * compressing again.
+ */
+@Component
+public class CompressionGatewayFilterFactory extends AbstractGatewayFilterFactory<CompressionGatewayFilterFactory.Config> {
+
+    public static final String METRIC_NAME = "gateway.compression.bytes";
+
+    private final DeflaterPool deflaterPool;
+    private final MeterRegistry meterRegistry;
+
+    public CompressionGatewayFilterFactory(DeflaterPool deflaterPool, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.deflaterPool = deflaterPool;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("minResponseBytes");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        List<MimeType> mimeTypes = config.getMimeTypes().stream().map(MimeTypeUtils::parseMimeType).toList();
+        Counter bytesIn = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "direction", "in");
+        Counter bytesOut = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "direction", "out");
+
+        GatewayFilter filter = (exchange, chain) -> {
+            List<String> acceptEncoding = exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING);
+            ContentCoding coding = ContentCoding.negotiate(acceptEncoding);
+            ServerWebExchange.Builder identityUpstream = exchange.mutate()
+                    .request(request -> request.headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING)));
+            if (coding == null || exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+                return chain.filter(identityUpstream.build());
+            }
+            ResponseCompression compression = new ResponseCompression(coding, config.getMinResponseBytes(), mimeTypes, deflaterPool);
+            exchange.getAttributes().put(ExchangeAttributes.RESPONSE_COMPRESSION.getValue(), compression);
+            return chain.filter(identityUpstream
+                    .response(new CompressingResponseDecorator(exchange.getResponse(), compression, (in, out) -> {
+                        bytesIn.increment(in);
+                        bytesOut.increment(out);
+                    }))
+                    .build());
+        };
+        return new OrderedGatewayFilter(filter, GatewayFilterOrder.COMPRESSION);
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private long minResponseBytes = 1024;
+        private List<String> mimeTypes = List.of("application/json", "application/*+json", "application/xml",
+                "application/javascript", "text/*", "image/svg+xml");
+    }
+}
@@ -0,0 +1,68 @@
+package com.tanvir.gateway.core.compression;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Locale;
+
+@Getter
+public enum ContentCoding {
+    GZIP("gzip", true),
+    DEFLATE("deflate", false),
+    ;
+
+    private final String token;
+    /**
+     * Whether the deflater writes raw deflate data, framed by this coding itself, instead of zlib.
+     */
+    private final boolean nowrap;
+
+    ContentCoding(String token, boolean nowrap) {
+        this.token = token;
+        this.nowrap = nowrap;
+    }
+
+    /**
+     * The coding the client prefers among the supported ones, by {@code q} value with gzip winning ties,
+     * or {@code null} when the client accepts neither.
+     */
+    public static ContentCoding negotiate(List<String> acceptEncoding) {
+        double gzip = -1;
+        double deflate = -1;
+        double any = -1;
+        for (String header : acceptEncoding) {
+            for (String element : header.split(",")) {
+                String[] parts = element.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                double q = quality(parts);
+                switch (coding) {
+                    case "gzip", "x-gzip" -> gzip = Math.max(gzip, q);
+                    case "deflate" -> deflate = Math.max(deflate, q);
+                    case "*" -> any = q;
+                    default -> {
+                    }
+                }
+            }
+        }
+        gzip = gzip >= 0 ? gzip : any;
+        deflate = deflate >= 0 ? deflate : any;
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? GZIP : DEFLATE;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,49 @@
+package com.tanvir.gateway.core.compression;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Reuses {@link Deflater}s across responses. A deflater holds a few hundred KB of native memory
+ * that is only freed by {@link Deflater#end()}, so creating one per response costs both allocation
+ * time and native memory churn. Deflaters beyond {@code pool-size} are ended on release.
+ */
+@Component
+public class DeflaterPool {
+
+    private final int level;
+    private final BlockingQueue<Deflater> raw;
+    private final BlockingQueue<Deflater> zlib;
+
+    public DeflaterPool(@Value("${gateway.compression.level:6}") int level,
+                        @Value("${gateway.compression.pool-size:64}") int poolSize) {
+        this.level = level;
+        this.raw = new ArrayBlockingQueue<>(poolSize);
+        this.zlib = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public Deflater borrow(boolean nowrap) {
+        Deflater deflater = (nowrap ? raw : zlib).poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    public void release(Deflater deflater, boolean nowrap) {
+        deflater.reset();
+        if (!(nowrap ? raw : zlib).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        raw.forEach(Deflater::end);
+        zlib.forEach(Deflater::end);
+        raw.clear();
+        zlib.clear();
+    }
+}
@@ -0,0 +1,105 @@
+package com.tanvir.gateway.core.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The coding negotiated for one exchange together with its route's compression rules. The
+ * {@code Compression} filter stores it as an exchange attribute so that filters writing complete
+ * bodies themselves, like the response cache, can serve a precompressed variant.
+ */
+public class ResponseCompression {
+
+    private final ContentCoding coding;
+    private final long minResponseBytes;
+    private final List<MimeType> mimeTypes;
+    private final DeflaterPool deflaterPool;
+
+    ResponseCompression(ContentCoding coding, long minResponseBytes, List<MimeType> mimeTypes, DeflaterPool deflaterPool) {
+        this.coding = coding;
+        this.minResponseBytes = minResponseBytes;
+        this.mimeTypes = mimeTypes;
+        this.deflaterPool = deflaterPool;
+    }
+
+    public ContentCoding getCoding() {
+        return coding;
+    }
+
+    public long getMinResponseBytes() {
+        return minResponseBytes;
+    }
+
+    /**
+     * Whether a response with these headers and body length ({@code -1} if unknown) gets compressed.
+     */
+    public boolean appliesTo(HttpStatusCode status, HttpHeaders headers, long contentLength) {
+        if (status != null && (status.value() == HttpStatus.NO_CONTENT.value() || status.value() == HttpStatus.NOT_MODIFIED.value()
+                || status.value() == HttpStatus.PARTIAL_CONTENT.value() || status.is1xxInformational())) {
+            return false;
+        }
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || headers.containsKey(HttpHeaders.CONTENT_RANGE)
+                || (contentLength >= 0 && contentLength < minResponseBytes)) {
+            return false;
+        }
+        for (String cacheControl : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            if (cacheControl.toLowerCase(Locale.ROOT).contains("no-transform")) {
+                return false;
+            }
+        }
+        MediaType contentType = headers.getContentType();
+        return contentType != null && mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(contentType));
+    }
+
+    /**
+     * Marks {@code headers} as describing the compressed representation.
+     */
+    public void applyHeaders(HttpHeaders headers) {
+        headers.set(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        String etag = headers.getETag();
+        if (etag != null && !etag.startsWith("W/")) {
+            headers.setETag("W/" + etag);
+        }
+    }
+
+    /**
+     * Compresses a complete body into a read-only direct buffer.
+     */
+    public ByteBuffer compress(ByteBuffer body) {
+        StreamingCompressor compressor = streamingCompressor(DefaultDataBufferFactory.sharedInstance);
+        try {
+            DataBuffer head = compressor.compress(body.duplicate());
+            DataBuffer tail = compressor.finish();
+            int headLength = head != null ? head.readableByteCount() : 0;
+            ByteBuffer compressed = ByteBuffer.allocateDirect(headLength + tail.readableByteCount());
+            if (head != null) {
+                head.toByteBuffer(head.readPosition(), compressed, 0, headLength);
+                DataBufferUtils.release(head);
+            }
+            tail.toByteBuffer(tail.readPosition(), compressed, headLength, tail.readableByteCount());
+            DataBufferUtils.release(tail);
+            return compressed.asReadOnlyBuffer();
+        } finally {
+            compressor.release();
+        }
+    }
+
+    StreamingCompressor streamingCompressor(DataBufferFactory bufferFactory) {
+        return new StreamingCompressor(coding, deflaterPool, bufferFactory);
+    }
+}
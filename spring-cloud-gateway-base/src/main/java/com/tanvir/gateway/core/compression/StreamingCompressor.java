@@ -0,0 +1,157 @@
+package com.tanvir.gateway.core.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses one response body chunk by chunk. gzip is written as a raw deflate stream between a
+ * fixed 10 byte header and a CRC32/length trailer, so the deflater never sees more than the chunk in
+ * hand and nothing is buffered beyond its window.
+ * <p>
+ * Methods are synchronized because a cancel signal may release the deflater while a chunk is still
+ * being compressed on another thread; after {@link #release()} every call returns {@code null}.
+ */
+final class StreamingCompressor {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final ContentCoding coding;
+    private final DeflaterPool pool;
+    private final DataBufferFactory bufferFactory;
+    private final CRC32 crc = new CRC32();
+    private final byte[] scratch = new byte[8192];
+    private Deflater deflater;
+    private boolean headerWritten;
+    private long bytesIn;
+    private long bytesOut;
+
+    StreamingCompressor(ContentCoding coding, DeflaterPool pool, DataBufferFactory bufferFactory) {
+        this.coding = coding;
+        this.pool = pool;
+        this.bufferFactory = bufferFactory;
+        this.deflater = pool.borrow(coding.isNowrap());
+    }
+
+    /**
+     * Consumes and releases {@code input}; returns the compressed bytes produced so far, if any.
+     */
+    synchronized DataBuffer compress(DataBuffer input) {
+        try {
+            if (deflater == null) {
+                return null;
+            }
+            DataBuffer output = null;
+            try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+                while (buffers.hasNext()) {
+                    output = compress(buffers.next(), output);
+                }
+            }
+            return output;
+        } finally {
+            DataBufferUtils.release(input);
+        }
+    }
+
+    synchronized DataBuffer compress(ByteBuffer input) {
+        return deflater != null ? compress(input, null) : null;
+    }
+
+    /**
+     * Emits everything compressed so far, so a streaming client can decode it now.
+     */
+    synchronized DataBuffer flush() {
+        return deflater != null ? drain(header(null), Deflater.SYNC_FLUSH) : null;
+    }
+
+    /**
+     * Ends the stream and returns the deflater to the pool.
+     */
+    synchronized DataBuffer finish() {
+        if (deflater == null) {
+            return null;
+        }
+        deflater.finish();
+        DataBuffer output = header(null);
+        while (!deflater.finished()) {
+            output = write(output, deflater.deflate(scratch, 0, scratch.length));
+        }
+        if (coding == ContentCoding.GZIP) {
+            byte[] trailer = new byte[8];
+            writeIntLe(trailer, 0, (int) crc.getValue());
+            writeIntLe(trailer, 4, (int) bytesIn);
+            output = write(output, trailer, trailer.length);
+        }
+        release();
+        return output;
+    }
+
+    synchronized void release() {
+        if (deflater != null) {
+            pool.release(deflater, coding.isNowrap());
+            deflater = null;
+        }
+    }
+
+    long getBytesIn() {
+        return bytesIn;
+    }
+
+    long getBytesOut() {
+        return bytesOut;
+    }
+
+    private DataBuffer compress(ByteBuffer input, DataBuffer output) {
+        output = header(output);
+        bytesIn += input.remaining();
+        if (coding == ContentCoding.GZIP) {
+            crc.update(input.duplicate());
+        }
+        deflater.setInput(input);
+        return drain(output, Deflater.NO_FLUSH);
+    }
+
+    private DataBuffer drain(DataBuffer output, int flush) {
+        while (true) {
+            int length = deflater.deflate(scratch, 0, scratch.length, flush);
+            output = write(output, length);
+            if (length < scratch.length && (flush != Deflater.NO_FLUSH || deflater.needsInput())) {
+                return output;
+            }
+        }
+    }
+
+    private DataBuffer header(DataBuffer output) {
+        if (headerWritten || coding != ContentCoding.GZIP) {
+            return output;
+        }
+        headerWritten = true;
+        return write(output, GZIP_HEADER, GZIP_HEADER.length);
+    }
+
+    private DataBuffer write(DataBuffer output, int length) {
+        return write(output, scratch, length);
+    }
+
+    private DataBuffer write(DataBuffer output, byte[] bytes, int length) {
+        if (length == 0) {
+            return output;
+        }
+        if (output == null) {
+            output = bufferFactory.allocateBuffer(Math.max(length, 1024));
+        }
+        bytesOut += length;
+        return output.write(bytes, 0, length);
+    }
+
+    private static void writeIntLe(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+        bytes[offset + 2] = (byte) (value >>> 16);
+        bytes[offset + 3] = (byte) (value >>> 24);
+    }
+}
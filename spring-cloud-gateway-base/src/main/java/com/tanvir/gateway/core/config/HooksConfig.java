@@ -2,6 +2,7 @@ package com.tanvir.gateway.core.config;
 
 import org.reactivestreams.Subscription;
 import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import reactor.core.CoreSubscriber;
@@ -13,6 +14,7 @@ import java.util.Map;
 import java.util.Optional;
 
 @Configuration
+@ConditionalOnProperty(name = "mdc.propagation.mode", havingValue = "hook")
 public class HooksConfig {
 
     public HooksConfig() {
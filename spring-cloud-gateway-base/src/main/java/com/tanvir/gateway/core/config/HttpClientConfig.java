@@ -8,8 +8,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.transport.logging.AdvancedByteBufFormat;
 
+import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
@@ -18,18 +20,53 @@ public class HttpClientConfig {
     @Value("${gateway.timeout.in.ms}")
     private int TIMEOUT;
 
+    /**
+     * Pool shared by every outbound call. Entries under {@code http.client.hosts} ({@code host:port})
+     * get their own pool sizing; all other hosts use {@code http.client.pool}.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider reactiveConnectionProvider(HttpClientProperties properties) {
+        HttpClientProperties.Pool pool = properties.getPool();
+        ConnectionProvider.Builder builder = configure(ConnectionProvider.builder(pool.getName()), pool)
+                .metrics(pool.isMetrics());
+        properties.getHosts().forEach((hostAndPort, hostPool) -> {
+            int separator = hostAndPort.lastIndexOf(':');
+            builder.forRemoteHost(InetSocketAddress.createUnresolved(hostAndPort.substring(0, separator),
+                    Integer.parseInt(hostAndPort.substring(separator + 1))), spec -> configure(spec, hostPool));
+        });
+        return builder.build();
+    }
+
     @Bean
-    public HttpClient reactiveHttpClientWithTimeout() {
-        return HttpClient
-                .create()
+    public HttpClient reactiveHttpClientWithTimeout(ConnectionProvider reactiveConnectionProvider, HttpClientProperties properties) {
+        HttpClientProperties.Dns dns = properties.getDns();
+        HttpClient httpClient = HttpClient
+                .create(reactiveConnectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT)
                 .responseTimeout(Duration.ofMillis(TIMEOUT))
                 .doOnConnected(connection -> {
                     connection.addHandlerLast(new ReadTimeoutHandler(TIMEOUT, TimeUnit.MILLISECONDS));
                     connection.addHandlerLast(new WriteTimeoutHandler(TIMEOUT, TimeUnit.MILLISECONDS));
                 })
-                .wiretap("reactor.netty.http.client.HttpClient",
-                        LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL);
+                .resolver(spec -> spec
+                        .cacheMinTimeToLive(Duration.ofSeconds(dns.getCacheMinTtlSeconds()))
+                        .cacheMaxTimeToLive(Duration.ofSeconds(dns.getCacheMaxTtlSeconds()))
+                        .cacheNegativeTimeToLive(Duration.ofSeconds(dns.getCacheNegativeTtlSeconds())));
+        if (properties.isWiretap()) {
+            httpClient = httpClient.wiretap("reactor.netty.http.client.HttpClient",
+                    LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL);
+        }
+        return httpClient;
+    }
+
+    private static <T extends ConnectionProvider.ConnectionPoolSpec<T>> T configure(T spec, HttpClientProperties.Pool pool) {
+        spec.maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(pool.getMaxIdleTimeMs()))
+                .maxLifeTime(Duration.ofMillis(pool.getMaxLifeTimeMs()))
+                .evictInBackground(Duration.ofMillis(pool.getEvictInBackgroundMs()));
+        return pool.isLifo() ? spec.lifo() : spec.fifo();
     }
 
 }
@@ -0,0 +1,117 @@
+package com.tanvir.gateway.core.filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Gives every routed exchange a deadline, taken from the route metadata {@code deadline-ms} or
+ * {@code gateway.deadline.default-ms} and counted from the moment {@link IWebFilter} saw the request.
+ * A tighter deadline sent by the caller wins. The remaining budget goes upstream in
+ * {@code Request-Deadline-In-Ms}; when it runs out before the upstream response headers arrive, the
+ * upstream call is cancelled and the client gets {@code 504}. The deadline stops at the response
+ * headers: {@code NettyWriteResponseFilter} streams the body after this chain has completed, so a slow
+ * body is bounded by the http client timeouts, not by the deadline. A client that goes away cancels
+ * the upstream call the same way.
+ * <p>
+ * {@code deadline-ms} is parsed once per route; a value that is not a positive number is logged and
+ * replaced by the default.
+ */
+@Component
+@Slf4j
+public class DeadlineGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String DEADLINE_METADATA = "deadline-ms";
+    public static final String METRIC_NAME = "gateway.deadline.exceeded";
+
+    private final MeterRegistry meterRegistry;
+    private final long defaultDeadlineMs;
+    private final Cache<Route, Long> routeDeadlines = Caffeine.newBuilder().weakKeys().build();
+
+    public DeadlineGlobalFilter(MeterRegistry meterRegistry,
+                                @Value("${gateway.deadline.default-ms:${gateway.timeout.in.ms}}") long defaultDeadlineMs) {
+        this.meterRegistry = meterRegistry;
+        this.defaultDeadlineMs = defaultDeadlineMs;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        long budgetMs = route != null ? routeDeadlines.get(route, this::deadlineMs) : defaultDeadlineMs;
+        String callerDeadline = exchange.getRequest().getHeaders().getFirst(HeaderNames.REQUEST_DEADLINE_IN_MS.getValue());
+        if (callerDeadline != null) {
+            try {
+                budgetMs = Math.min(budgetMs, Long.parseLong(callerDeadline.trim()));
+            } catch (NumberFormatException ignored) {
+                // a malformed caller deadline is ignored, the route deadline still applies
+            }
+        }
+        Long startNanos = exchange.getAttribute(ExchangeAttributes.REQUEST_START_NANOS.getValue());
+        long deadlineNanos = (startNanos != null ? startNanos : System.nanoTime()) + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        String routeId = route != null ? route.getId() : "unmatched";
+        if (remainingMs <= 0) {
+            return deadlineExceeded(routeId);
+        }
+        exchange.getAttributes().put(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue(), deadlineNanos);
+        ServerWebExchange withDeadline = exchange.mutate()
+                .request(request -> request.headers(headers ->
+                        headers.set(HeaderNames.REQUEST_DEADLINE_IN_MS.getValue(), String.valueOf(remainingMs))))
+                .build();
+        return chain.filter(withDeadline)
+                .timeout(Duration.ofMillis(remainingMs), Mono.defer(() -> deadlineExceeded(routeId)))
+                .doOnCancel(() -> closeUpstream(withDeadline));
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.DEADLINE;
+    }
+
+    private long deadlineMs(Route route) {
+        Object deadline = route.getMetadata().get(DEADLINE_METADATA);
+        if (deadline == null) {
+            return defaultDeadlineMs;
+        }
+        try {
+            long deadlineMs = deadline instanceof Number number ? number.longValue() : Long.parseLong(deadline.toString().trim());
+            if (deadlineMs > 0) {
+                return deadlineMs;
+            }
+        } catch (NumberFormatException ignored) {
+            // logged below together with non-positive values
+        }
+        log.warn("Ignoring invalid {} '{}' on route {}, using {} ms", DEADLINE_METADATA, deadline, route.getId(), defaultDeadlineMs);
+        return defaultDeadlineMs;
+    }
+
+    private Mono<Void> deadlineExceeded(String routeId) {
+        meterRegistry.counter(METRIC_NAME, "routeId", routeId).increment();
+        return Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded"));
+    }
+
+    private static void closeUpstream(ServerWebExchange exchange) {
+        Connection connection = exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.dispose();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tanvir.gateway.core.filters;
+
+import lombok.Getter;
+
+@Getter
+public enum ExchangeAttributes {
+    REQUEST_START_NANOS("gateway.requestStartNanos"),
+    REQUEST_DEADLINE_NANOS("gateway.requestDeadlineNanos"),
+    UPSTREAM_INSTANCE_CALL("gateway.upstreamInstanceCall"),
+    RESPONSE_COMPRESSION("gateway.responseCompression"),
+    TRACE_PARENT("gateway.traceParent"),
+    FALLBACK_RESPONSE("gateway.fallbackResponse"),
+    JFR_EXCHANGE_EVENT("gateway.jfrExchangeEvent"),
+    UPSTREAM_CALL_NANOS("gateway.upstreamCallNanos"),
+    ;
+
+    private final String value;
+
+    ExchangeAttributes(String value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tanvir.gateway.core.filters;
+
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.core.Ordered;
+
+/**
+ * Orders of route filters that must sit at a fixed place among the global filters. Filters that
+ * decorate the response body run before {@link NettyWriteResponseFilter}; the upstream body passes the
+ * highest order first, so the lower the order, the later the filter sees the body on its way to the
+ * client. Filters that replace the upstream call run once the request
+ * URL is resolved and, for {@code lb://} routes, an instance has been chosen.
+ */
+public final class GatewayFilterOrder {
+
+    public static final int TAIL_SAMPLING = Ordered.HIGHEST_PRECEDENCE + 50;
+    public static final int ADMISSION = Ordered.HIGHEST_PRECEDENCE + 100;
+    public static final int COMPRESSION = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 40;
+    public static final int RESPONSE_CACHE = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 30;
+    public static final int JSON_PROJECTION = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 20;
+    public static final int REQUEST_COALESCING = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 10;
+    public static final int DEADLINE = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER - 1;
+    public static final int INSTANCE_STATS = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    public static final int HEDGING = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 2;
+    public static final int UPSTREAM_CALL_MARKER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private GatewayFilterOrder() {
+    }
+}
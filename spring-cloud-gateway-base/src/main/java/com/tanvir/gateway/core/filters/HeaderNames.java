@@ -4,14 +4,16 @@ import lombok.Getter;
 
 @Getter
 public enum HeaderNames {
-    REQUEST_RECEIVED_TIME_IN_MS("Request-Received-Time-In-Ms"),
-    REQUEST_SENT_TIME_IN_MS("Request-Sent-Time-In-Ms"),
-    RESPONSE_RECEIVED_TIME_IN_MS("Response-Received-Time-In-Ms"),
-    RESPONSE_TRANSMISSION_TIME_IN_MS("Response-Transmission-Time-In-Ms"),
     RESPONSE_PROCESSING_TIME_IN_MS("Response-Processing-Time-In-Ms"),
     RESPONSE_SENT_TIME_IN_MS("Response-Sent-Time-In-Ms"),
     TRACE_ID("Trace-Id"),
-    SPAN_ID("Span-Id")
+    SPAN_ID("Span-Id"),
+    RATE_LIMIT_REMAINING("X-RateLimit-Remaining"),
+    RATE_LIMIT_BURST_CAPACITY("X-RateLimit-Burst-Capacity"),
+    RATE_LIMIT_REPLENISH_RATE("X-RateLimit-Replenish-Rate"),
+    GATEWAY_CACHE("X-Gateway-Cache"),
+    REQUEST_DEADLINE_IN_MS("Request-Deadline-In-Ms"),
+    SAMPLING_THRESHOLD_IN_MS("Sampling-Threshold-In-Ms"),
     ;
 
     private final String value;
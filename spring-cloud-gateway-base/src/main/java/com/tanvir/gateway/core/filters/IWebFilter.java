@@ -1,182 +1,118 @@
 package com.tanvir.gateway.core.filters;
 
-import com.tanvir.gateway.core.enums.DateTimeFormatterPattern;
-import io.micrometer.tracing.Tracer;
+import com.tanvir.gateway.core.accesslog.AccessLogger;
+import com.tanvir.gateway.core.config.MdcContextPropagationConfig;
+import com.tanvir.gateway.core.jfr.GatewayExchangeRecorder;
+import com.tanvir.gateway.core.metrics.RouteLatencyRecorder;
+import com.tanvir.gateway.core.tracing.TraceContextResolver;
+import com.tanvir.gateway.core.tracing.TraceParent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.temporal.ChronoField;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class IWebFilter implements WebFilter {
 
-    private final Tracer tracer;
+    private static final String UNMATCHED_ROUTE_ID = "unmatched";
+
+    private final TraceContextResolver traceContextResolver;
+    private final RouteLatencyRecorder routeLatencyRecorder;
+    private final AccessLogger accessLogger;
+    private final GatewayExchangeRecorder gatewayExchangeRecorder;
+
+    @Value("${mdc.propagation.mode:context-propagation}")
+    private String mdcPropagationMode;
 
     @Override
     public Mono<Void> filter(ServerWebExchange serverWebExchange, WebFilterChain webFilterChain) {
-        ServerWebExchange mutatedServerWebExchange = setRequestHeaders(serverWebExchange);
-        setMdcAttributeForLogBack(mutatedServerWebExchange);
-        logRequest(mutatedServerWebExchange.getRequest());
-        setResponseHeader(mutatedServerWebExchange);
-        logResponse(mutatedServerWebExchange);
+        serverWebExchange.getAttributes().put(ExchangeAttributes.REQUEST_START_NANOS.getValue(), System.nanoTime());
+        gatewayExchangeRecorder.begin(serverWebExchange);
+        TraceParent traceParent = traceContextResolver.resolve(serverWebExchange);
+        ServerWebExchange mutatedServerWebExchange = setRequestHeaders(serverWebExchange, traceParent);
+        setMdcAttributeForLogBack(mutatedServerWebExchange, traceParent);
+        setResponseHeader(mutatedServerWebExchange, traceParent);
 
 //        return webFilterChain.filter(serverWebExchange);
 
-        Map<String, String> mdcContextMap = MDC.getCopyOfContextMap(); // copy the current MDC context
-
         return webFilterChain.filter(mutatedServerWebExchange)
-                .contextWrite(ctx -> ctx.put("mdcContextMap", mdcContextMap)); // put the MDC context into the subscriber context
-    }
-
-    private void logRequest(ServerHttpRequest request) {
-        if (request.getURI().getPath().contains("actuator") || request.getURI().getPath().contains("swagger")) {
-            return;
-        }
-        log.info("""
-                        Request Received From {}
-                         Uri : {}
-                         Method : {}
-                         Headers : {}
-                         Path : {}
-                         Query Params : {}
-                         Content type : {}
-                         Acceptable Media Type {}
-                        """,
-                request.getLocalAddress(),
-                request.getURI(),
-                request.getMethod(),
-                request.getHeaders(),
-                request.getPath(),
-                request.getQueryParams(),
-                request.getHeaders().getContentType(),
-                request.getHeaders().getAccept());
+                .doFinally(signalType -> onComplete(mutatedServerWebExchange, signalType))
+                .contextWrite(this::writeMdcContext);
     }
 
-    private void logResponse(ServerWebExchange serverWebExchange) {
-        if (serverWebExchange.getRequest().getURI().getPath().contains("actuator") || serverWebExchange.getRequest().getURI().getPath().contains("swagger")) {
-            return;
-        }
+    private void setResponseHeader(ServerWebExchange serverWebExchange, TraceParent traceParent) {
         serverWebExchange.getResponse().beforeCommit(() -> {
-            log.info("""
-                            Response Sending To {}
-                             Uri : {}
-                             Path : {}
-                             Headers : {}
-                             Response Status : {}
-                             Content type : {}
-                            """,
-                    serverWebExchange.getRequest().getLocalAddress(),
-                    serverWebExchange.getRequest().getURI(),
-                    serverWebExchange.getRequest().getPath(),
-                    serverWebExchange.getResponse().getHeaders(),
-                    serverWebExchange.getResponse().getStatusCode(),
-                    serverWebExchange.getResponse().getHeaders().getContentType()
-            );
-            log.info("Response processing time for {} is {} ms", serverWebExchange.getRequest().getPath(),
-                    Objects.requireNonNull(serverWebExchange.getResponse().getHeaders().
-                            get(HeaderNames.RESPONSE_PROCESSING_TIME_IN_MS.getValue())).stream().findFirst().orElse("0"));
+            serverWebExchange.getResponse().getHeaders().set(HeaderNames.RESPONSE_PROCESSING_TIME_IN_MS.getValue(),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMillis(elapsedNanos(serverWebExchange))));
+            serverWebExchange.getResponse().getHeaders().set(HeaderNames.RESPONSE_SENT_TIME_IN_MS.getValue(), String.valueOf(System.currentTimeMillis()));
+            if (traceContextResolver.isLegacyHeaders()) {
+                serverWebExchange.getResponse().getHeaders().set(HeaderNames.TRACE_ID.getValue(), traceParent.traceId());
+            }
             return Mono.empty();
         });
     }
 
-    private void setResponseHeader(ServerWebExchange serverWebExchange) {
-        DateTimeFormatter formatter = new DateTimeFormatterBuilder()
-                .appendPattern("yyyy-MM-dd'T'HH:mm:ss")
-                .appendFraction(ChronoField.NANO_OF_SECOND, 3, 6, true)
-                .toFormatter();
-        serverWebExchange.getResponse().beforeCommit(() -> {
-            Objects.requireNonNull(serverWebExchange.getRequest().getHeaders().get(HeaderNames.REQUEST_RECEIVED_TIME_IN_MS.getValue()))
-                    .stream().
-                    findFirst()
-                    .ifPresent(s -> {
-                        serverWebExchange.getResponse().getHeaders().set(HeaderNames.RESPONSE_PROCESSING_TIME_IN_MS.getValue(),
-                                String.valueOf(
-                                        LocalDateTime.now()
-                                                .atZone(ZoneId.systemDefault())
-                                                .toInstant()
-                                                .toEpochMilli()
-                                                - LocalDateTime
-                                                .parse(s, formatter)
-                                                .atZone(ZoneId.systemDefault())
-                                                .toInstant()
-                                                .toEpochMilli()
-                                )
-                        );
-                    });
-            serverWebExchange.getResponse().getHeaders().set(HeaderNames.RESPONSE_SENT_TIME_IN_MS.getValue(), String.valueOf(LocalDateTime.now()));
-            serverWebExchange.getResponse().getHeaders().set(HeaderNames.TRACE_ID.getValue(),
-                    Objects.requireNonNull(serverWebExchange.getRequest().getHeaders().get(HeaderNames.TRACE_ID.getValue()))
-                            .stream()
-                            .findAny()
-                            .orElse(""));
-            return Mono.empty();
-        });
+    private void onComplete(ServerWebExchange serverWebExchange, SignalType signalType) {
+        long elapsedNanos = elapsedNanos(serverWebExchange);
+        Route route = serverWebExchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : UNMATCHED_ROUTE_ID;
+        routeLatencyRecorder.record(routeId, elapsedNanos);
+        gatewayExchangeRecorder.commit(serverWebExchange, routeId, signalType);
+        accessLogger.log(serverWebExchange, elapsedNanos, signalType, traceContextResolver.resolve(serverWebExchange).traceId());
+    }
+
+    private long elapsedNanos(ServerWebExchange serverWebExchange) {
+        Long startNanos = serverWebExchange.getAttribute(ExchangeAttributes.REQUEST_START_NANOS.getValue());
+        return startNanos != null ? System.nanoTime() - startNanos : 0L;
     }
 
-    private ServerWebExchange setRequestHeaders(ServerWebExchange serverWebExchange) {
+    private ServerWebExchange setRequestHeaders(ServerWebExchange serverWebExchange, TraceParent traceParent) {
+        if (!traceContextResolver.isLegacyHeaders()) {
+            return serverWebExchange;
+        }
         return serverWebExchange.mutate()
-                .request(originalRequest -> originalRequest.headers(headers -> {
-                    headers.set(HeaderNames.REQUEST_RECEIVED_TIME_IN_MS.getValue(), LocalDateTime.now().toString());
-
-                    String traceId = headers.getOrEmpty(HeaderNames.TRACE_ID.getValue())
-                            .stream()
-                            .findFirst()
-                            .orElseGet(() -> {
-                                if (tracer.currentSpan() != null) {
-                                    return Objects.requireNonNull(tracer.currentSpan()).context().traceId();
-                                } else {
-                                    return "default-trace-id";
-                                }
-                            });
-
-                    headers.set(HeaderNames.TRACE_ID.getValue(), traceId);
-                }))
+                .request(originalRequest -> originalRequest.headers(headers ->
+                        headers.set(HeaderNames.TRACE_ID.getValue(), traceParent.traceId())))
                 .build();
     }
 
 
-    private void setMdcAttributeForLogBack(ServerWebExchange serverWebExchange) {
-        MDC.put("Method", Objects.requireNonNull(serverWebExchange.getRequest().getMethod()).name());
-        MDC.put("Uri", serverWebExchange.getRequest().getPath().value());
-        final String traceId;
-        final String spanId;
-        if (tracer.currentSpan() != null) {
-            traceId = Objects.requireNonNull(tracer.currentSpan()).context().traceId();
-        } else {
-            traceId = "default-trace-id";
+    private Context writeMdcContext(Context context) {
+        if ("hook".equals(mdcPropagationMode)) {
+            Map<String, String> mdcContextMap = MDC.getCopyOfContextMap();
+            return mdcContextMap != null ? context.put("mdcContextMap", mdcContextMap) : context;
         }
-        if (tracer.currentSpan() != null) {
-            spanId = Objects.requireNonNull(tracer.currentSpan()).context().spanId();
-        } else {
-            spanId = "default-span-id";
+        Context mdcContext = context;
+        for (MDCKeys mdcKey : MdcContextPropagationConfig.PROPAGATED_KEYS) {
+            String value = MDC.get(mdcKey.getValue());
+            if (value != null) {
+                mdcContext = mdcContext.put(mdcKey.getValue(), value);
+            }
         }
-        MDC.put("traceId", Objects.requireNonNull(serverWebExchange.getRequest().getHeaders().get(HeaderNames.TRACE_ID.getValue()))
-                .stream()
-                .findFirst()
-                .orElseGet(() -> traceId));
-        MDC.put("spanId", Optional.ofNullable(serverWebExchange.getRequest().getHeaders().get(HeaderNames.SPAN_ID.getValue()))
-                .map(headers -> headers.stream().findFirst().orElse(spanId))
-                .orElse(spanId));
-        MDC.put("Request-Trace-Id", Objects.requireNonNull(serverWebExchange.getRequest().getHeaders().get(HeaderNames.TRACE_ID.getValue()))
-                .stream()
-                .findFirst()
-                .orElseGet(() -> traceId));
+        return mdcContext;
+    }
+
+    private void setMdcAttributeForLogBack(ServerWebExchange serverWebExchange, TraceParent traceParent) {
+        MDC.put(MDCKeys.METHOD.getValue(), Objects.requireNonNull(serverWebExchange.getRequest().getMethod()).name());
+        MDC.put(MDCKeys.URI.getValue(), serverWebExchange.getRequest().getPath().value());
+        MDC.put("traceId", traceParent.traceId());
+        MDC.put("spanId", traceParent.spanId());
+        MDC.put(MDCKeys.REQUEST_TRACE_ID.getValue(), traceParent.traceId());
     }
 
 }
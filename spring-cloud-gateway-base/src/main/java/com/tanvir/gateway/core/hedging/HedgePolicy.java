@@ -0,0 +1,83 @@
+package com.tanvir.gateway.core.hedging;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-route hedging state. Upstream latencies go into an HdrHistogram recorder whose interval
+ * histogram is swapped once per window; the configured percentile of the last full window becomes
+ * the hedge delay. Every request earns {@code budgetPercent / 100} of a hedge and a hedge spends one,
+ * so hedges stay under the budget share of traffic.
+ */
+class HedgePolicy {
+
+    private static final long MILLI_HEDGES_PER_HEDGE = 1000;
+
+    private final Recorder recorder;
+    private final long highestTrackableMicros;
+    private final double percentile;
+    private final long minSamples;
+    private final long windowNanos;
+    private final long minDelayMicros;
+    private final long maxDelayMicros;
+    private final long creditPerRequest;
+    private final long maxCredit;
+    private final AtomicLong credit = new AtomicLong();
+    private final AtomicLong nextRotationNanos;
+    private Histogram interval;
+    private volatile long delayMicros = -1;
+
+    HedgePolicy(double percentile, long minSamples, long windowMs, long minDelayMs, long maxDelayMs,
+                double budgetPercent, long highestTrackableMicros) {
+        this.recorder = new Recorder(1, highestTrackableMicros, 2);
+        this.highestTrackableMicros = highestTrackableMicros;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.minDelayMicros = TimeUnit.MILLISECONDS.toMicros(minDelayMs);
+        this.maxDelayMicros = TimeUnit.MILLISECONDS.toMicros(maxDelayMs);
+        this.creditPerRequest = Math.round(budgetPercent * MILLI_HEDGES_PER_HEDGE / 100);
+        this.maxCredit = 10 * MILLI_HEDGES_PER_HEDGE;
+        this.nextRotationNanos = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    void record(long elapsedNanos) {
+        recorder.recordValue(Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), highestTrackableMicros)));
+    }
+
+    /**
+     * @return the hedge delay in microseconds, or a negative value while the window has too few samples
+     */
+    long delayMicros(long nowNanos) {
+        long rotation = nextRotationNanos.get();
+        if (nowNanos - rotation >= 0 && nextRotationNanos.compareAndSet(rotation, nowNanos + windowNanos)) {
+            rotate();
+        }
+        return delayMicros;
+    }
+
+    void onRequest() {
+        credit.getAndUpdate(current -> Math.min(maxCredit, current + creditPerRequest));
+    }
+
+    boolean tryAcquireHedge() {
+        long current;
+        do {
+            current = credit.get();
+            if (current < MILLI_HEDGES_PER_HEDGE) {
+                return false;
+            }
+        } while (!credit.compareAndSet(current, current - MILLI_HEDGES_PER_HEDGE));
+        return true;
+    }
+
+    private synchronized void rotate() {
+        interval = recorder.getIntervalHistogram(interval);
+        delayMicros = interval.getTotalCount() < minSamples
+                ? -1
+                : Math.min(maxDelayMicros, Math.max(minDelayMicros, interval.getValueAtPercentile(percentile)));
+    }
+}
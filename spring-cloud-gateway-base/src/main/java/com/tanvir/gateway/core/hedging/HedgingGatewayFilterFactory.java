@@ -0,0 +1,331 @@
+package com.tanvir.gateway.core.hedging;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.filters.GatewayFilterOrder;
+import com.tanvir.gateway.core.loadbalancer.InstanceStats;
+import com.tanvir.gateway.core.loadbalancer.InstanceStatsRegistry;
+import com.tanvir.gateway.core.loadbalancer.PeakEwmaLoadBalancer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Hedges GET and HEAD requests of a route. The filter makes the upstream call itself: when no response
+ * headers arrived after the route's learned latency percentile, it sends a second copy, takes
+ * whichever response comes first and cancels the other call. The winning connection is handed to
+ * {@code NettyWriteResponseFilter} exactly like {@code NettyRoutingFilter} would, and both calls get
+ * the same request and response header filters and the route's {@code connect-timeout} and
+ * {@code response-timeout} metadata, falling back to {@code spring.cloud.gateway.httpclient.*}.
+ *
+ * <pre>
+ * filters:
+ *   - name: Hedging
+ *     args:
+ *       percentile: 95
+ *       budgetPercent: 5
+ * </pre>
+ *
+ * No hedge is sent until a window holds {@code minSamples} latencies, and the delay is clamped to
+ * {@code minDelayMs}..{@code maxDelayMs}. On {@code lb://} routes the hedge goes to a different instance
+ * than the primary when the service has more than one. A primary that fails while the hedge is still
+ * running counts as a failure of its instance; only a call that lost the race counts as cancelled.
+ */
+@Component
+@Slf4j
+public class HedgingGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgingGatewayFilterFactory.Config> {
+
+    public static final String METRIC_NAME = "gateway.hedging.requests";
+
+    private final HttpClient httpClient;
+    private final HttpClientProperties httpClientProperties;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final ObjectProvider<LoadBalancerClientFactory> loadBalancerClientFactory;
+    private final InstanceStatsRegistry instanceStatsRegistry;
+    private final MeterRegistry meterRegistry;
+    private final long highestTrackableMicros;
+
+    public HedgingGatewayFilterFactory(HttpClient httpClient, HttpClientProperties httpClientProperties,
+                                       ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                       ObjectProvider<LoadBalancerClientFactory> loadBalancerClientFactory,
+                                       InstanceStatsRegistry instanceStatsRegistry, MeterRegistry meterRegistry,
+                                       @Value("${gateway.timeout.in.ms}") long timeoutMs) {
+        super(Config.class);
+        this.httpClient = httpClient;
+        this.httpClientProperties = httpClientProperties;
+        this.headersFilters = headersFilters;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.meterRegistry = meterRegistry;
+        this.highestTrackableMicros = TimeUnit.MILLISECONDS.toMicros(timeoutMs);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("percentile", "budgetPercent");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        HedgePolicy policy = new HedgePolicy(config.getPercentile(), config.getMinSamples(), config.getWindowMs(),
+                config.getMinDelayMs(), config.getMaxDelayMs(), config.getBudgetPercent(), highestTrackableMicros);
+        Counter hedged = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "hedged");
+        Counter won = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "won");
+        Counter overBudget = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "over_budget");
+        AtomicReference<UpstreamTimeouts> routeTimeouts = new AtomicReference<>();
+
+        GatewayFilter filter = (exchange, chain) -> {
+            URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (isAlreadyRouted(exchange) || requestUrl == null
+                    || (!"http".equals(requestUrl.getScheme()) && !"https".equals(requestUrl.getScheme()))
+                    || (method != HttpMethod.GET && method != HttpMethod.HEAD)) {
+                return chain.filter(exchange);
+            }
+            setAlreadyRouted(exchange);
+            UpstreamTimeouts timeouts = routeTimeouts.updateAndGet(current -> current != null
+                    ? current : timeouts(exchange.getAttribute(GATEWAY_ROUTE_ATTR), routeId));
+            policy.onRequest();
+            long delayMicros = policy.delayMicros(System.nanoTime());
+            AtomicBoolean decided = new AtomicBoolean();
+            InstanceStats.Call primaryCall = exchange.getAttribute(ExchangeAttributes.UPSTREAM_INSTANCE_CALL.getValue());
+            Mono<Attempt> primary = attempt(exchange, requestUrl, policy, decided, primaryCall, timeouts);
+            Mono<Attempt> response = primary;
+            if (delayMicros >= 0) {
+                Mono<Attempt> hedge = Mono.delay(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(delayMicros)))
+                        .flatMap(tick -> {
+                            if (decided.get()) {
+                                return Mono.empty();
+                            }
+                            if (!policy.tryAcquireHedge()) {
+                                overBudget.increment();
+                                return Mono.empty();
+                            }
+                            hedged.increment();
+                            return hedgeTarget(exchange, requestUrl)
+                                    .flatMap(target -> attempt(exchange, target.url(), policy, decided, target.call(), timeouts))
+                                    .doOnNext(winner -> won.increment());
+                        });
+                response = Mono.firstWithValue(primary, hedge)
+                        .onErrorMap(NoSuchElementException.class,
+                                e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e);
+            }
+            return response.flatMap(winner -> {
+                writeResponseHeaders(exchange, winner.response());
+                exchange.getAttributes().put(CLIENT_RESPONSE_ATTR, winner.response());
+                exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, winner.connection());
+                return chain.filter(exchange);
+            });
+        };
+        return new OrderedGatewayFilter(filter, GatewayFilterOrder.HEDGING);
+    }
+
+    /**
+     * The URL for the hedge: another instance of the service when the primary was load balanced and
+     * an alternative exists, otherwise the primary URL.
+     */
+    private Mono<HedgeTarget> hedgeTarget(ServerWebExchange exchange, URI requestUrl) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        LoadBalancerClientFactory factory = loadBalancerClientFactory.getIfAvailable();
+        if (chosen == null || !chosen.hasServer() || factory == null
+                || !(factory.getInstance(chosen.getServer().getServiceId()) instanceof PeakEwmaLoadBalancer loadBalancer)) {
+            return Mono.just(new HedgeTarget(requestUrl, null));
+        }
+        ServiceInstance primary = chosen.getServer();
+        return loadBalancer.chooseExcluding(new DefaultRequest<>(new RequestDataContext(new RequestData(exchange.getRequest()))), primary)
+                .map(response -> {
+                    if (!response.hasServer()) {
+                        return new HedgeTarget(requestUrl, null);
+                    }
+                    ServiceInstance instance = response.getServer();
+                    URI url = UriComponentsBuilder.fromUri(requestUrl)
+                            .scheme(instance.isSecure() ? "https" : "http")
+                            .host(instance.getHost())
+                            .port(instance.getPort())
+                            .build(true)
+                            .toUri();
+                    return new HedgeTarget(url, instanceStatsRegistry.start(instance));
+                })
+                .defaultIfEmpty(new HedgeTarget(requestUrl, null));
+    }
+
+    /**
+     * Route timeouts, resolved from the route metadata once per route. Invalid values are logged and
+     * replaced by the global http client settings instead of failing every request.
+     */
+    private UpstreamTimeouts timeouts(Route route, String routeId) {
+        Map<String, Object> metadata = route != null ? route.getMetadata() : Map.of();
+        Long connectTimeoutMillis = metadataMillis(metadata, CONNECT_TIMEOUT_ATTR, routeId);
+        Long responseTimeoutMillis = metadataMillis(metadata, RESPONSE_TIMEOUT_ATTR, routeId);
+        Duration responseTimeout = responseTimeoutMillis == null
+                ? httpClientProperties.getResponseTimeout()
+                : responseTimeoutMillis >= 0 ? Duration.ofMillis(responseTimeoutMillis) : null;
+        return new UpstreamTimeouts(connectTimeoutMillis != null ? connectTimeoutMillis.intValue() : null, responseTimeout);
+    }
+
+    private static Long metadataMillis(Map<String, Object> metadata, String key, String routeId) {
+        Object value = metadata.get(key);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalid {} '{}' on route {}", key, value, routeId);
+            return null;
+        }
+    }
+
+    private Mono<Attempt> attempt(ServerWebExchange exchange, URI requestUrl, HedgePolicy policy,
+                                  AtomicBoolean decided, InstanceStats.Call instanceCall, UpstreamTimeouts timeouts) {
+        HttpHeaders filtered = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange);
+        DefaultHttpHeaders httpHeaders = new DefaultHttpHeaders();
+        filtered.forEach(httpHeaders::set);
+        boolean preserveHost = exchange.getAttributeOrDefault(PRESERVE_HOST_HEADER_ATTRIBUTE, false);
+        String host = exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST);
+        HttpClient client = timeouts.connectTimeoutMillis() != null
+                ? httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeouts.connectTimeoutMillis())
+                : httpClient;
+        Duration responseTimeout = timeouts.responseTimeout();
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            Mono<Attempt> call = client
+                    .headers(headers -> {
+                        headers.add(httpHeaders);
+                        headers.remove(HttpHeaders.HOST);
+                        if (preserveHost && host != null) {
+                            headers.add(HttpHeaders.HOST, host);
+                        }
+                    })
+                    .request(io.netty.handler.codec.http.HttpMethod.valueOf(exchange.getRequest().getMethod().name()))
+                    .uri(requestUrl.toASCIIString())
+                    .send((request, outbound) -> outbound)
+                    .responseConnection((response, connection) -> {
+                        policy.record(System.nanoTime() - startNanos);
+                        if (instanceCall != null) {
+                            if (response.status().code() >= 500) {
+                                instanceCall.failed();
+                            } else {
+                                instanceCall.succeeded();
+                            }
+                        }
+                        if (decided.compareAndSet(false, true)) {
+                            return Mono.just(new Attempt(response, connection));
+                        }
+                        connection.dispose();
+                        return Mono.<Attempt>empty();
+                    })
+                    .next();
+            if (responseTimeout != null) {
+                call = call.timeout(responseTimeout, Mono.error(() -> new TimeoutException("Response took longer than timeout: " + responseTimeout)))
+                        .onErrorMap(TimeoutException.class, e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e));
+            }
+            return call
+                    .doOnError(e -> {
+                        if (instanceCall != null) {
+                            instanceCall.failed();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (instanceCall != null) {
+                            instanceCall.cancelled();
+                        }
+                    });
+        });
+    }
+
+    private void writeResponseHeaders(ServerWebExchange exchange, HttpClientResponse clientResponse) {
+        HttpHeaders headers = new HttpHeaders();
+        clientResponse.responseHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (contentType != null) {
+            exchange.getAttributes().put(ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentType);
+        }
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters.getIfAvailable(List::of), headers, exchange,
+                HttpHeadersFilter.Type.RESPONSE);
+        if (filtered.containsKey(HttpHeaders.TRANSFER_ENCODING) && filtered.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            filtered.remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(clientResponse.status().code()));
+        response.getHeaders().putAll(filtered);
+    }
+
+    private record Attempt(HttpClientResponse response, Connection connection) {
+    }
+
+    private record HedgeTarget(URI url, InstanceStats.Call call) {
+    }
+
+    private record UpstreamTimeouts(Integer connectTimeoutMillis, Duration responseTimeout) {
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private double percentile = 95.0;
+        private double budgetPercent = 5.0;
+        private long minSamples = 100;
+        private long windowMs = 10000;
+        private long minDelayMs = 5;
+        private long maxDelayMs = 1000;
+    }
+}
@@ -0,0 +1,56 @@
+package com.tanvir.gateway.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * One exchange through the gateway, from {@code IWebFilter} until the response completes.
+ */
+@Name("com.tanvir.gateway.Exchange")
+@Label("Gateway Exchange")
+@Category({"Gateway"})
+@StackTrace(false)
+@Threshold("10 ms")
+public class GatewayExchangeEvent extends Event {
+
+    @Label("Route Id")
+    String routeId;
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Outcome")
+    @Description("Reactor signal the exchange completed with")
+    String outcome;
+
+    @Label("Request Bytes")
+    @Description("Content-Length of the request, -1 when not known up front")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @Description("Content-Length of the response, -1 when not known up front")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Filter Time")
+    @Description("Time spent in the filter chain before the upstream call; not set when the call was never made")
+    @Timespan(Timespan.NANOSECONDS)
+    long filterTime = Long.MIN_VALUE;
+
+    @Label("Trace Id")
+    String traceId;
+}
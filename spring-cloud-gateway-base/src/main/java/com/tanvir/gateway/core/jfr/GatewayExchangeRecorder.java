@@ -0,0 +1,56 @@
+package com.tanvir.gateway.core.jfr;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.tracing.TraceParent;
+import jdk.jfr.EventType;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Starts a {@link GatewayExchangeEvent} per exchange and commits it on completion. The event type is
+ * checked before an event is created, so exchanges allocate nothing while no recording has the event
+ * enabled.
+ */
+@Component
+public class GatewayExchangeRecorder {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(GatewayExchangeEvent.class);
+
+    public void begin(ServerWebExchange exchange) {
+        if (!EVENT_TYPE.isEnabled()) {
+            return;
+        }
+        GatewayExchangeEvent event = new GatewayExchangeEvent();
+        event.begin();
+        exchange.getAttributes().put(ExchangeAttributes.JFR_EXCHANGE_EVENT.getValue(), event);
+    }
+
+    public void commit(ServerWebExchange exchange, String routeId, SignalType signalType) {
+        GatewayExchangeEvent event = exchange.getAttribute(ExchangeAttributes.JFR_EXCHANGE_EVENT.getValue());
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        Long startNanos = exchange.getAttribute(ExchangeAttributes.REQUEST_START_NANOS.getValue());
+        Long upstreamCallNanos = exchange.getAttribute(ExchangeAttributes.UPSTREAM_CALL_NANOS.getValue());
+        TraceParent traceParent = exchange.getAttribute(ExchangeAttributes.TRACE_PARENT.getValue());
+        event.routeId = routeId;
+        event.method = exchange.getRequest().getMethod().name();
+        event.path = exchange.getRequest().getPath().value();
+        event.status = status != null ? status.value() : 0;
+        event.outcome = signalType.name();
+        event.requestBytes = exchange.getRequest().getHeaders().getContentLength();
+        event.responseBytes = exchange.getResponse().getHeaders().getContentLength();
+        if (startNanos != null && upstreamCallNanos != null) {
+            event.filterTime = upstreamCallNanos - startNanos;
+        }
+        event.traceId = traceParent != null ? traceParent.traceId() : null;
+        event.commit();
+    }
+}
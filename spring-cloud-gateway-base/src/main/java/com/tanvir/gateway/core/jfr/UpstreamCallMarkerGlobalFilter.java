@@ -0,0 +1,31 @@
+package com.tanvir.gateway.core.jfr;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.filters.GatewayFilterOrder;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Notes when a recorded exchange leaves the filter chain for the upstream call, which gives
+ * {@link GatewayExchangeEvent} its filter time.
+ */
+@Component
+public class UpstreamCallMarkerGlobalFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (exchange.getAttributes().containsKey(ExchangeAttributes.JFR_EXCHANGE_EVENT.getValue())) {
+            exchange.getAttributes().put(ExchangeAttributes.UPSTREAM_CALL_NANOS.getValue(), System.nanoTime());
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.UPSTREAM_CALL_MARKER;
+    }
+}
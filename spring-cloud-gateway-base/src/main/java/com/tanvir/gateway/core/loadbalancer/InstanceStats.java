@@ -0,0 +1,131 @@
+package com.tanvir.gateway.core.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load and health of one upstream instance as seen by this gateway node: requests in flight, a peak
+ * EWMA of response latency and the run of consecutive failures that leads to ejection.
+ * <p>
+ * The EWMA jumps to any sample above it and decays towards lower samples with the time since the
+ * previous one, so an instance that just turned slow is avoided at once and recovers gradually.
+ */
+public class InstanceStats {
+
+    private final String instanceKey;
+    private final long decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private double ewmaNanos;
+    private long lastSampleNanos;
+    private volatile long ejectedUntilNanos;
+
+    InstanceStats(String instanceKey, long decayNanos, long nowNanos) {
+        this.instanceKey = instanceKey;
+        this.decayNanos = decayNanos;
+        this.lastSampleNanos = nowNanos;
+    }
+
+    public String getInstanceKey() {
+        return instanceKey;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized double getEwmaNanos() {
+        return ewmaNanos;
+    }
+
+    public boolean isEjected(long nowNanos) {
+        return nowNanos - ejectedUntilNanos < 0;
+    }
+
+    /**
+     * Expected cost of sending one more request here: latency estimate times the queue it joins.
+     * Instances without samples yet cost the least, so new instances get probed.
+     */
+    double cost() {
+        return (getEwmaNanos() + 1) * (inFlight.get() + 1);
+    }
+
+    Call start(OutlierDetector outlierDetector) {
+        inFlight.incrementAndGet();
+        return new Call(outlierDetector, System.nanoTime());
+    }
+
+    /**
+     * @return {@code true} if this failure ejected the instance
+     */
+    boolean recordFailure(int failureThreshold, long baseEjectionNanos, int maxEjectionMultiplier) {
+        if (consecutiveFailures.incrementAndGet() < failureThreshold) {
+            return false;
+        }
+        consecutiveFailures.set(0);
+        int multiplier = Math.min(ejections.incrementAndGet(), maxEjectionMultiplier);
+        ejectedUntilNanos = System.nanoTime() + baseEjectionNanos * multiplier;
+        return true;
+    }
+
+    private void recordSuccess(long nowNanos) {
+        consecutiveFailures.set(0);
+        if (!isEjected(nowNanos)) {
+            ejections.set(0);
+        }
+    }
+
+    private synchronized void recordLatency(long latencyNanos, long nowNanos) {
+        if (latencyNanos > ewmaNanos) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double weight = Math.exp(-(double) Math.max(0, nowNanos - lastSampleNanos) / decayNanos);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastSampleNanos = nowNanos;
+    }
+
+    interface OutlierDetector {
+        void onFailure(InstanceStats stats);
+    }
+
+    /**
+     * One request to the instance. The first of {@link #succeeded}, {@link #failed} or
+     * {@link #cancelled} ends it; later calls are ignored.
+     */
+    public final class Call {
+        private final OutlierDetector outlierDetector;
+        private final long startNanos;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Call(OutlierDetector outlierDetector, long startNanos) {
+            this.outlierDetector = outlierDetector;
+            this.startNanos = startNanos;
+        }
+
+        public void succeeded() {
+            if (finished.compareAndSet(false, true)) {
+                long nowNanos = System.nanoTime();
+                inFlight.decrementAndGet();
+                recordLatency(nowNanos - startNanos, nowNanos);
+                recordSuccess(nowNanos);
+            }
+        }
+
+        public void failed() {
+            if (finished.compareAndSet(false, true)) {
+                long nowNanos = System.nanoTime();
+                inFlight.decrementAndGet();
+                recordLatency(nowNanos - startNanos, nowNanos);
+                outlierDetector.onFailure(InstanceStats.this);
+            }
+        }
+
+        public void cancelled() {
+            if (finished.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tanvir.gateway.core.loadbalancer;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.filters.GatewayFilterOrder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Feeds {@link InstanceStatsRegistry} from every exchange routed through {@code lb://}: the call to the
+ * chosen instance is in flight until the chain completes, which is when the response headers arrive,
+ * not when the body has been written. A {@code 5xx} or an error counts as a failure, and a client that
+ * goes away only releases the in-flight slot.
+ */
+@Component
+public class InstanceStatsGlobalFilter implements GlobalFilter, Ordered {
+
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    public InstanceStatsGlobalFilter(InstanceStatsRegistry instanceStatsRegistry) {
+        this.instanceStatsRegistry = instanceStatsRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+        InstanceStats.Call call = instanceStatsRegistry.start(chosen.getServer());
+        exchange.getAttributes().put(ExchangeAttributes.UPSTREAM_INSTANCE_CALL.getValue(), call);
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        call.failed();
+                    } else {
+                        call.succeeded();
+                    }
+                })
+                .doOnError(e -> call.failed())
+                .doOnCancel(call::cancelled);
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.INSTANCE_STATS;
+    }
+}
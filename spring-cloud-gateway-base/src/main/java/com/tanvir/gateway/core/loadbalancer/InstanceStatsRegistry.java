@@ -0,0 +1,71 @@
+package com.tanvir.gateway.core.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InstanceStats} of every upstream instance this node has called, plus the passive outlier
+ * detection: {@code consecutive-failures} 5xx responses or connect errors in a row eject an instance
+ * for {@code ejection-ms}, doubling up to {@code max-ejection-multiplier} times while it keeps failing.
+ */
+@Component
+@Slf4j
+public class InstanceStatsRegistry implements InstanceStats.OutlierDetector {
+
+    public static final String EJECTIONS_METRIC_NAME = "gateway.loadbalancer.ejections";
+
+    private final ConcurrentMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long decayNanos;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final int maxEjectionMultiplier;
+    private final double maxEjectedPercent;
+
+    public InstanceStatsRegistry(MeterRegistry meterRegistry,
+                                 @Value("${gateway.loadbalancer.ewma-decay-ms:10000}") long decayMs,
+                                 @Value("${gateway.loadbalancer.consecutive-failures:5}") int failureThreshold,
+                                 @Value("${gateway.loadbalancer.ejection-ms:30000}") long ejectionMs,
+                                 @Value("${gateway.loadbalancer.max-ejection-multiplier:8}") int maxEjectionMultiplier,
+                                 @Value("${gateway.loadbalancer.max-ejected-percent:50}") double maxEjectedPercent) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayMs);
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionMs);
+        this.maxEjectionMultiplier = maxEjectionMultiplier;
+        this.maxEjectedPercent = maxEjectedPercent;
+    }
+
+    public InstanceStats stats(ServiceInstance instance) {
+        String key = key(instance);
+        InstanceStats instanceStats = stats.get(key);
+        return instanceStats != null ? instanceStats : stats.computeIfAbsent(key, k -> new InstanceStats(k, decayNanos, System.nanoTime()));
+    }
+
+    public InstanceStats.Call start(ServiceInstance instance) {
+        return stats(instance).start(this);
+    }
+
+    public double getMaxEjectedPercent() {
+        return maxEjectedPercent;
+    }
+
+    @Override
+    public void onFailure(InstanceStats instanceStats) {
+        if (instanceStats.recordFailure(failureThreshold, ejectionNanos, maxEjectionMultiplier)) {
+            meterRegistry.counter(EJECTIONS_METRIC_NAME, "instance", instanceStats.getInstanceKey()).increment();
+            log.warn("Ejected upstream instance {} after {} consecutive failures", instanceStats.getInstanceKey(), failureThreshold);
+        }
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + '@' + instance.getHost() + ':' + instance.getPort();
+    }
+}
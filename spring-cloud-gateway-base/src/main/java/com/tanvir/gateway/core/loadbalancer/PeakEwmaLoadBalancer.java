@@ -0,0 +1,84 @@
+package com.tanvir.gateway.core.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices over peak EWMA cost: two distinct healthy instances are drawn at random and the
+ * one with the lower {@code latency x (in flight + 1)} wins. Sampling two instead of scanning all keeps
+ * nodes from herding onto the same "best" instance, while the cost still steers away from an instance
+ * that is stuck or overloaded.
+ * <p>
+ * Ejected instances are skipped unless that would leave more than {@code max-ejected-percent} of the
+ * instances out, in which case ejection is ignored for this pick.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                InstanceStatsRegistry instanceStatsRegistry) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        return chooseExcluding(request, null);
+    }
+
+    /**
+     * Picks an instance other than {@code excluded} when there is one, for example to hedge a request.
+     */
+    public Mono<Response<ServiceInstance>> chooseExcluding(Request request, ServiceInstance excluded) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> select(instances, excluded));
+    }
+
+    Response<ServiceInstance> select(List<ServiceInstance> instances, ServiceInstance excluded) {
+        List<ServiceInstance> candidates = healthy(instances);
+        if (excluded != null && candidates.size() > 1) {
+            candidates.removeIf(instance -> instance.getHost().equals(excluded.getHost()) && instance.getPort() == excluded.getPort());
+        }
+        if (candidates.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(instanceStatsRegistry.stats(a).cost() <= instanceStatsRegistry.stats(b).cost() ? a : b);
+    }
+
+    private List<ServiceInstance> healthy(List<ServiceInstance> instances) {
+        long nowNanos = System.nanoTime();
+        List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!instanceStatsRegistry.stats(instance).isEjected(nowNanos)) {
+                healthy.add(instance);
+            }
+        }
+        double ejectedPercent = 100.0 * (instances.size() - healthy.size()) / Math.max(1, instances.size());
+        return ejectedPercent > instanceStatsRegistry.getMaxEjectedPercent() ? new ArrayList<>(instances) : healthy;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tanvir.gateway.core.metrics;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+@Builder
+public class LatencySnapshot {
+    private final long count;
+    private final double minMs;
+    private final double meanMs;
+    private final double p50Ms;
+    private final double p95Ms;
+    private final double p99Ms;
+    private final double p999Ms;
+    private final double maxMs;
+
+    static LatencySnapshot from(Histogram histogram) {
+        return LatencySnapshot.builder()
+                .count(histogram.getTotalCount())
+                .minMs(toMs(histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue()))
+                .meanMs(toMs(histogram.getMean()))
+                .p50Ms(toMs(histogram.getValueAtPercentile(50.0)))
+                .p95Ms(toMs(histogram.getValueAtPercentile(95.0)))
+                .p99Ms(toMs(histogram.getValueAtPercentile(99.0)))
+                .p999Ms(toMs(histogram.getValueAtPercentile(99.9)))
+                .maxMs(toMs(histogram.getMaxValue()))
+                .build();
+    }
+
+    private static double toMs(double micros) {
+        return micros / TimeUnit.MILLISECONDS.toMicros(1);
+    }
+}
@@ -0,0 +1,38 @@
+package com.tanvir.gateway.core.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "routelatency")
+@RequiredArgsConstructor
+public class RouteLatencyEndpoint {
+
+    private final RouteLatencyRecorder routeLatencyRecorder;
+
+    @ReadOperation
+    public Map<String, LatencySnapshot> latencies() {
+        return routeLatencyRecorder.snapshot();
+    }
+
+    @ReadOperation
+    public LatencySnapshot latency(@Selector String routeId) {
+        return routeLatencyRecorder.snapshot(routeId).orElse(null);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        routeLatencyRecorder.reset();
+    }
+
+    @DeleteOperation
+    public void resetRoute(@Selector String routeId) {
+        routeLatencyRecorder.reset(routeId);
+    }
+}
@@ -0,0 +1,112 @@
+package com.tanvir.gateway.core.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one HdrHistogram recorder and one Micrometer timer per route id. Recording is
+ * wait-free on the calling (event loop) thread; the cumulative histograms are only folded
+ * together when the actuator endpoint asks for a snapshot.
+ */
+@Component
+public class RouteLatencyRecorder {
+
+    public static final String METRIC_NAME = "gateway.route.latency";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, RouteLatency> latencies = new ConcurrentHashMap<>();
+    private final long highestTrackableMicros;
+    private final int significantDigits;
+
+    public RouteLatencyRecorder(MeterRegistry meterRegistry,
+                                @Value("${gateway.latency.highest-trackable-ms:${gateway.timeout.in.ms}}") long highestTrackableMs,
+                                @Value("${gateway.latency.significant-digits:2}") int significantDigits) {
+        this.meterRegistry = meterRegistry;
+        this.highestTrackableMicros = TimeUnit.MILLISECONDS.toMicros(highestTrackableMs);
+        this.significantDigits = significantDigits;
+    }
+
+    public void record(String routeId, long elapsedNanos) {
+        RouteLatency latency = latencies.get(routeId);
+        if (latency == null) {
+            latency = latencies.computeIfAbsent(routeId, this::newRouteLatency);
+        }
+        latency.record(elapsedNanos);
+    }
+
+    public Map<String, LatencySnapshot> snapshot() {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        latencies.forEach((routeId, latency) -> snapshots.put(routeId, latency.snapshot()));
+        return snapshots;
+    }
+
+    public Optional<LatencySnapshot> snapshot(String routeId) {
+        return Optional.ofNullable(latencies.get(routeId)).map(RouteLatency::snapshot);
+    }
+
+    public void reset() {
+        latencies.values().forEach(RouteLatency::reset);
+    }
+
+    public boolean reset(String routeId) {
+        RouteLatency latency = latencies.get(routeId);
+        if (latency == null) {
+            return false;
+        }
+        latency.reset();
+        return true;
+    }
+
+    private RouteLatency newRouteLatency(String routeId) {
+        Timer timer = Timer.builder(METRIC_NAME)
+                .description("End to end latency of exchanges handled by the gateway")
+                .tag("routeId", routeId)
+                .publishPercentiles(0.5, 0.95, 0.99, 0.999)
+                .percentilePrecision(significantDigits)
+                .register(meterRegistry);
+        return new RouteLatency(timer, highestTrackableMicros, significantDigits);
+    }
+
+    private static final class RouteLatency {
+        private final Timer timer;
+        private final long highestTrackableMicros;
+        private final Recorder recorder;
+        private final Histogram cumulative;
+        private Histogram interval;
+
+        private RouteLatency(Timer timer, long highestTrackableMicros, int significantDigits) {
+            this.timer = timer;
+            this.highestTrackableMicros = highestTrackableMicros;
+            this.recorder = new Recorder(highestTrackableMicros, significantDigits);
+            this.cumulative = new Histogram(highestTrackableMicros, significantDigits);
+        }
+
+        private void record(long elapsedNanos) {
+            long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+            recorder.recordValue(Math.min(micros, highestTrackableMicros));
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized LatencySnapshot snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            cumulative.add(interval);
+            return LatencySnapshot.from(cumulative);
+        }
+
+        private synchronized void reset() {
+            interval = recorder.getIntervalHistogram(interval);
+            cumulative.reset();
+        }
+    }
+}
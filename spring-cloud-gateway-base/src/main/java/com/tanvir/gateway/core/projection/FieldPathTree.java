@@ -0,0 +1,49 @@
+package com.tanvir.gateway.core.projection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dotted field paths such as {@code tasks.exercises} folded into a tree of field names. Arrays are not
+ * part of a path: {@code tasks.exercises} selects {@code exercises} in every element of {@code tasks}.
+ */
+final class FieldPathTree {
+
+    private final Map<String, FieldPathTree> children = new HashMap<>();
+    private boolean terminal;
+
+    private FieldPathTree() {
+    }
+
+    /**
+     * @return the tree of the comma separated {@code paths}, or {@code null} when there are none
+     */
+    static FieldPathTree parse(Iterable<String> paths) {
+        FieldPathTree root = new FieldPathTree();
+        for (String value : paths) {
+            for (String path : value.split(",")) {
+                String trimmed = path.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                FieldPathTree node = root;
+                for (String name : trimmed.split("\\.")) {
+                    node = node.children.computeIfAbsent(name, n -> new FieldPathTree());
+                }
+                node.terminal = true;
+            }
+        }
+        return root.children.isEmpty() ? null : root;
+    }
+
+    FieldPathTree child(String name) {
+        return children.get(name);
+    }
+
+    /**
+     * Whether the path ends here, i.e. the whole value below this field is selected.
+     */
+    boolean isTerminal() {
+        return terminal;
+    }
+}
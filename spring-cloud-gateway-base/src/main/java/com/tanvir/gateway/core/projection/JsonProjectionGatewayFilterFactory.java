@@ -0,0 +1,170 @@
+package com.tanvir.gateway.core.projection;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tanvir.gateway.core.filters.GatewayFilterOrder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Trims JSON responses of a route while they stream through: {@code ?fields=} keeps only the listed
+ * fields and {@code redact} replaces sensitive fields on every response.
+ *
+ * <pre>
+ * filters:
+ *   - name: JsonProjection
+ *     args:
+ *       redact: tasks.vitals
+ * </pre>
+ *
+ * {@code GET /api/v1/program/client/task/list?fields=userMessage,tasks.exercises} then returns
+ * {@code userMessage} and, for every task, only {@code exercises}. Field paths are dotted and arrays
+ * are transparent. The body is never aggregated: each upstream buffer is parsed incrementally and the
+ * rewritten bytes are written as soon as they are produced. Non-JSON responses pass through, and
+ * {@code ?fields=} only applies to {@code 2xx} responses.
+ * <p>
+ * Redaction fails closed: on a route with {@code redact} the upstream is asked for an identity body,
+ * redaction applies to error responses too, and an encoded body that cannot be parsed is replaced by
+ * an empty {@code 502} instead of being passed through.
+ */
+@Component
+@Slf4j
+public class JsonProjectionGatewayFilterFactory extends AbstractGatewayFilterFactory<JsonProjectionGatewayFilterFactory.Config> {
+
+    public static final String METRIC_NAME = "gateway.json-projection.responses";
+
+    private final JsonFactory jsonFactory;
+    private final MeterRegistry meterRegistry;
+
+    public JsonProjectionGatewayFilterFactory(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.jsonFactory = objectMapper.getFactory();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("redact");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        FieldPathTree redact = FieldPathTree.parse(config.getRedact());
+        Counter projected = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "projected");
+        Counter failed = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "failed");
+        Counter rejected = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "rejected");
+
+        GatewayFilter filter = (exchange, chain) -> {
+            FieldPathTree include = FieldPathTree.parse(exchange.getRequest().getQueryParams().getOrDefault(config.getFieldsParam(), List.of()));
+            if (include == null && redact == null) {
+                return chain.filter(exchange);
+            }
+            ServerHttpResponse decorated = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    if (redact != null && isEncoded(getHeaders())) {
+                        rejected.increment();
+                        log.warn("Dropped encoded response body on route {} : redaction cannot be applied", routeId);
+                        setStatusCode(HttpStatus.BAD_GATEWAY);
+                        getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+                        getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+                        getHeaders().remove(HttpHeaders.ETAG);
+                        getHeaders().setContentLength(0);
+                        return Flux.from(body).doOnNext(DataBufferUtils::release).then(Mono.defer(super::setComplete));
+                    }
+                    FieldPathTree activeInclude = getStatusCode() != null && getStatusCode().is2xxSuccessful() ? include : null;
+                    if ((activeInclude == null && redact == null) || !isJson(getHeaders())) {
+                        return super.writeWith(body);
+                    }
+                    getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    getHeaders().remove(HttpHeaders.ETAG);
+                    JsonProjector projector = projector(activeInclude, redact, config.getRedactValue());
+                    Flux<DataBuffer> rewritten = Flux.<DataBuffer>from(body)
+                            .<DataBuffer>handle((buffer, sink) -> {
+                                try {
+                                    DataBuffer out = projector.transform(buffer, bufferFactory());
+                                    if (out != null) {
+                                        sink.next(out);
+                                    }
+                                } catch (IOException e) {
+                                    sink.error(e);
+                                }
+                            })
+                            .concatWith(Mono.fromCallable(() -> projector.finish(bufferFactory())))
+                            .doOnComplete(projected::increment)
+                            .doOnError(e -> {
+                                failed.increment();
+                                log.warn("Aborted JSON projection on route {} : {}", routeId, e.getMessage());
+                            });
+                    return super.writeWith(rewritten);
+                }
+
+                @Override
+                public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                    return writeWith(Flux.from(body).flatMapSequential(publisher -> publisher));
+                }
+            };
+            return chain.filter(exchange.mutate()
+                    .request(request -> {
+                        if (redact != null) {
+                            request.headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING));
+                        }
+                    })
+                    .response(decorated)
+                    .build());
+        };
+        return new OrderedGatewayFilter(filter, GatewayFilterOrder.JSON_PROJECTION);
+    }
+
+    private JsonProjector projector(FieldPathTree include, FieldPathTree redact, String redactValue) {
+        try {
+            return new JsonProjector(jsonFactory, include, redact, redactValue);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isJson(HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        return contentType != null && !isEncoded(headers)
+                && (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || "json".equals(contentType.getSubtypeSuffix()));
+    }
+
+    private static boolean isEncoded(HttpHeaders headers) {
+        String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        return contentEncoding != null && !contentEncoding.isBlank() && !"identity".equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private String fieldsParam = "fields";
+        private List<String> redact = List.of();
+        private String redactValue = "***";
+    }
+}
@@ -0,0 +1,139 @@
+package com.tanvir.gateway.core.projection;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Rewrites one JSON document token by token as its bytes arrive. Jackson's non-blocking parser is fed
+ * each buffer and returns {@link JsonToken#NOT_AVAILABLE} when a token spans buffers, so memory use is
+ * bounded by the nesting depth and the largest single token, not by the document.
+ * <p>
+ * Every container carries the include and redact subtrees that apply inside it; a {@code null} include
+ * tree means everything is kept. Fields outside the include tree are dropped and fields on a terminal
+ * redact path are written with {@code redactValue} instead of their value.
+ */
+final class JsonProjector {
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final JsonGenerator generator;
+    private final ByteArrayBuilder output = new ByteArrayBuilder(4096);
+    private final String redactValue;
+    private final Deque<Scope> scopes = new ArrayDeque<>();
+    private Scope pending;
+    private int skipDepth = -1;
+
+    JsonProjector(JsonFactory jsonFactory, FieldPathTree include, FieldPathTree redact, String redactValue) throws IOException {
+        this.parser = jsonFactory.createNonBlockingByteBufferParser();
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        this.generator = jsonFactory.createGenerator(output);
+        this.redactValue = redactValue;
+        this.pending = new Scope(include, redact);
+    }
+
+    /**
+     * Consumes and releases {@code input}; returns the rewritten bytes produced so far, if any.
+     */
+    DataBuffer transform(DataBuffer input, DataBufferFactory bufferFactory) throws IOException {
+        try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                feed(buffers.next());
+            }
+        } finally {
+            DataBufferUtils.release(input);
+        }
+        return drain(bufferFactory);
+    }
+
+    DataBuffer finish(DataBufferFactory bufferFactory) throws IOException {
+        feeder.endOfInput();
+        process();
+        generator.close();
+        return drain(bufferFactory);
+    }
+
+    private void feed(ByteBuffer input) throws IOException {
+        feeder.feedInput(input);
+        process();
+    }
+
+    private void process() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (skipDepth >= 0) {
+                skip(token);
+            } else if (token == JsonToken.FIELD_NAME) {
+                field(parser.currentName());
+            } else if (token.isStructStart()) {
+                scopes.push(pending);
+                generator.copyCurrentEventExact(parser);
+            } else if (token.isStructEnd()) {
+                Scope closed = scopes.pop();
+                pending = scopes.isEmpty() ? closed : scopes.peek();
+                generator.copyCurrentEventExact(parser);
+            } else {
+                generator.copyCurrentEventExact(parser);
+                pending = scopes.isEmpty() ? pending : scopes.peek();
+            }
+        }
+    }
+
+    private void field(String name) throws IOException {
+        Scope scope = scopes.peek();
+        FieldPathTree include = null;
+        if (scope.include != null) {
+            include = scope.include.child(name);
+            if (include == null) {
+                skipDepth = 0;
+                return;
+            }
+            if (include.isTerminal()) {
+                include = null;
+            }
+        }
+        FieldPathTree redact = scope.redact != null ? scope.redact.child(name) : null;
+        generator.writeFieldName(name);
+        if (redact != null && redact.isTerminal()) {
+            generator.writeString(redactValue);
+            skipDepth = 0;
+            return;
+        }
+        pending = new Scope(include, redact);
+    }
+
+    private void skip(JsonToken token) {
+        if (token.isStructStart()) {
+            skipDepth++;
+        } else if (token.isStructEnd()) {
+            skipDepth--;
+        }
+        if (skipDepth == 0 && token != JsonToken.FIELD_NAME) {
+            skipDepth = -1;
+        }
+    }
+
+    private DataBuffer drain(DataBufferFactory bufferFactory) throws IOException {
+        generator.flush();
+        if (output.size() == 0) {
+            return null;
+        }
+        byte[] bytes = output.toByteArray();
+        output.reset();
+        return bufferFactory.wrap(bytes);
+    }
+
+    private record Scope(FieldPathTree include, FieldPathTree redact) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limiter.backend", havingValue = "local", matchIfMissing = true)
+public class LocalBucketRateLimiter implements RateLimiter {
+
+    @Override
+    public Mono<Long> tryAcquire(LocalRateLimiter routeLimits, String key, int permits) {
+        return Mono.just(routeLimits.tryAcquire(key, permits));
+    }
+}
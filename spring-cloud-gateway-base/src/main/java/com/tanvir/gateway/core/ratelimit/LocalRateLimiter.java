@@ -0,0 +1,59 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import lombok.Getter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets of one route, keyed by the resolved rate limit key. The map is only written when a
+ * key is seen for the first time or when {@link LocalRateLimiterRegistry} evicts idle buckets.
+ */
+@Getter
+public class LocalRateLimiter {
+
+    private final String routeId;
+    private final long emissionIntervalNanos;
+    private final long burstCapacity;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public LocalRateLimiter(String routeId, long replenishRate, long burstCapacity) {
+        requireValidLimits(routeId, replenishRate, burstCapacity);
+        this.routeId = routeId;
+        this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / replenishRate;
+        this.burstCapacity = burstCapacity;
+    }
+
+    /**
+     * @throws IllegalArgumentException unless {@code replenishRate} is positive and {@code burstCapacity}
+     *                                  holds at least one token
+     */
+    public static void requireValidLimits(String routeId, long replenishRate, long burstCapacity) {
+        if (replenishRate <= 0) {
+            throw new IllegalArgumentException("Rate limiter of route " + routeId + ": replenishRate must be > 0, was " + replenishRate);
+        }
+        if (burstCapacity < 1) {
+            throw new IllegalArgumentException("Rate limiter of route " + routeId + ": burstCapacity must be >= 1, was " + burstCapacity);
+        }
+    }
+
+    public boolean hasSameLimits(long replenishRate, long burstCapacity) {
+        return this.emissionIntervalNanos == TimeUnit.SECONDS.toNanos(1) / replenishRate && this.burstCapacity == burstCapacity;
+    }
+
+    public long tryAcquire(String key, int permits) {
+        long nowNanos = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(emissionIntervalNanos, burstCapacity, nowNanos));
+        }
+        return bucket.tryAcquire(nowNanos, permits);
+    }
+
+    public int evictIdle(long nowNanos, long idleTimeoutNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(nowNanos, idleTimeoutNanos));
+        return before - buckets.size();
+    }
+}
@@ -0,0 +1,29 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code LocalRateLimiter} filter name from before the Redis backend, kept so existing route
+ * definitions still load.
+ *
+ * @deprecated use {@code RouteRateLimiter}, see {@link RouteRateLimiterGatewayFilterFactory}
+ */
+@Deprecated
+@Component
+@Slf4j
+public class LocalRateLimiterGatewayFilterFactory extends RouteRateLimiterGatewayFilterFactory {
+
+    public LocalRateLimiterGatewayFilterFactory(LocalRateLimiterRegistry localRateLimiterRegistry, RateLimiter rateLimiter,
+                                                MeterRegistry meterRegistry) {
+        super(localRateLimiterRegistry, rateLimiter, meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        log.warn("Route {} uses the deprecated LocalRateLimiter filter, rename it to RouteRateLimiter", config.getRouteId());
+        return super.apply(config);
+    }
+}
@@ -0,0 +1,75 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the per-route {@link LocalRateLimiter}s and runs one periodic sweep for all of them that
+ * drops buckets which have been full for longer than the idle timeout.
+ */
+@Component
+@Slf4j
+public class LocalRateLimiterRegistry {
+
+    private final Map<String, LocalRateLimiter> limiters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long idleTimeoutNanos;
+    private final long evictionIntervalMs;
+    private Disposable eviction;
+
+    public LocalRateLimiterRegistry(MeterRegistry meterRegistry,
+                                    @Value("${gateway.rate-limiter.idle-timeout-ms:60000}") long idleTimeoutMs,
+                                    @Value("${gateway.rate-limiter.eviction-interval-ms:10000}") long evictionIntervalMs) {
+        this.meterRegistry = meterRegistry;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.evictionIntervalMs = evictionIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        eviction = Schedulers.parallel().schedulePeriodically(this::evictIdleBuckets,
+                evictionIntervalMs, evictionIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (eviction != null) {
+            eviction.dispose();
+        }
+    }
+
+    public LocalRateLimiter register(String routeId, long replenishRate, long burstCapacity) {
+        LocalRateLimiter limiter = limiters.compute(routeId, (id, existing) ->
+                existing != null && existing.hasSameLimits(replenishRate, burstCapacity)
+                        ? existing
+                        : new LocalRateLimiter(routeId, replenishRate, burstCapacity));
+        Gauge.builder("gateway.rate-limiter.keys", limiters, registered -> {
+                    LocalRateLimiter current = registered.get(routeId);
+                    return current != null ? current.getBuckets().size() : 0;
+                })
+                .tag("routeId", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private void evictIdleBuckets() {
+        long nowNanos = System.nanoTime();
+        limiters.values().forEach(limiter -> {
+            int evicted = limiter.evictIdle(nowNanos, idleTimeoutNanos);
+            if (evicted > 0) {
+                log.debug("Evicted {} idle rate limit buckets of route {}", evicted, limiter.getRouteId());
+            }
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+public enum RateLimitKeyResolver {
+    PRINCIPAL {
+        @Override
+        public Mono<String> resolve(ServerWebExchange exchange) {
+            return exchange.getPrincipal().map(Principal::getName);
+        }
+    },
+    IP {
+        @Override
+        public Mono<String> resolve(ServerWebExchange exchange) {
+            return Mono.just(clientIp(exchange));
+        }
+    },
+    CLIENT_ID {
+        @Override
+        public Mono<String> resolve(ServerWebExchange exchange) {
+            return Mono.justOrEmpty(ServerWebExchangeUtils.getUriTemplateVariables(exchange).get(CLIENT_ID_VARIABLE));
+        }
+    },
+    ;
+
+    public static final String CLIENT_ID_VARIABLE = "clientId";
+    private static final String UNKNOWN_CLIENT = "unknown";
+
+    public abstract Mono<String> resolve(ServerWebExchange exchange);
+
+    public static String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return UNKNOWN_CLIENT;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+}
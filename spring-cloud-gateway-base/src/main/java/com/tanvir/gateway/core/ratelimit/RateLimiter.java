@@ -0,0 +1,13 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Backend that decides whether a request may proceed under the limits of a route. Results follow
+ * {@link TokenBucket#tryAcquire}: zero or more is the number of tokens left, a negative value is
+ * the negated number of nanoseconds to wait before retrying.
+ */
+public interface RateLimiter {
+
+    Mono<Long> tryAcquire(LocalRateLimiter routeLimits, String key, int permits);
+}
@@ -0,0 +1,179 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets shared by every gateway node through a Redis-protocol store. The GCRA update runs
+ * atomically in {@code scripts/token_bucket.lua}; concurrent script calls are pipelined over
+ * Lettuce's shared connection. With {@code batch-size > 1} a node leases several permits per round
+ * trip and serves them locally until the lease expires.
+ * <p>
+ * When the store errors or does not answer within {@code timeout-ms} the request is decided by the
+ * route's local buckets instead, and the store is not retried for {@code retry-interval-ms}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "gateway.rate-limiter.backend", havingValue = "redis")
+public class RedisTokenBucketRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "gateway:rate-limit:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List> script;
+    private final Duration timeout;
+    private final long retryIntervalNanos;
+    private final int batchSize;
+    private final long leaseTtlNanos;
+    private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final Counter fallbacks;
+    private final Counter leaseHits;
+    private volatile long nextAttemptNanos = System.nanoTime();
+    private Disposable leaseEviction;
+
+    public RedisTokenBucketRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${gateway.rate-limiter.redis.timeout-ms:50}") long timeoutMs,
+                                       @Value("${gateway.rate-limiter.redis.retry-interval-ms:1000}") long retryIntervalMs,
+                                       @Value("${gateway.rate-limiter.redis.batch-size:1}") int batchSize,
+                                       @Value("${gateway.rate-limiter.redis.lease-ttl-ms:1000}") long leaseTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.script = tokenBucketScript();
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.retryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(retryIntervalMs);
+        this.batchSize = Math.max(1, batchSize);
+        this.leaseTtlNanos = TimeUnit.MILLISECONDS.toNanos(leaseTtlMs);
+        this.fallbacks = meterRegistry.counter("gateway.rate-limiter.backend", "outcome", "fallback");
+        this.leaseHits = meterRegistry.counter("gateway.rate-limiter.backend", "outcome", "lease");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (batchSize > 1) {
+            long intervalMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(leaseTtlNanos));
+            leaseEviction = Schedulers.parallel().schedulePeriodically(this::evictExpiredLeases,
+                    intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (leaseEviction != null) {
+            leaseEviction.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Long> tryAcquire(LocalRateLimiter routeLimits, String key, int permits) {
+        long nowNanos = System.nanoTime();
+        if (nowNanos - nextAttemptNanos < 0) {
+            return fallback(routeLimits, key, permits);
+        }
+        String redisKey = KEY_PREFIX + routeLimits.getRouteId() + ':' + key;
+        Lease lease = batchSize > 1 ? leases.computeIfAbsent(redisKey, k -> new Lease()) : null;
+        if (lease != null) {
+            long remaining = lease.tryTake(permits, nowNanos);
+            if (remaining >= 0) {
+                leaseHits.increment();
+                return Mono.just(remaining);
+            }
+        }
+        long intervalMicros = TimeUnit.NANOSECONDS.toMicros(routeLimits.getEmissionIntervalNanos());
+        return redisTemplate.execute(script, List.of(redisKey), List.of(
+                        String.valueOf(intervalMicros),
+                        String.valueOf(intervalMicros * routeLimits.getBurstCapacity()),
+                        String.valueOf(permits),
+                        String.valueOf(Math.max(permits, batchSize))))
+                .next()
+                .timeout(timeout)
+                .map(result -> toDecision(result, permits, lease))
+                .onErrorResume(e -> {
+                    log.warn("Rate limiter store unavailable, using local buckets : {}", e.toString());
+                    nextAttemptNanos = System.nanoTime() + retryIntervalNanos;
+                    return fallback(routeLimits, key, permits);
+                });
+    }
+
+    private void evictExpiredLeases() {
+        long nowNanos = System.nanoTime();
+        leases.values().removeIf(lease -> lease.isExpired(nowNanos));
+    }
+
+    private long toDecision(List<?> result, int permits, Lease lease) {
+        long granted = ((Number) result.get(0)).longValue();
+        long value = ((Number) result.get(1)).longValue();
+        if (granted == 0) {
+            return -Math.max(1, TimeUnit.MICROSECONDS.toNanos(value));
+        }
+        if (lease != null && granted > permits) {
+            lease.add(granted - permits, System.nanoTime() + leaseTtlNanos);
+        }
+        return value;
+    }
+
+    private Mono<Long> fallback(LocalRateLimiter routeLimits, String key, int permits) {
+        fallbacks.increment();
+        return Mono.just(routeLimits.tryAcquire(key, permits));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> tokenBucketScript() {
+        DefaultRedisScript<List> redisScript = new DefaultRedisScript<>();
+        redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/token_bucket.lua")));
+        redisScript.setResultType(List.class);
+        return redisScript;
+    }
+
+    private static final class Lease {
+        private final AtomicLong tokens = new AtomicLong();
+        private volatile long expiresAtNanos;
+
+        private long tryTake(int permits, long nowNanos) {
+            if (nowNanos - expiresAtNanos > 0) {
+                return -1;
+            }
+            while (true) {
+                long available = tokens.get();
+                if (available < permits) {
+                    return -1;
+                }
+                if (tokens.compareAndSet(available, available - permits)) {
+                    return available - permits;
+                }
+            }
+        }
+
+        private void add(long permits, long expiresAtNanos) {
+            if (System.nanoTime() - this.expiresAtNanos > 0) {
+                tokens.set(0);
+            }
+            tokens.addAndGet(permits);
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import com.tanvir.gateway.core.filters.HeaderNames;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter per route and key.
+ *
+ * <pre>
+ * filters:
+ *   - name: RouteRateLimiter
+ *     args:
+ *       replenishRate: 50
+ *       burstCapacity: 100
+ *       keyResolver: PRINCIPAL
+ * </pre>
+ *
+ * Requests without a key (for example no principal on a public route) are limited by client IP.
+ * {@code replenishRate} must be positive and {@code burstCapacity} at least 1; other values fail
+ * the route when it is built.
+ * Buckets live on this node unless {@code gateway.rate-limiter.backend=redis} selects the shared
+ * {@link RedisTokenBucketRateLimiter}.
+ */
+@Component
+public class RouteRateLimiterGatewayFilterFactory extends AbstractGatewayFilterFactory<RouteRateLimiterGatewayFilterFactory.Config> {
+
+    public static final String METRIC_NAME = "gateway.rate-limiter.requests";
+
+    private final LocalRateLimiterRegistry localRateLimiterRegistry;
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    public RouteRateLimiterGatewayFilterFactory(LocalRateLimiterRegistry localRateLimiterRegistry, RateLimiter rateLimiter,
+                                                MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.localRateLimiterRegistry = localRateLimiterRegistry;
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("replenishRate", "burstCapacity", "keyResolver");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "default";
+        LocalRateLimiter.requireValidLimits(routeId, config.getReplenishRate(), config.getBurstCapacity());
+        LocalRateLimiter limiter = localRateLimiterRegistry.register(routeId, config.getReplenishRate(), config.getBurstCapacity());
+        Counter allowed = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "allowed");
+        Counter rejected = meterRegistry.counter(METRIC_NAME, "routeId", routeId, "outcome", "rejected");
+        String burstCapacity = String.valueOf(config.getBurstCapacity());
+        String replenishRate = String.valueOf(config.getReplenishRate());
+
+        return (exchange, chain) -> config.getKeyResolver().resolve(exchange)
+                .switchIfEmpty(Mono.fromSupplier(() -> RateLimitKeyResolver.clientIp(exchange)))
+                .flatMap(key -> rateLimiter.tryAcquire(limiter, key, config.getRequestedTokens()))
+                .flatMap(result -> {
+                    HttpHeaders headers = exchange.getResponse().getHeaders();
+                    if (config.isIncludeHeaders()) {
+                        headers.set(HeaderNames.RATE_LIMIT_REMAINING.getValue(), String.valueOf(Math.max(result, 0)));
+                        headers.set(HeaderNames.RATE_LIMIT_BURST_CAPACITY.getValue(), burstCapacity);
+                        headers.set(HeaderNames.RATE_LIMIT_REPLENISH_RATE.getValue(), replenishRate);
+                    }
+                    if (result >= 0) {
+                        allowed.increment();
+                        return chain.filter(exchange);
+                    }
+                    rejected.increment();
+                    exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-result + TimeUnit.SECONDS.toNanos(1) - 1))));
+                    return exchange.getResponse().setComplete();
+                });
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private long replenishRate = 10;
+        private long burstCapacity = 20;
+        private int requestedTokens = 1;
+        private RateLimitKeyResolver keyResolver = RateLimitKeyResolver.PRINCIPAL;
+        private boolean includeHeaders = true;
+    }
+}
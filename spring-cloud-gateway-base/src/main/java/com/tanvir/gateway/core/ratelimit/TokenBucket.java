@@ -0,0 +1,44 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket held in a single {@link AtomicLong}: the "theoretical arrival time" of the next
+ * request (GCRA). Refill is pure arithmetic on {@code nowNanos}, so there is no scheduler or
+ * timer per bucket and acquiring a permit is one CAS in the uncontended case.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(long emissionIntervalNanos, long burstCapacity, long nowNanos) {
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.capacityNanos = emissionIntervalNanos * burstCapacity;
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos - capacityNanos);
+    }
+
+    /**
+     * @return the tokens left after taking {@code permits} (zero or more), or, when the request is
+     * rejected, the negated number of nanoseconds until enough tokens are available
+     */
+    public long tryAcquire(long nowNanos, int permits) {
+        long increment = emissionIntervalNanos * permits;
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long next = Math.max(current, nowNanos - capacityNanos) + increment;
+            long waitNanos = next - nowNanos;
+            if (waitNanos > 0) {
+                return -waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, next)) {
+                return -waitNanos / emissionIntervalNanos;
+            }
+        }
+    }
+
+    public boolean isIdle(long nowNanos, long idleTimeoutNanos) {
+        return theoreticalArrivalNanos.get() + idleTimeoutNanos <= nowNanos - capacityNanos;
+    }
+}
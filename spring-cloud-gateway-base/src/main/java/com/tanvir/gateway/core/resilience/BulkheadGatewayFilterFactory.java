@@ -0,0 +1,55 @@
+package com.tanvir.gateway.core.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Caps the concurrent upstream calls of a route with a Resilience4j semaphore bulkhead configured
+ * under {@code resilience4j.bulkhead.instances.<name>}. Permits are taken without blocking; a full
+ * bulkhead fails the call with {@code BulkheadFullException}, which an enclosing {@code CircuitBreaker}
+ * filter turns into its fallback.
+ *
+ * <pre>
+ * filters:
+ *   - name: Bulkhead
+ *     args:
+ *       name: programTaskService
+ * </pre>
+ */
+@Component
+public class BulkheadGatewayFilterFactory extends AbstractGatewayFilterFactory<BulkheadGatewayFilterFactory.Config> {
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public BulkheadGatewayFilterFactory(BulkheadRegistry bulkheadRegistry) {
+        super(Config.class);
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("name");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(config.getName() != null ? config.getName() : config.getRouteId());
+        return (exchange, chain) -> chain.filter(exchange).transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private String name;
+    }
+}
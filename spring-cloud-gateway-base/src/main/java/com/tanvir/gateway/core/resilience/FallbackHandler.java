@@ -0,0 +1,72 @@
+package com.tanvir.gateway.core.resilience;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serves the degraded responses that circuit breakers forward to. Configured bodies are encoded once
+ * and every fallback writes the same bytes, so an open breaker costs no serialization; services
+ * without an entry get a {@code 503} built per request, since the service name comes from the path.
+ * Fallbacks are sent with {@code Cache-Control: no-store} and flagged with
+ * {@link ExchangeAttributes#FALLBACK_RESPONSE}, so the response cache never keeps them.
+ */
+@Component
+public class FallbackHandler {
+
+    private final Map<String, EncodedResponse> responses;
+    private final ObjectMapper objectMapper;
+
+    public FallbackHandler(FallbackProperties fallbackProperties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        Map<String, EncodedResponse> encoded = new HashMap<>();
+        fallbackProperties.getResponses().forEach((service, response) -> encoded.put(service, new EncodedResponse(
+                HttpStatus.valueOf(response.getStatus()),
+                MediaType.parseMediaType(response.getContentType()),
+                response.getBody() != null ? response.getBody().getBytes(StandardCharsets.UTF_8) : encodeDefault(service))));
+        this.responses = Map.copyOf(encoded);
+    }
+
+    public Mono<ServerResponse> handle(ServerRequest request) {
+        String service = request.pathVariable("service");
+        EncodedResponse response = responses.get(service);
+        if (response == null) {
+            response = new EncodedResponse(HttpStatus.SERVICE_UNAVAILABLE, MediaType.APPLICATION_JSON, encodeDefault(service));
+        }
+        request.exchange().getAttributes().put(ExchangeAttributes.FALLBACK_RESPONSE.getValue(), Boolean.TRUE);
+        byte[] body = response.body();
+        return ServerResponse.status(response.status())
+                .contentType(response.contentType())
+                .cacheControl(CacheControl.noStore())
+                .contentLength(body.length)
+                .body((outputMessage, context) -> outputMessage.writeWith(
+                        Mono.fromSupplier(() -> outputMessage.bufferFactory().wrap(body))));
+    }
+
+    private byte[] encodeDefault(String service) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+        body.put("message", service + " is temporarily unavailable");
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode fallback response of " + service, e);
+        }
+    }
+
+    private record EncodedResponse(HttpStatus status, MediaType contentType, byte[] body) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.tanvir.gateway.core.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.fallback")
+public class FallbackProperties {
+    private Map<String, Response> responses = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Response {
+        private int status = 503;
+        private String contentType = MediaType.APPLICATION_JSON_VALUE;
+        private String body;
+    }
+}
@@ -0,0 +1,17 @@
+package com.tanvir.gateway.core.resilience;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+@Configuration
+public class FallbackRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> fallbackRoutes(FallbackHandler fallbackHandler) {
+        return RouterFunctions.route(RequestPredicates.path("/fallback/{service}"), fallbackHandler::handle);
+    }
+}
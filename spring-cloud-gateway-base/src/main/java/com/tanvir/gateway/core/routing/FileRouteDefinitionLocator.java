@@ -0,0 +1,230 @@
+package com.tanvir.gateway.core.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Routes loaded from the JSON file {@code gateway.route-table.file}, on top of the routes in
+ * {@code application.yml}. The file is re-read when it changes on disk or when
+ * {@code POST /actuator/routetable} is called; a file that does not parse or validate leaves the
+ * current routes in place. Validation covers ids, URIs and the names of predicates and filters, so an
+ * unknown factory is refused before the file is swapped in. Every successful reload publishes
+ * {@link RefreshRoutesEvent}, which makes the gateway rebuild its route cache and the route index; if
+ * that refresh still fails, the previous file routes are restored and refreshed again.
+ */
+@Component
+@Slf4j
+public class FileRouteDefinitionLocator implements RouteDefinitionLocator {
+
+    private final RouteTableProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    @SuppressWarnings("rawtypes")
+    private final ObjectProvider<List<RoutePredicateFactory>> predicateFactories;
+    @SuppressWarnings("rawtypes")
+    private final ObjectProvider<List<GatewayFilterFactory>> filterFactories;
+    private final AtomicReference<RouteTableSnapshot> snapshot = new AtomicReference<>(RouteTableSnapshot.EMPTY);
+    private volatile RouteTableSnapshot rollback;
+    private WatchService watchService;
+
+    @SuppressWarnings("rawtypes")
+    public FileRouteDefinitionLocator(RouteTableProperties properties, ObjectMapper objectMapper,
+                                      ApplicationEventPublisher eventPublisher,
+                                      ObjectProvider<List<RoutePredicateFactory>> predicateFactories,
+                                      ObjectProvider<List<GatewayFilterFactory>> filterFactories) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.predicateFactories = predicateFactories;
+        this.filterFactories = filterFactories;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!StringUtils.hasText(properties.getFile())) {
+            return;
+        }
+        Path file = file();
+        if (Files.exists(file)) {
+            snapshot.set(read(file));
+        } else {
+            log.warn("Route table file {} does not exist yet, starting without file routes", file);
+        }
+        if (properties.isWatch() && !Files.isDirectory(file.getParent())) {
+            log.warn("Route table directory {} does not exist, not watching {}", file.getParent(), file);
+        } else if (properties.isWatch()) {
+            watchService = file.getFileSystem().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            Thread watcher = new Thread(() -> watch(file), "route-table-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    @Override
+    public Flux<RouteDefinition> getRouteDefinitions() {
+        return Flux.fromIterable(snapshot.get().getRoutes());
+    }
+
+    public RouteTableSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Re-reads the route file and swaps it in.
+     *
+     * @throws IllegalStateException if no file is configured
+     * @throws IllegalArgumentException if the file does not hold valid routes
+     */
+    public synchronized RouteTableSnapshot reload() {
+        if (!StringUtils.hasText(properties.getFile())) {
+            throw new IllegalStateException("gateway.route-table.file is not set");
+        }
+        RouteTableSnapshot loaded = read(file());
+        rollback = snapshot.getAndSet(loaded);
+        log.info("Loaded {} routes from {}", loaded.getRoutes().size(), loaded.getSource());
+        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+        return loaded;
+    }
+
+    /**
+     * Restores the previous file routes when the refresh after a reload fails, so one bad file cannot
+     * keep every later refresh, including that of the {@code application.yml} routes, failing.
+     */
+    @EventListener
+    public synchronized void onRefreshResult(RefreshRoutesResultEvent event) {
+        RouteTableSnapshot previous = rollback;
+        rollback = null;
+        if (previous == null || event.isSuccess()) {
+            return;
+        }
+        log.error("Routes from {} failed to load, restoring routes from {}: {}", snapshot.get().getSource(),
+                previous.getSource(), event.getThrowable() != null ? event.getThrowable().getMessage() : "unknown error");
+        snapshot.set(previous);
+        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+    }
+
+    private RouteTableSnapshot read(Path file) {
+        RouteDefinition[] routes;
+        try {
+            routes = objectMapper.readValue(file.toFile(), RouteDefinition[].class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read routes from " + file + " : " + e.getMessage(), e);
+        }
+        validate(routes, predicateNames(), filterNames());
+        return new RouteTableSnapshot(Arrays.asList(routes), file.toString(), Instant.now());
+    }
+
+    private Set<String> predicateNames() {
+        return predicateFactories.getIfAvailable(List::of).stream().map(RoutePredicateFactory::name).collect(Collectors.toSet());
+    }
+
+    private Set<String> filterNames() {
+        return filterFactories.getIfAvailable(List::of).stream().map(GatewayFilterFactory::name).collect(Collectors.toSet());
+    }
+
+    private static void validate(RouteDefinition[] routes, Set<String> predicateNames, Set<String> filterNames) {
+        Set<String> ids = new HashSet<>();
+        for (RouteDefinition route : routes) {
+            if (!StringUtils.hasText(route.getId())) {
+                throw new IllegalArgumentException("Route without id");
+            }
+            if (!ids.add(route.getId())) {
+                throw new IllegalArgumentException("Duplicate route id " + route.getId());
+            }
+            if (route.getUri() == null) {
+                throw new IllegalArgumentException("Route " + route.getId() + " has no uri");
+            }
+            for (PredicateDefinition predicate : route.getPredicates()) {
+                if (!predicateNames.contains(predicate.getName())) {
+                    throw new IllegalArgumentException("Route " + route.getId() + " has unknown predicate " + predicate.getName());
+                }
+            }
+            for (FilterDefinition filter : route.getFilters()) {
+                if (!filterNames.contains(filter.getName())) {
+                    throw new IllegalArgumentException("Route " + route.getId() + " has unknown filter " + filter.getName());
+                }
+            }
+        }
+    }
+
+    private void watch(Path file) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                if (!changed(key, file)) {
+                    continue;
+                }
+                // editors write a file in several steps, wait for them to settle
+                TimeUnit.MILLISECONDS.sleep(properties.getDebounceMs());
+                for (WatchKey pending = watchService.poll(); pending != null; pending = watchService.poll()) {
+                    changed(pending, file);
+                }
+                if (!Files.exists(file)) {
+                    continue;
+                }
+                try {
+                    reload();
+                } catch (IllegalArgumentException e) {
+                    log.error("Keeping current routes, {}", e.getMessage());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("Route table watcher stopped");
+        }
+    }
+
+    private static boolean changed(WatchKey key, Path file) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            changed |= file.getFileName().equals(event.context());
+        }
+        key.reset();
+        return changed;
+    }
+
+    private Path file() {
+        return Paths.get(properties.getFile()).toAbsolutePath();
+    }
+}
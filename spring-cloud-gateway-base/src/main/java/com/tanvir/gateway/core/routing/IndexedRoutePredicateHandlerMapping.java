@@ -0,0 +1,82 @@
+package com.tanvir.gateway.core.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_PATH_CONTAINER_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * {@link RoutePredicateHandlerMapping} that only evaluates the predicates of routes whose path prefix
+ * can match the request, looked up in a {@link RoutePathIndex}. The index is rebuilt and swapped in
+ * whenever the route cache is refreshed; until the first refresh every route is scanned as usual.
+ */
+@Slf4j
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    private final RouteLocator routeLocator;
+    private volatile RoutePathIndex index;
+
+    public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+                                               GlobalCorsProperties globalCorsProperties, Environment environment) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.routeLocator = routeLocator;
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (!event.isSuccess()) {
+            return;
+        }
+        routeLocator.getRoutes().collectList().subscribe(routes -> {
+            RoutePathIndex compiled = RoutePathIndex.compile(routes);
+            index = compiled;
+            log.info("Indexed {} routes, {} without a path prefix", compiled.size(), compiled.unindexedSize());
+        }, e -> log.error("Keeping previous route index : {}", e.getMessage()));
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        RoutePathIndex current = index;
+        if (current == null) {
+            return super.lookupRoute(exchange);
+        }
+        PathContainer path = (PathContainer) exchange.getAttributes().computeIfAbsent(GATEWAY_PREDICATE_PATH_CONTAINER_ATTR,
+                key -> PathContainer.parsePath(exchange.getRequest().getURI().getRawPath()));
+        return Flux.fromIterable(current.candidates(path))
+                .concatMap(route -> Mono.just(route)
+                        .filterWhen(r -> {
+                            exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+                            return r.getPredicate().apply(exchange);
+                        })
+                        .doOnError(e -> log.error("Error applying predicate for route: {}", route.getId(), e))
+                        .onErrorResume(e -> Mono.empty()))
+                .next()
+                .map(route -> {
+                    validateRoute(route, exchange);
+                    return route;
+                });
+    }
+
+    int indexedRoutes() {
+        RoutePathIndex current = index;
+        return current != null ? current.size() - current.unindexedSize() : 0;
+    }
+
+    int unindexedRoutes() {
+        RoutePathIndex current = index;
+        return current != null ? current.unindexedSize() : 0;
+    }
+}
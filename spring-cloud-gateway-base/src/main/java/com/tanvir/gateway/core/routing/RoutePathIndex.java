@@ -0,0 +1,147 @@
+package com.tanvir.gateway.core.routing;
+
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.predicate.GatewayPredicate;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasConfig;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix trie over the literal leading segments of each route's {@code Path} patterns. For a request
+ * path it returns, in route order, only the routes whose pattern prefix matches plus the routes without
+ * a {@code Path} predicate. The caller still evaluates the full predicates of those candidates, so the
+ * index narrows the scan without changing which route wins.
+ */
+final class RoutePathIndex {
+
+    private final Route[] routes;
+    private final BitSet unindexed = new BitSet();
+    private final Node root = new Node();
+
+    private RoutePathIndex(List<Route> routes) {
+        this.routes = routes.toArray(new Route[0]);
+    }
+
+    static RoutePathIndex compile(List<Route> routes) {
+        RoutePathIndex index = new RoutePathIndex(routes);
+        for (int position = 0; position < index.routes.length; position++) {
+            List<String> patterns = pathPatterns(index.routes[position]);
+            if (patterns == null) {
+                index.unindexed.set(position);
+                continue;
+            }
+            for (String pattern : patterns) {
+                Node node = index.root;
+                for (String segment : pattern.split("/")) {
+                    if (segment.isEmpty()) {
+                        continue;
+                    }
+                    if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0) {
+                        break;
+                    }
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+                node.routes.set(position);
+            }
+        }
+        return index;
+    }
+
+    List<Route> candidates(PathContainer path) {
+        BitSet matches = (BitSet) unindexed.clone();
+        Node node = root;
+        matches.or(node.routes);
+        for (PathContainer.Element element : path.elements()) {
+            if (!(element instanceof PathContainer.PathSegment segment) || segment.valueToMatch().isEmpty()) {
+                continue;
+            }
+            node = node.children.get(segment.valueToMatch());
+            if (node == null) {
+                break;
+            }
+            matches.or(node.routes);
+        }
+        List<Route> candidates = new ArrayList<>(matches.cardinality());
+        for (int position = matches.nextSetBit(0); position >= 0; position = matches.nextSetBit(position + 1)) {
+            candidates.add(routes[position]);
+        }
+        return candidates;
+    }
+
+    int size() {
+        return routes.length;
+    }
+
+    int unindexedSize() {
+        return unindexed.cardinality();
+    }
+
+    /**
+     * The patterns of the route's {@code Path} predicates, or {@code null} when it has none or its
+     * predicate is anything but an AND of leaf predicates. Under an {@code or()} or {@code negate()} a
+     * {@code Path} predicate no longer bounds the paths the route can match, so such routes stay
+     * unindexed and are always evaluated.
+     */
+    private static List<String> pathPatterns(Route route) {
+        List<String> patterns = new ArrayList<>();
+        try {
+            if (!collect(route.getPredicate(), patterns)) {
+                return null;
+            }
+        } catch (UnsupportedOperationException e) {
+            return null;
+        }
+        return patterns.isEmpty() ? null : patterns;
+    }
+
+    /**
+     * Walks an AND tree down to its leaves. The combinators keep their operands in private fields, so
+     * a field that cannot be read is treated like an unknown predicate: the route is left unindexed.
+     */
+    private static boolean collect(Object predicate, List<String> patterns) {
+        if (predicate instanceof AsyncPredicate.AndAsyncPredicate<?>
+                || predicate instanceof GatewayPredicate.AndGatewayPredicate) {
+            Object left = operand(predicate, "left");
+            Object right = operand(predicate, "right");
+            return left != null && right != null && collect(left, patterns) && collect(right, patterns);
+        }
+        if (predicate instanceof AsyncPredicate.DefaultAsyncPredicate<?>) {
+            Object delegate = operand(predicate, "delegate");
+            return delegate != null && collect(delegate, patterns);
+        }
+        if (predicate instanceof AsyncPredicate.OrAsyncPredicate<?>
+                || predicate instanceof AsyncPredicate.NegateAsyncPredicate<?>
+                || predicate instanceof GatewayPredicate.OrGatewayPredicate
+                || predicate instanceof GatewayPredicate.NegateGatewayPredicate
+                || !(predicate instanceof HasConfig leaf)) {
+            return false;
+        }
+        if (leaf.getConfig() instanceof PathRoutePredicateFactory.Config config) {
+            patterns.addAll(config.getPatterns());
+        }
+        return true;
+    }
+
+    private static Object operand(Object predicate, String name) {
+        Field field = ReflectionUtils.findField(predicate.getClass(), name);
+        if (field == null) {
+            return null;
+        }
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, predicate);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final BitSet routes = new BitSet();
+    }
+}
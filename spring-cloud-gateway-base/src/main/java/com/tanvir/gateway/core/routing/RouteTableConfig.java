@@ -0,0 +1,23 @@
+package com.tanvir.gateway.core.routing;
+
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class RouteTableConfig {
+
+    /**
+     * Replaces the gateway's own {@code RoutePredicateHandlerMapping}, which backs off when one exists.
+     */
+    @Bean
+    public IndexedRoutePredicateHandlerMapping indexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                                                                   RouteLocator routeLocator,
+                                                                                   GlobalCorsProperties globalCorsProperties,
+                                                                                   Environment environment) {
+        return new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, globalCorsProperties, environment);
+    }
+}
@@ -0,0 +1,46 @@
+package com.tanvir.gateway.core.routing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "routetable")
+@RequiredArgsConstructor
+public class RouteTableEndpoint {
+
+    private final FileRouteDefinitionLocator fileRouteDefinitionLocator;
+    private final IndexedRoutePredicateHandlerMapping handlerMapping;
+
+    @ReadOperation
+    public Map<String, Object> routeTable() {
+        return describe(fileRouteDefinitionLocator.getSnapshot());
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        try {
+            return describe(fileRouteDefinitionLocator.reload());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> result = describe(fileRouteDefinitionLocator.getSnapshot());
+            result.put("error", e.getMessage());
+            return result;
+        }
+    }
+
+    private Map<String, Object> describe(RouteTableSnapshot snapshot) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("source", snapshot.getSource());
+        description.put("loadedAt", snapshot.getLoadedAt());
+        description.put("fileRoutes", snapshot.getRoutes().stream().map(RouteDefinition::getId).toList());
+        description.put("indexedRoutes", handlerMapping.indexedRoutes());
+        description.put("unindexedRoutes", handlerMapping.unindexedRoutes());
+        return description;
+    }
+}
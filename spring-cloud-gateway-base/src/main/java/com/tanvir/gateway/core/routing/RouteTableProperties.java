@@ -0,0 +1,17 @@
+package com.tanvir.gateway.core.routing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.route-table")
+public class RouteTableProperties {
+    /**
+     * JSON file holding an array of route definitions. No file routes are loaded when empty.
+     */
+    private String file;
+    private boolean watch = true;
+    private long debounceMs = 250;
+}
@@ -0,0 +1,27 @@
+package com.tanvir.gateway.core.routing;
+
+import lombok.Getter;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable set of file routes. A reload builds a new snapshot and swaps it in, so readers never see
+ * a half-loaded table.
+ */
+@Getter
+public class RouteTableSnapshot {
+
+    static final RouteTableSnapshot EMPTY = new RouteTableSnapshot(List.of(), null, null);
+
+    private final List<RouteDefinition> routes;
+    private final String source;
+    private final Instant loadedAt;
+
+    RouteTableSnapshot(List<RouteDefinition> routes, String source, Instant loadedAt) {
+        this.routes = List.copyOf(routes);
+        this.source = source;
+        this.loadedAt = loadedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.tanvir.gateway.core.security;
+
+public enum AuthorizationAccess {
+    PERMIT_ALL,
+    AUTHENTICATED,
+    DENY_ALL,
+}
@@ -0,0 +1,24 @@
+package com.tanvir.gateway.core.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.security.authorization")
+public class AuthorizationProperties {
+    private AuthorizationAccess defaultAccess = AuthorizationAccess.AUTHENTICATED;
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String path;
+        private AuthorizationAccess access = AuthorizationAccess.AUTHENTICATED;
+        private List<String> roles = new ArrayList<>();
+    }
+}
@@ -0,0 +1,39 @@
+package com.tanvir.gateway.core.security;
+
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers repeated bearer tokens from the {@link JwtValidationCache} and only hands unseen tokens to
+ * the delegate, which verifies the signature and converts the authorities.
+ */
+public class CachingJwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveAuthenticationManager delegate;
+    private final JwtValidationCache jwtValidationCache;
+
+    public CachingJwtAuthenticationManager(ReactiveAuthenticationManager delegate, JwtValidationCache jwtValidationCache) {
+        this.delegate = delegate;
+        this.jwtValidationCache = jwtValidationCache;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+        JwtAuthenticationToken cached = jwtValidationCache.get(bearer.getToken());
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return delegate.authenticate(authentication)
+                .doOnNext(authenticated -> {
+                    if (authenticated instanceof JwtAuthenticationToken jwtAuthentication) {
+                        jwtValidationCache.put(bearer.getToken(), jwtAuthentication);
+                    }
+                });
+    }
+}
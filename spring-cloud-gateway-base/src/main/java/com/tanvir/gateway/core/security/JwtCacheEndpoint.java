@@ -0,0 +1,33 @@
+package com.tanvir.gateway.core.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "jwtcache")
+@RequiredArgsConstructor
+public class JwtCacheEndpoint {
+
+    private final JwtValidationCache jwtValidationCache;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return Map.of("size", jwtValidationCache.size(), "hitRate", jwtValidationCache.hitRate());
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        jwtValidationCache.invalidateAll();
+    }
+
+    @DeleteOperation
+    public Map<String, Integer> invalidateSubject(@Selector String subject) {
+        return Map.of("invalidated", jwtValidationCache.invalidateSubject(subject));
+    }
+}
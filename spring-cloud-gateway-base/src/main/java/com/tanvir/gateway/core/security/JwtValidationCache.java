@@ -0,0 +1,108 @@
+package com.tanvir.gateway.core.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Validated bearer tokens keyed by the SHA-256 of the token, so the raw token is never kept. An entry
+ * holds the decoded {@code Jwt} together with its converted authorities and expires at the token's
+ * {@code exp} claim, or after {@code max-ttl-seconds} if that comes first.
+ */
+@Component
+public class JwtValidationCache {
+
+    public static final String METRIC_NAME = "gateway.jwt-cache";
+
+    private final Cache<String, JwtAuthenticationToken> authentications;
+    private final long maxTtlNanos;
+
+    public JwtValidationCache(MeterRegistry meterRegistry,
+                              @Value("${gateway.security.jwt-cache.max-size:10000}") long maxSize,
+                              @Value("${gateway.security.jwt-cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this.maxTtlNanos = Duration.ofSeconds(maxTtlSeconds).toNanos();
+        this.authentications = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, authentications, METRIC_NAME);
+    }
+
+    public JwtAuthenticationToken get(String token) {
+        return authentications.getIfPresent(hash(token));
+    }
+
+    public void put(String token, JwtAuthenticationToken authentication) {
+        Instant expiresAt = authentication.getToken().getExpiresAt();
+        if (expiresAt == null || expiresAt.isAfter(Instant.now())) {
+            authentications.put(hash(token), authentication);
+        }
+    }
+
+    public void invalidate(String token) {
+        authentications.invalidate(hash(token));
+    }
+
+    public int invalidateSubject(String subject) {
+        int before = authentications.asMap().size();
+        authentications.asMap().values().removeIf(authentication -> subject.equals(authentication.getToken().getSubject()));
+        return before - authentications.asMap().size();
+    }
+
+    public void invalidateAll() {
+        authentications.invalidateAll();
+    }
+
+    public long size() {
+        return authentications.estimatedSize();
+    }
+
+    public double hitRate() {
+        return authentications.stats().hitRate();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private final class TokenExpiry implements Expiry<String, JwtAuthenticationToken> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtAuthenticationToken authentication, long currentTime) {
+            Instant expiresAt = authentication.getToken().getExpiresAt();
+            if (expiresAt == null) {
+                return maxTtlNanos;
+            }
+            long untilExpiry = Duration.between(Instant.now(), expiresAt).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtAuthenticationToken authentication, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, authentication, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtAuthenticationToken authentication, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tanvir.gateway.core.security;
+
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Authorization rules compiled into a trie of path segments. A lookup walks the request path once,
+ * so its cost depends on the path depth and not on the number of rules.
+ * <p>
+ * Segments are literals, {@code *} (exactly one segment) or a trailing {@code **} (zero or more
+ * segments). The most specific rule wins: a literal beats {@code *}, which beats {@code **}, and a
+ * deeper {@code **} beats a shallower one. When two rules have the same pattern the first one wins.
+ * Paths no rule matches get the default access.
+ */
+public final class PathAuthorizationTrie {
+
+    private final Node root;
+    private final RequiredAccess defaultAccess;
+
+    private PathAuthorizationTrie(Node root, RequiredAccess defaultAccess) {
+        this.root = root;
+        this.defaultAccess = defaultAccess;
+    }
+
+    public static PathAuthorizationTrie compile(List<AuthorizationProperties.Rule> rules, AuthorizationAccess defaultAccess) {
+        Node root = new Node();
+        for (AuthorizationProperties.Rule rule : rules) {
+            Node node = root;
+            boolean remainder = false;
+            String[] segments = rule.getPath().split("/");
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.equals("**")) {
+                    if (i != segments.length - 1) {
+                        throw new IllegalArgumentException("'**' is only supported as the last segment: " + rule.getPath());
+                    }
+                    remainder = true;
+                    break;
+                }
+                node = segment.equals("*")
+                        ? (node.wildcard != null ? node.wildcard : (node.wildcard = new Node()))
+                        : node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+            RequiredAccess access = RequiredAccess.of(rule);
+            if (remainder) {
+                if (node.remainder == null) {
+                    node.remainder = access;
+                }
+            } else if (node.exact == null) {
+                node.exact = access;
+            }
+        }
+        return new PathAuthorizationTrie(root, new RequiredAccess(defaultAccess, Set.of()));
+    }
+
+    public RequiredAccess match(String path) {
+        return match(PathContainer.parsePath(path));
+    }
+
+    /**
+     * Matches the decoded segments of {@code path} without their {@code ;} parameters, the same values
+     * route predicates and actuator mappings match, so an encoded or parameterized segment cannot
+     * slip past the rule that guards it. Empty segments are skipped.
+     */
+    public RequiredAccess match(PathContainer path) {
+        List<String> segments = new ArrayList<>();
+        for (PathContainer.Element element : path.elements()) {
+            if (element instanceof PathContainer.PathSegment segment && !segment.valueToMatch().isEmpty()) {
+                segments.add(segment.valueToMatch());
+            }
+        }
+        RequiredAccess access = match(root, segments, 0);
+        return access != null ? access : defaultAccess;
+    }
+
+    private static RequiredAccess match(Node node, List<String> segments, int index) {
+        if (index == segments.size()) {
+            return node.exact != null ? node.exact : node.remainder;
+        }
+        Node literal = node.literals.isEmpty() ? null : node.literals.get(segments.get(index));
+        if (literal != null) {
+            RequiredAccess access = match(literal, segments, index + 1);
+            if (access != null) {
+                return access;
+            }
+        }
+        if (node.wildcard != null) {
+            RequiredAccess access = match(node.wildcard, segments, index + 1);
+            if (access != null) {
+                return access;
+            }
+        }
+        return node.remainder;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        private RequiredAccess exact;
+        private RequiredAccess remainder;
+    }
+}
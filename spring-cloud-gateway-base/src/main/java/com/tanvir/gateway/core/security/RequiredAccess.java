@@ -0,0 +1,30 @@
+package com.tanvir.gateway.core.security;
+
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * What a path needs: an access level and, when not empty, at least one of the given authorities.
+ */
+@Getter
+public class RequiredAccess {
+    private final AuthorizationAccess access;
+    private final Set<String> authorities;
+
+    public RequiredAccess(AuthorizationAccess access, Set<String> authorities) {
+        this.access = access;
+        this.authorities = authorities;
+    }
+
+    static RequiredAccess of(AuthorizationProperties.Rule rule) {
+        return new RequiredAccess(rule.getAccess(), rule.getRoles().stream()
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    public boolean isPermitAll() {
+        return access == AuthorizationAccess.PERMIT_ALL;
+    }
+}
@@ -0,0 +1,63 @@
+package com.tanvir.gateway.core.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authorizes exchanges against the {@code gateway.security.authorization} rules, compiled into a
+ * {@link PathAuthorizationTrie} at startup and again on every route refresh.
+ */
+@Component
+@Slf4j
+public class TrieReactiveAuthorizationManager implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+    private static final Mono<AuthorizationDecision> GRANTED = Mono.just(new AuthorizationDecision(true));
+    private static final Mono<AuthorizationDecision> DENIED = Mono.just(new AuthorizationDecision(false));
+
+    private final AuthorizationProperties authorizationProperties;
+    private volatile PathAuthorizationTrie trie;
+
+    public TrieReactiveAuthorizationManager(AuthorizationProperties authorizationProperties) {
+        this.authorizationProperties = authorizationProperties;
+        this.trie = compile(authorizationProperties);
+    }
+
+    @EventListener(RefreshRoutesEvent.class)
+    public void recompile() {
+        trie = compile(authorizationProperties);
+        log.info("Compiled {} authorization rules", authorizationProperties.getRules().size());
+    }
+
+    public boolean isPermitAll(PathContainer path) {
+        return trie.match(path).isPermitAll();
+    }
+
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+        RequiredAccess required = trie.match(context.getExchange().getRequest().getPath().pathWithinApplication());
+        return switch (required.getAccess()) {
+            case PERMIT_ALL -> GRANTED;
+            case DENY_ALL -> DENIED;
+            case AUTHENTICATED -> authentication
+                    .filter(Authentication::isAuthenticated)
+                    .map(authenticated -> new AuthorizationDecision(required.getAuthorities().isEmpty()
+                            || authenticated.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .anyMatch(required.getAuthorities()::contains)))
+                    .defaultIfEmpty(new AuthorizationDecision(false));
+        };
+    }
+
+    private static PathAuthorizationTrie compile(AuthorizationProperties authorizationProperties) {
+        return PathAuthorizationTrie.compile(authorizationProperties.getRules(), authorizationProperties.getDefaultAccess());
+    }
+}
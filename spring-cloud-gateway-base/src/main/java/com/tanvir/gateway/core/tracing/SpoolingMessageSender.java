@@ -0,0 +1,180 @@
+package com.tanvir.gateway.core.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import zipkin2.reporter.BytesMessageSender;
+import zipkin2.reporter.ClosedSenderException;
+import zipkin2.reporter.Encoding;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts span batches to the Zipkin collector and, when the collector fails, appends them to a
+ * {@link SpoolFile} instead of losing them. While the spool holds anything, new batches queue behind
+ * it, and after a failure the collector is not tried again for {@code retryIntervalMs}, so the
+ * reporter thread does not sit in connect timeouts while spans pile up in memory. A daemon thread
+ * replays the spool oldest first every {@code retryIntervalMs}.
+ * <p>
+ * Only the reporter thread of {@code AsyncZipkinSpanHandler} calls {@link #send}; request threads
+ * never wait on the collector or the disk.
+ */
+@Slf4j
+public class SpoolingMessageSender implements BytesMessageSender {
+
+    public static final String METRIC_PREFIX = "zipkin.spool";
+    private static final int MESSAGE_MAX_BYTES = 512 * 1024;
+
+    private final URI endpoint;
+    private final Encoding encoding;
+    private final Duration readTimeout;
+    private final long retryIntervalNanos;
+    private final HttpClient httpClient;
+    private final SpoolFile spool;
+    private final ScheduledExecutorService replayExecutor;
+    private final Counter spooled;
+    private final Counter replayed;
+    private final Counter dropped;
+    private volatile long retryAtNanos;
+    private volatile boolean closed;
+
+    public SpoolingMessageSender(URI endpoint, Encoding encoding, Duration connectTimeout, Duration readTimeout,
+                                 ZipkinReporterProperties.Spool properties, Path spoolFile, MeterRegistry meterRegistry) throws IOException {
+        this.endpoint = endpoint;
+        this.encoding = encoding;
+        this.readTimeout = readTimeout;
+        this.retryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getRetryIntervalMs());
+        this.httpClient = HttpClient.newBuilder().connectTimeout(connectTimeout).build();
+        this.retryAtNanos = System.nanoTime();
+        this.spool = properties.isEnabled() ? new SpoolFile(spoolFile, properties.getSizeBytes()) : null;
+        this.spooled = meterRegistry.counter(METRIC_PREFIX + ".messages", "outcome", "spooled");
+        this.replayed = meterRegistry.counter(METRIC_PREFIX + ".messages", "outcome", "replayed");
+        this.dropped = meterRegistry.counter(METRIC_PREFIX + ".messages", "outcome", "dropped");
+        if (spool == null) {
+            this.replayExecutor = null;
+            return;
+        }
+        Gauge.builder(METRIC_PREFIX + ".bytes", spool, SpoolFile::sizeInBytes).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".depth", spool, SpoolFile::messageCount).register(meterRegistry);
+        this.replayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "zipkin-spool-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        replayExecutor.scheduleWithFixedDelay(this::replay, properties.getRetryIntervalMs(), properties.getRetryIntervalMs(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Encoding encoding() {
+        return encoding;
+    }
+
+    @Override
+    public int messageMaxBytes() {
+        return MESSAGE_MAX_BYTES;
+    }
+
+    @Override
+    public int messageSizeInBytes(List<byte[]> encodedSpans) {
+        return encoding.listSizeInBytes(encodedSpans);
+    }
+
+    @Override
+    public int messageSizeInBytes(int encodedSizeInBytes) {
+        return encoding.listSizeInBytes(encodedSizeInBytes);
+    }
+
+    @Override
+    public void send(List<byte[]> encodedSpans) throws IOException {
+        if (closed) {
+            throw new ClosedSenderException();
+        }
+        byte[] message = encoding.encode(encodedSpans);
+        if (spool == null) {
+            post(message);
+            return;
+        }
+        if (spool.messageCount() == 0 && System.nanoTime() - retryAtNanos >= 0) {
+            try {
+                post(message);
+                return;
+            } catch (IOException e) {
+                collectorFailed(e);
+            }
+        }
+        if (spool.append(message)) {
+            spooled.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Sends spooled batches oldest first until the spool is empty or the collector fails.
+     */
+    void replay() {
+        try {
+            for (byte[] message = spool.peek(); message != null && !closed; message = spool.peek()) {
+                post(message);
+                spool.removeFirst();
+                replayed.increment();
+            }
+        } catch (IOException e) {
+            collectorFailed(e);
+        } catch (RuntimeException e) {
+            log.warn("Replaying the zipkin spool failed", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (replayExecutor != null) {
+            replayExecutor.shutdownNow();
+            spool.close();
+        }
+    }
+
+    private void post(byte[] message) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(readTimeout)
+                .header("Content-Type", encoding == Encoding.PROTO3 ? "application/x-protobuf" : "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(message))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while posting spans", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Zipkin collector responded " + response.statusCode());
+        }
+    }
+
+    private void collectorFailed(IOException e) {
+        retryAtNanos = System.nanoTime() + retryIntervalNanos;
+        log.debug("Zipkin collector unavailable, spooling spans for {} ms", TimeUnit.NANOSECONDS.toMillis(retryIntervalNanos), e);
+    }
+
+    @Override
+    public String toString() {
+        return "SpoolingMessageSender{" + endpoint + "}";
+    }
+}
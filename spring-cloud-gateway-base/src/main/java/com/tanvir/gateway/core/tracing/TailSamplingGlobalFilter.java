@@ -0,0 +1,52 @@
+package com.tanvir.gateway.core.tracing;
+
+import com.tanvir.gateway.core.filters.GatewayFilterOrder;
+import com.tanvir.gateway.core.filters.HeaderNames;
+import io.micrometer.common.KeyValue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Tags the server span with the route id so {@link TailSamplingSpanHandler} applies the route's
+ * latency threshold, and sends that threshold upstream in {@code Sampling-Threshold-In-Ms}, which the
+ * services behind the gateway read as a baggage field.
+ */
+@Component
+@ConditionalOnProperty(prefix = "tracing.tail-sampling", name = "enabled", matchIfMissing = true)
+public class TailSamplingGlobalFilter implements GlobalFilter, Ordered {
+
+    private final TailSamplingProperties properties;
+
+    public TailSamplingGlobalFilter(TailSamplingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        ServerRequestObservationContext.findCurrent(exchange.getAttributes())
+                .ifPresent(context -> context.addHighCardinalityKeyValue(KeyValue.of(TailSamplingSpanHandler.ROUTE_TAG, route.getId())));
+        long thresholdMs = properties.getRoutes().getOrDefault(route.getId(), properties.getLatencyThresholdMs());
+        return chain.filter(exchange.mutate()
+                .request(request -> request.headers(headers ->
+                        headers.set(HeaderNames.SAMPLING_THRESHOLD_IN_MS.getValue(), String.valueOf(thresholdMs))))
+                .build());
+    }
+
+    @Override
+    public int getOrder() {
+        return GatewayFilterOrder.TAIL_SAMPLING;
+    }
+}
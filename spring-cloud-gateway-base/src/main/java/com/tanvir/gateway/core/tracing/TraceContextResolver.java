@@ -0,0 +1,110 @@
+package com.tanvir.gateway.core.tracing;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.filters.HeaderNames;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Resolves the trace context of an exchange once and caches it under
+ * {@link ExchangeAttributes#TRACE_PARENT}, so the MDC, the access log and the response headers read
+ * the same ids without asking the tracer or re-parsing headers again.
+ * <p>
+ * The server span wins, then an incoming {@code traceparent}, then fresh {@link TraceIds}. With
+ * {@code tracing.trace-context.legacy-headers} on, an incoming {@code Trace-Id}/{@code Span-Id} pair
+ * wins over all of them and both headers are written alongside {@code traceparent}.
+ */
+@Component
+public class TraceContextResolver {
+
+    private final Tracer tracer;
+    private final boolean legacyHeaders;
+
+    public TraceContextResolver(Tracer tracer, @Value("${tracing.trace-context.legacy-headers:true}") boolean legacyHeaders) {
+        this.tracer = tracer;
+        this.legacyHeaders = legacyHeaders;
+    }
+
+    public TraceParent resolve(ServerWebExchange exchange) {
+        TraceParent cached = exchange.getAttribute(ExchangeAttributes.TRACE_PARENT.getValue());
+        if (cached != null) {
+            return cached;
+        }
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        TraceParent resolved = legacyHeaders ? fromLegacyHeaders(headers) : null;
+        if (resolved == null) {
+            resolved = ServerRequestObservationContext.findCurrent(exchange.getAttributes())
+                    .map(context -> context.get(TracingObservationHandler.TracingContext.class))
+                    .map(TracingObservationHandler.TracingContext::getSpan)
+                    .map(TraceContextResolver::fromSpan)
+                    .orElse(null);
+        }
+        if (resolved == null) {
+            resolved = current(headers.getFirst(TraceParent.HEADER));
+        }
+        exchange.getAttributes().put(ExchangeAttributes.TRACE_PARENT.getValue(), resolved);
+        return resolved;
+    }
+
+    /**
+     * The context of whatever span is in scope on this thread, for callers without an exchange.
+     */
+    public TraceParent current() {
+        return current(null);
+    }
+
+    /**
+     * Writes {@code traceparent} when the ids allow it, plus the legacy headers when enabled, unless the caller already set them.
+     */
+    public void inject(TraceParent traceParent, HttpHeaders headers) {
+        if (traceParent.isW3c() && !headers.containsKey(TraceParent.HEADER)) {
+            headers.set(TraceParent.HEADER, traceParent.format());
+        }
+        if (legacyHeaders) {
+            if (!StringUtils.hasText(headers.getFirst(HeaderNames.TRACE_ID.getValue()))) {
+                headers.set(HeaderNames.TRACE_ID.getValue(), traceParent.traceId());
+            }
+            if (!StringUtils.hasText(headers.getFirst(HeaderNames.SPAN_ID.getValue()))) {
+                headers.set(HeaderNames.SPAN_ID.getValue(), traceParent.spanId());
+            }
+        }
+    }
+
+    public boolean isLegacyHeaders() {
+        return legacyHeaders;
+    }
+
+    private TraceParent current(String traceParentHeader) {
+        Span span = tracer.currentSpan();
+        if (span != null) {
+            return fromSpan(span);
+        }
+        TraceParent parsed = TraceParent.parse(traceParentHeader);
+        return parsed != null ? parsed : TraceParent.newRoot();
+    }
+
+    private static TraceParent fromSpan(Span span) {
+        TraceContext context = span.context();
+        return new TraceParent(TraceIds.toTraceId128(context.traceId()), context.spanId(), Boolean.TRUE.equals(context.sampled()));
+    }
+
+    /**
+     * Legacy ids are taken verbatim, since older clients send UUIDs rather than hex.
+     */
+    private static TraceParent fromLegacyHeaders(HttpHeaders headers) {
+        String traceId = headers.getFirst(HeaderNames.TRACE_ID.getValue());
+        if (!StringUtils.hasText(traceId)) {
+            return null;
+        }
+        String spanId = headers.getFirst(HeaderNames.SPAN_ID.getValue());
+        return new TraceParent(traceId, StringUtils.hasText(spanId) ? spanId : TraceIds.newSpanId(), false);
+    }
+}
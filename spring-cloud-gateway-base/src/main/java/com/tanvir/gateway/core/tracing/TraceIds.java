@@ -0,0 +1,78 @@
+package com.tanvir.gateway.core.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lower-hex trace and span ids from {@link ThreadLocalRandom}: ids only need to be unique, not
+ * unpredictable, so they do not go through {@code SecureRandom} like {@code UUID.randomUUID()} does.
+ */
+public final class TraceIds {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TraceIds() {
+    }
+
+    /**
+     * @return 32 hex characters, never all zeros
+     */
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high;
+        long low;
+        do {
+            high = random.nextLong();
+            low = random.nextLong();
+        } while (high == 0 && low == 0);
+        char[] id = new char[32];
+        writeHex(id, 0, high);
+        writeHex(id, 16, low);
+        return new String(id);
+    }
+
+    /**
+     * @return 16 hex characters, never all zeros
+     */
+    public static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        char[] chars = new char[16];
+        writeHex(chars, 0, id);
+        return new String(chars);
+    }
+
+    /**
+     * Pads a 64-bit trace id to the 128-bit form W3C requires.
+     */
+    public static String toTraceId128(String traceId) {
+        return traceId.length() == 16 ? "0000000000000000" + traceId : traceId;
+    }
+
+    static boolean isLowerHex(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isAllZeros(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeHex(char[] destination, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            destination[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tanvir.gateway.core.tracing;
+
+/**
+ * The W3C {@code traceparent} of one hop: {@code 00-<trace id>-<parent span id>-<flags>}.
+ */
+public record TraceParent(String traceId, String spanId, boolean sampled) {
+
+    public static final String HEADER = "traceparent";
+    private static final int VERSION_00_LENGTH = 55;
+
+    /**
+     * Parses a {@code traceparent} value, accepting future versions as long as their first four
+     * fields have the version 00 layout.
+     *
+     * @return the parsed value, or {@code null} when it is missing or malformed
+     */
+    public static TraceParent parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String header = value.trim();
+        if (header.length() < VERSION_00_LENGTH || header.charAt(2) != '-' || header.charAt(35) != '-' || header.charAt(52) != '-'
+                || !TraceIds.isLowerHex(header, 0, 2) || header.startsWith("ff")) {
+            return null;
+        }
+        if (header.length() > VERSION_00_LENGTH && (header.startsWith("00") || header.charAt(VERSION_00_LENGTH) != '-')) {
+            return null;
+        }
+        if (!TraceIds.isLowerHex(header, 3, 35) || TraceIds.isAllZeros(header, 3, 35)
+                || !TraceIds.isLowerHex(header, 36, 52) || TraceIds.isAllZeros(header, 36, 52)
+                || !TraceIds.isLowerHex(header, 53, 55)) {
+            return null;
+        }
+        boolean sampled = (Character.digit(header.charAt(54), 16) & 1) == 1;
+        return new TraceParent(header.substring(3, 35), header.substring(36, 52), sampled);
+    }
+
+    public static TraceParent newRoot() {
+        return new TraceParent(TraceIds.newTraceId(), TraceIds.newSpanId(), false);
+    }
+
+    /**
+     * @return whether the ids have the W3C shape; legacy {@code Trace-Id} values may not
+     */
+    public boolean isW3c() {
+        return traceId.length() == 32 && spanId.length() == 16
+                && TraceIds.isLowerHex(traceId, 0, 32) && TraceIds.isLowerHex(spanId, 0, 16);
+    }
+
+    public String format() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+}
@@ -0,0 +1,57 @@
+package com.tanvir.gateway.core.tracing;
+
+import brave.handler.MutableSpan;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.zipkin.ZipkinProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import zipkin2.reporter.BytesEncoder;
+import zipkin2.reporter.Encoding;
+import zipkin2.reporter.brave.AsyncZipkinSpanHandler;
+import zipkin2.reporter.brave.MutableSpanBytesEncoder;
+import zipkin2.reporter.metrics.micrometer.MicrometerReporterMetrics;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports spans through {@link SpoolingMessageSender} in batches, encoded as configured by
+ * {@code management.zipkin.tracing.encoding}. The in-memory queue in front of it reports its depth,
+ * bytes and drops as {@code zipkin.reporter.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "management.tracing", name = "enabled", matchIfMissing = true)
+public class ZipkinReporterConfig {
+
+    @Bean(destroyMethod = "close")
+    public SpoolingMessageSender spoolingMessageSender(ZipkinProperties zipkinProperties, ZipkinReporterProperties properties,
+                                                       @Value("${spring.application.name:application}") String applicationName,
+                                                       MeterRegistry meterRegistry) throws IOException {
+        String file = properties.getSpool().getFile();
+        Path spoolFile = file.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "zipkin-spool-" + applicationName + ".dat")
+                : Path.of(file);
+        return new SpoolingMessageSender(URI.create(zipkinProperties.getEndpoint()), encoding(zipkinProperties),
+                zipkinProperties.getConnectTimeout(), zipkinProperties.getReadTimeout(), properties.getSpool(), spoolFile,
+                meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public AsyncZipkinSpanHandler asyncZipkinSpanHandler(SpoolingMessageSender sender, ZipkinReporterProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        BytesEncoder<MutableSpan> encoder = MutableSpanBytesEncoder.forEncoding(sender.encoding());
+        return AsyncZipkinSpanHandler.newBuilder(sender)
+                .queuedMaxSpans(properties.getQueuedMaxSpans())
+                .messageTimeout(properties.getMessageTimeoutMs(), TimeUnit.MILLISECONDS)
+                .metrics(MicrometerReporterMetrics.create(meterRegistry))
+                .build(encoder);
+    }
+
+    private static Encoding encoding(ZipkinProperties zipkinProperties) {
+        return zipkinProperties.getEncoding() == ZipkinProperties.Encoding.PROTO3 ? Encoding.PROTO3 : Encoding.JSON;
+    }
+}
@@ -0,0 +1,26 @@
+-- GCRA token bucket shared by all gateway nodes.
+-- KEYS[1]  bucket key
+-- ARGV[1]  emission interval in microseconds (1s / replenishRate)
+-- ARGV[2]  burst capacity in microseconds (burstCapacity * emission interval)
+-- ARGV[3]  permits the current request needs
+-- ARGV[4]  permits to lease when available (>= ARGV[3])
+-- returns  { granted, remaining tokens } or { 0, microseconds to wait }
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+local interval = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local needed = tonumber(ARGV[3])
+local wanted = tonumber(ARGV[4])
+
+local start = tonumber(redis.call('GET', KEYS[1]) or 0)
+start = math.max(start, now - capacity)
+
+local available = math.floor((now - start) / interval)
+if available < needed then
+    return { 0, start + needed * interval - now }
+end
+
+local granted = math.min(available, wanted)
+local updated = start + granted * interval
+redis.call('SET', KEYS[1], string.format('%.0f', updated), 'PX', math.ceil(capacity / 1000) + 1000)
+return { granted, math.floor((now - updated) / interval) }
@@ -0,0 +1,71 @@
+package com.tanvir.gateway.core.accesslog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogEntryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldEscapeQuotesBackslashesAndControlCharacters() throws Exception {
+        String path = "/api/\"quoted\"\\back\nline\r\ttab\u0001\u001f";
+
+        String json = render(entry(path, null));
+
+        assertTrue(json.contains("\\\"quoted\\\"\\\\back\\nline\\r\\ttab\\u0001\\u001f"), json);
+        assertEquals(path, objectMapper.readTree(json).get("path").asText());
+    }
+
+    @Test
+    void shouldKeepNonAsciiCharactersAsIs() throws Exception {
+        String path = "/api/café/日本/😀";
+
+        String json = render(entry(path, null));
+
+        assertTrue(json.contains(path), json);
+        assertEquals(path, objectMapper.readTree(json).get("path").asText());
+    }
+
+    @Test
+    void shouldEscapeHeaderNamesAndValues() throws Exception {
+        String json = render(entry("/api", List.of(Map.entry("X-\"Odd\"", "a\"b\u0002"))));
+
+        JsonNode headers = objectMapper.readTree(json).get("requestHeaders");
+        assertEquals("a\"b\u0002", headers.get("X-\"Odd\"").asText());
+    }
+
+    @Test
+    void shouldRenderDurationWithMicrosecondFraction() throws Exception {
+        JsonNode node = objectMapper.readTree(render(entry("/api", null)));
+
+        assertEquals("12.034", node.get("durationMs").asText());
+        assertFalse(node.has("query"));
+        assertTrue(node.get("routeId").isNull());
+    }
+
+    private static AccessLogEntry entry(String path, List<Map.Entry<String, String>> requestHeaders) {
+        return AccessLogEntry.builder()
+                .timestamp(1_700_000_000_000L)
+                .method("GET")
+                .path(path)
+                .status(200)
+                .durationNanos(12_034_567)
+                .outcome("ON_COMPLETE")
+                .traceId("4bf92f3577b34da6a3ce929d0e0e4736")
+                .requestHeaders(requestHeaders)
+                .build();
+    }
+
+    private static String render(AccessLogEntry entry) {
+        StringBuilder json = new StringBuilder();
+        entry.appendJson(json);
+        return json.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.tanvir.gateway.core.accesslog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldCountEntriesDroppedWhenQueueIsFull() {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setQueueCapacity(2);
+        AccessLogWriter writer = new AccessLogWriter(properties, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            writer.offer(entry());
+        }
+
+        assertEquals(3, meterRegistry.counter("gateway.access-log.entries", "outcome", "dropped").count());
+        assertEquals(2, meterRegistry.get("gateway.access-log.queue.size").gauge().value());
+    }
+
+    @Test
+    void shouldWriteQueuedEntriesOnStop() throws InterruptedException {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setQueueCapacity(2);
+        AccessLogWriter writer = new AccessLogWriter(properties, meterRegistry);
+        writer.offer(entry());
+        writer.offer(entry());
+
+        writer.start();
+        writer.stop();
+
+        assertEquals(2, meterRegistry.counter("gateway.access-log.entries", "outcome", "written").count());
+        assertEquals(0, meterRegistry.counter("gateway.access-log.entries", "outcome", "dropped").count());
+    }
+
+    private static AccessLogEntry entry() {
+        return AccessLogEntry.builder().method("GET").path("/api").status(200).outcome("ON_COMPLETE").build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.tanvir.gateway.core.accesslog;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class AccessLoggerTest {
+
+    private static final long FAST_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AccessLogProperties properties = new AccessLogProperties();
+    private final AccessLogWriter writer = mock(AccessLogWriter.class);
+    private final AccessLogger accessLogger = new AccessLogger(properties, writer);
+
+    @Test
+    void shouldAlwaysKeepServerErrors() {
+        properties.setSampleRate(0);
+
+        accessLogger.log(exchange("tasks", HttpStatus.BAD_GATEWAY), FAST_NANOS, SignalType.ON_COMPLETE, "trace");
+        accessLogger.log(exchange("tasks", HttpStatus.OK), FAST_NANOS, SignalType.ON_ERROR, "trace");
+
+        verify(writer, times(2)).offer(any());
+    }
+
+    @Test
+    void shouldAlwaysKeepSlowRequests() {
+        properties.setSampleRate(0);
+        properties.setSlowThresholdMs(100);
+
+        accessLogger.log(exchange("tasks", HttpStatus.OK), TimeUnit.MILLISECONDS.toNanos(100), SignalType.ON_COMPLETE, "trace");
+
+        verify(writer).offer(any());
+    }
+
+    @Test
+    void shouldDropFastSuccessfulRequestsAtZeroSampleRate() {
+        properties.setSampleRate(0);
+
+        accessLogger.log(exchange("tasks", HttpStatus.OK), FAST_NANOS, SignalType.ON_COMPLETE, "trace");
+        accessLogger.log(exchange("tasks", HttpStatus.NOT_FOUND), FAST_NANOS, SignalType.ON_COMPLETE, "trace");
+
+        verify(writer, never()).offer(any());
+    }
+
+    @Test
+    void shouldApplySampleRateToOtherRequests() {
+        properties.setSampleRate(0.5);
+
+        for (int i = 0; i < 2000; i++) {
+            accessLogger.log(exchange("tasks", HttpStatus.OK), FAST_NANOS, SignalType.ON_COMPLETE, "trace");
+        }
+
+        int sampled = mockingDetails(writer).getInvocations().size();
+        assertTrue(sampled > 800 && sampled < 1200, "sampled " + sampled);
+    }
+
+    @Test
+    void shouldSkipRoutesWithVerbosityNone() {
+        properties.setSampleRate(1.0);
+        properties.setRoutes(Map.of("health", AccessLogVerbosity.NONE));
+
+        accessLogger.log(exchange("health", HttpStatus.INTERNAL_SERVER_ERROR), FAST_NANOS, SignalType.ON_ERROR, "trace");
+        accessLogger.log(exchange("tasks", HttpStatus.OK), FAST_NANOS, SignalType.ON_COMPLETE, "trace");
+
+        verify(writer, times(1)).offer(argThat(entry -> "tasks".equals(entry.getRouteId())));
+        verifyNoMoreInteractions(writer);
+    }
+
+    private static MockServerWebExchange exchange(String routeId, HttpStatus status) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/tasks").build());
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR,
+                Route.async().id(routeId).uri("http://localhost:8081").predicate(e -> true).build());
+        exchange.getResponse().setStatusCode(status);
+        return exchange;
+    }
+}
@@ -0,0 +1,83 @@
+package com.tanvir.gateway.core.admission;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.filters.HeaderNames;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class AdaptiveConcurrencyGlobalFilterTest {
+
+    private final AdmissionProperties properties = properties();
+    private final AdaptiveConcurrencyLimiterRegistry limiterRegistry = new AdaptiveConcurrencyLimiterRegistry(properties, new SimpleMeterRegistry());
+    private final AdaptiveConcurrencyGlobalFilter filter = new AdaptiveConcurrencyGlobalFilter(limiterRegistry,
+            new PriorityClassifier(properties), properties, new SimpleMeterRegistry());
+    private final Route route = Route.async().id("tasks").uri("http://localhost:8081")
+            .predicate(exchange -> true).metadata(Map.of(PriorityClassifier.PRIORITY_METADATA, "USER")).build();
+
+    @Test
+    void shouldBackOffWhenBackendReturns503() {
+        serve(exchange -> exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertTrue(limiterRegistry.limiter("tasks").getLimit() < 100, "limit " + limiterRegistry.limiter("tasks").getLimit());
+    }
+
+    @Test
+    void shouldIgnoreFallbackResponses() {
+        serve(exchange -> {
+            exchange.getAttributes().put(ExchangeAttributes.FALLBACK_RESPONSE.getValue(), Boolean.TRUE);
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        });
+
+        assertEquals(100, limiterRegistry.limiter("tasks").getLimit());
+        assertEquals(0, limiterRegistry.limiter("tasks").getInFlight());
+    }
+
+    @Test
+    void shouldIgnoreRateLimitedResponses() {
+        serve(exchange -> exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertEquals(100, limiterRegistry.limiter("tasks").getLimit());
+    }
+
+    @Test
+    void shouldIgnoreCacheHits() {
+        serve(exchange -> {
+            exchange.getResponse().getHeaders().set(HeaderNames.GATEWAY_CACHE.getValue(), "HIT");
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        });
+
+        assertEquals(100, limiterRegistry.limiter("tasks").getLimit());
+    }
+
+    private void serve(Consumer<MockServerWebExchange> response) {
+        for (int request = 0; request < 20; request++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/tasks").build());
+            exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+            GatewayFilterChain chain = forwarded -> Mono.delay(Duration.ofMillis(2))
+                    .doOnNext(ignored -> response.accept(exchange))
+                    .then();
+            filter.filter(exchange, chain).block(Duration.ofSeconds(2));
+        }
+    }
+
+    private static AdmissionProperties properties() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setInitialLimit(100);
+        properties.setWindowMs(1);
+        properties.setMinWindowSamples(1);
+        return properties;
+    }
+}
@@ -0,0 +1,171 @@
+package com.tanvir.gateway.core.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private long now = 0;
+
+    @Test
+    void shouldRejectBeyondLimitAndAdmitAfterRelease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("tasks", properties(4), now);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquireAll(limiter);
+
+        assertEquals(4, permits.size());
+        assertNull(limiter.tryAcquire(now));
+        permits.get(0).ignored();
+        permits.get(0).ignored();
+        assertEquals(3, limiter.getInFlight());
+        assertNotNull(limiter.tryAcquire(now));
+    }
+
+    @Test
+    void shouldGrowLimitWhileSaturatedAndRttIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("tasks", properties(10), now);
+
+        for (int window = 0; window < 10; window++) {
+            runWindow(limiter, TimeUnit.MILLISECONDS.toNanos(20), false);
+        }
+
+        assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void shouldShrinkLimitWhenRttRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("tasks", properties(100), now);
+        runWindow(limiter, TimeUnit.MILLISECONDS.toNanos(20), false);
+        int limitAtBaseline = limiter.getLimit();
+
+        for (int window = 0; window < 5; window++) {
+            runWindow(limiter, TimeUnit.MILLISECONDS.toNanos(200), false);
+        }
+
+        assertTrue(limiter.getLimit() < limitAtBaseline, limiter.getLimit() + " < " + limitAtBaseline);
+    }
+
+    @Test
+    void shouldBackOffOnDropsButNotBelowMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("tasks", properties(100), now);
+
+        runWindow(limiter, TimeUnit.MILLISECONDS.toNanos(20), true);
+        assertTrue(limiter.getLimit() < 100, "limit " + limiter.getLimit());
+
+        for (int window = 0; window < 200; window++) {
+            runWindow(limiter, TimeUnit.MILLISECONDS.toNanos(20), true);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void shouldNotGrowWhileIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("tasks", properties(100), now);
+
+        for (int window = 0; window < 10; window++) {
+            now += TimeUnit.SECONDS.toNanos(1);
+            limiter.tryAcquire(now).succeeded(now + 1000);
+        }
+
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    void shouldLetAdminPassQueuedUsersAndShedAnonymousAtOnce() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("tasks", properties(10), now);
+        List<AdaptiveConcurrencyLimiter.Permit> users = new ArrayList<>();
+        for (AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(PriorityClass.USER, now); permit != null;
+             permit = limiter.tryAcquire(PriorityClass.USER, now)) {
+            users.add(permit);
+        }
+        assertEquals(9, users.size(), "users may only fill 90% of the limit");
+
+        AtomicReference<AdaptiveConcurrencyLimiter.Permit> queuedUser = new AtomicReference<>();
+        limiter.acquire(PriorityClass.USER).subscribe(queuedUser::set);
+        AtomicReference<AdaptiveConcurrencyLimiter.Permit> admin = new AtomicReference<>();
+        limiter.acquire(PriorityClass.ADMIN).subscribe(admin::set);
+
+        assertNotNull(admin.get());
+        assertNull(queuedUser.get());
+        assertEquals(1, limiter.getQueued());
+        assertNull(limiter.acquire(PriorityClass.ANONYMOUS).block(Duration.ofSeconds(1)));
+
+        admin.get().succeeded(now);
+        assertNull(queuedUser.get(), "admin headroom is not handed to users");
+        users.get(0).succeeded(now);
+        assertNotNull(queuedUser.get());
+        assertEquals(0, limiter.getQueued());
+        assertEquals(9, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldShedQueuedRequestAfterItsClassQueueTime() {
+        AdmissionProperties properties = properties(2);
+        AdmissionProperties.Priority user = new AdmissionProperties.Priority();
+        user.setMaxQueueMs(20L);
+        properties.getPriorities().put(PriorityClass.USER, user);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("tasks", properties, now);
+        assertNotNull(limiter.tryAcquire(PriorityClass.USER, now));
+
+        assertNull(limiter.acquire(PriorityClass.USER).block(Duration.ofSeconds(1)));
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldAdmitQueuedRequestsWhenLimitGrows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("tasks", properties(100), now);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquireAll(limiter);
+        List<AdaptiveConcurrencyLimiter.Permit> admins = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(PriorityClass.ADMIN).subscribe(admins::add);
+        }
+        assertEquals(3, limiter.getQueued());
+
+        now += TimeUnit.MILLISECONDS.toNanos(20);
+        permits.get(0).succeeded(now);
+
+        assertTrue(limiter.getLimit() > 100, "limit " + limiter.getLimit());
+        assertEquals(3, admins.size(), "the grown limit and the freed slot admit all waiters");
+        assertEquals(0, limiter.getQueued());
+    }
+
+    /**
+     * Fills the limiter, then releases every permit after {@code rttNanos}, which closes the window.
+     */
+    private void runWindow(AdaptiveConcurrencyLimiter limiter, long rttNanos, boolean drop) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquireAll(limiter);
+        now += rttNanos;
+        for (AdaptiveConcurrencyLimiter.Permit permit : permits) {
+            if (drop) {
+                permit.dropped(now);
+            } else {
+                permit.succeeded(now);
+            }
+        }
+    }
+
+    private List<AdaptiveConcurrencyLimiter.Permit> acquireAll(AdaptiveConcurrencyLimiter limiter) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(now); permit != null; permit = limiter.tryAcquire(now)) {
+            permits.add(permit);
+        }
+        return permits;
+    }
+
+    private static AdmissionProperties properties(int initialLimit) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(1000);
+        properties.setWindowMs(10);
+        properties.setMinWindowSamples(1);
+        return properties;
+    }
+}
@@ -0,0 +1,41 @@
+package com.tanvir.gateway.core.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityClassifierTest {
+
+    private final PriorityClassifier classifier = new PriorityClassifier(new AdmissionProperties());
+    private final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/tasks").build());
+
+    @Test
+    void shouldUseRoutePriority() {
+        assertEquals(PriorityClass.SYSTEM, classifier.classify(exchange, route(" system ")).block());
+    }
+
+    @Test
+    void shouldTreatUnknownRoutePriorityAsUser() {
+        Route route = route("URGENT");
+
+        assertEquals(PriorityClass.USER, classifier.classify(exchange, route).block());
+        assertEquals(PriorityClass.USER, classifier.classify(exchange, route).block());
+    }
+
+    @Test
+    void shouldClassifyAnonymousCallerWithoutRoutePriority() {
+        Route route = Route.async().id("tasks").uri("http://localhost:8081").predicate(e -> true).build();
+
+        assertEquals(PriorityClass.ANONYMOUS, classifier.classify(exchange, route).block());
+    }
+
+    private static Route route(String priority) {
+        return Route.async().id("tasks").uri("http://localhost:8081").predicate(e -> true)
+                .metadata(Map.of(PriorityClassifier.PRIORITY_METADATA, priority)).build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.tanvir.gateway.core.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedFairQueueTest {
+
+    @Test
+    void shouldDequeueInProportionToWeight() {
+        WeightedFairQueue<String> queue = new WeightedFairQueue<>(defaultPolicies());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(queue.offer(PriorityClass.USER, "user-" + i));
+            assertTrue(queue.offer(PriorityClass.ADMIN, "admin-" + i));
+        }
+
+        List<String> served = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            served.add(queue.poll(priorityClass -> true));
+        }
+
+        long admins = served.stream().filter(element -> element.startsWith("admin")).count();
+        assertEquals(8, admins, served.toString());
+        assertEquals("admin-0", served.get(0));
+        assertEquals(30, queue.size());
+    }
+
+    @Test
+    void shouldSkipClassesThatCannotBeAdmitted() {
+        WeightedFairQueue<String> queue = new WeightedFairQueue<>(defaultPolicies());
+        queue.offer(PriorityClass.ADMIN, "admin");
+        queue.offer(PriorityClass.USER, "user");
+
+        assertEquals("user", queue.poll(priorityClass -> priorityClass != PriorityClass.ADMIN));
+        assertNull(queue.poll(priorityClass -> false));
+        assertEquals("admin", queue.poll(priorityClass -> true));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void shouldBoundEachClassAndRemoveAbandonedElements() {
+        WeightedFairQueue<String> queue = new WeightedFairQueue<>(defaultPolicies());
+        assertFalse(queue.offer(PriorityClass.ANONYMOUS, "anonymous"));
+
+        String user = "user";
+        assertTrue(queue.offer(PriorityClass.USER, user));
+        assertTrue(queue.remove(PriorityClass.USER, user));
+        assertFalse(queue.remove(PriorityClass.USER, user));
+        assertEquals(0, queue.size());
+        assertNull(queue.poll(priorityClass -> true));
+    }
+
+    private static Map<PriorityClass, PriorityPolicy> defaultPolicies() {
+        Map<PriorityClass, PriorityPolicy> policies = new EnumMap<>(PriorityClass.class);
+        for (PriorityClass priorityClass : PriorityClass.values()) {
+            policies.put(priorityClass, priorityClass.defaultPolicy());
+        }
+        return policies;
+    }
+}
@@ -0,0 +1,66 @@
+package com.tanvir.gateway.core.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BodyCaptureResponseDecoratorTest {
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final MockServerHttpResponse response = new MockServerHttpResponse();
+    private final List<DataBuffer> written = new ArrayList<>();
+    private final List<ByteBuffer> captured = new ArrayList<>();
+    private final BodyCaptureResponseDecorator decorator = new BodyCaptureResponseDecorator(response, r -> true, 300, captured::add);
+
+    BodyCaptureResponseDecoratorTest() {
+        response.setWriteHandler(body -> body.doOnNext(written::add).then());
+    }
+
+    @Test
+    void shouldCaptureChunkedBodyWithinLimit() {
+        decorator.writeWith(Flux.just(chunk('a', 100), chunk('b', 100), chunk('c', 100))).block(Duration.ofSeconds(1));
+
+        assertEquals(1, captured.size());
+        assertEquals(300, captured.get(0).remaining());
+        assertEquals(1, written.size());
+        assertEquals(300, written.get(0).readableByteCount());
+    }
+
+    @Test
+    void shouldStreamChunkedBodyLargerThanLimitWithoutHoldingIt() {
+        Sinks.Many<DataBuffer> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        decorator.writeWith(upstream.asFlux()).subscribe();
+
+        for (int i = 0; i < 3; i++) {
+            upstream.tryEmitNext(chunk('a', 100));
+        }
+        assertTrue(written.isEmpty(), "held back while the body may still fit");
+
+        upstream.tryEmitNext(chunk('b', 100));
+        assertEquals(4, written.size(), "released once the body is larger than maxBytes");
+
+        for (int i = 0; i < 100; i++) {
+            upstream.tryEmitNext(chunk('c', 100));
+            assertEquals(5 + i, written.size(), "passed through as it arrives");
+        }
+        upstream.tryEmitComplete();
+
+        assertTrue(captured.isEmpty());
+        assertEquals(10_400, written.stream().mapToInt(DataBuffer::readableByteCount).sum());
+    }
+
+    private DataBuffer chunk(char value, int length) {
+        return bufferFactory.wrap(String.valueOf(value).repeat(length).getBytes(StandardCharsets.US_ASCII));
+    }
+}
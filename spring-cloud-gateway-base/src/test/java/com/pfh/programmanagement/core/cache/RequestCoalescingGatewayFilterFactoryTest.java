@@ -0,0 +1,79 @@
+package com.tanvir.gateway.core.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescingGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> release = Sinks.empty();
+    private RequestCoalescingGatewayFilterFactory.Config config;
+    private RequestCoalescingGatewayFilterFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        factory = new RequestCoalescingGatewayFilterFactory(new ResponseCache(meterRegistry, 1 << 20, 1 << 16), meterRegistry);
+        config = new RequestCoalescingGatewayFilterFactory.Config();
+        config.setRouteId("tasks");
+    }
+
+    @Test
+    void shouldShareLeaderResponseWithConcurrentRequests() {
+        GatewayFilter filter = factory.apply(config);
+        MockServerWebExchange leader = MockServerWebExchange.from(MockServerHttpRequest.get("/tasks"));
+        MockServerWebExchange follower = MockServerWebExchange.from(MockServerHttpRequest.get("/tasks"));
+
+        Mono<Void> leading = filter.filter(leader, slowUpstream()).cache();
+        leading.subscribe();
+        Mono<Void> following = filter.filter(follower, slowUpstream()).cache();
+        following.subscribe();
+        release.tryEmitEmpty();
+        leading.block();
+        following.block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals("[task]", follower.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void shouldSendWaitersBeyondLimitUpstream() {
+        config.setMaxWaiters(0);
+        GatewayFilter filter = factory.apply(config);
+
+        Mono<Void> leading = filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/tasks")), slowUpstream()).cache();
+        leading.subscribe();
+        Mono<Void> overflow = filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/tasks")), slowUpstream()).cache();
+        overflow.subscribe();
+        release.tryEmitEmpty();
+        leading.block();
+        overflow.block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private GatewayFilterChain slowUpstream() {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                byte[] body = "[task]".getBytes(StandardCharsets.UTF_8);
+                return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }));
+        };
+    }
+}
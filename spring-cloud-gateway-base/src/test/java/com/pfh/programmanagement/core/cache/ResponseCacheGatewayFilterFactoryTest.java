@@ -0,0 +1,83 @@
+package com.tanvir.gateway.core.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheGatewayFilterFactory factory = new ResponseCacheGatewayFilterFactory(
+                new ResponseCache(meterRegistry, 1 << 20, 1 << 16), meterRegistry);
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setRouteId("tasks");
+        filter = factory.apply(config);
+    }
+
+    @Test
+    void shouldServeSecondRequestFromCache() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/tasks?page=1"));
+        filter.filter(first, upstream("public, max-age=60")).block();
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get("/tasks?page=1"));
+        filter.filter(second, upstream("public, max-age=60")).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst("X-Gateway-Cache"));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst("X-Gateway-Cache"));
+        assertEquals("[task]", second.getResponse().getBodyAsString().block());
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void shouldAnswerMatchingIfNoneMatchWithNotModified() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/tasks"));
+        filter.filter(first, upstream("max-age=60")).block();
+        String etag = first.getResponse().getHeaders().getETag();
+        assertNotNull(etag);
+
+        MockServerWebExchange revalidation = exchange(MockServerHttpRequest.get("/tasks").header(HttpHeaders.IF_NONE_MATCH, etag));
+        filter.filter(revalidation, upstream("max-age=60")).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotStoreNoStoreResponses() {
+        filter.filter(exchange(MockServerHttpRequest.get("/tasks")), upstream("no-store")).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/tasks")), upstream("no-store")).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private GatewayFilterChain upstream(String cacheControl) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().set(HttpHeaders.CACHE_CONTROL, cacheControl);
+            byte[] body = "[task]".getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package com.tanvir.gateway.core.compression;
+
+import com.tanvir.gateway.core.cache.ResponseCache;
+import com.tanvir.gateway.core.cache.ResponseCacheGatewayFilterFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionGatewayFilterFactoryTest {
+
+    private static final String CHUNK = "{\"id\":1,\"name\":\"task\",\"status\":\"OPEN\"},";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        CompressionGatewayFilterFactory factory = new CompressionGatewayFilterFactory(new DeflaterPool(6, 4), meterRegistry);
+        CompressionGatewayFilterFactory.Config config = new CompressionGatewayFilterFactory.Config();
+        config.setRouteId("tasks");
+        config.setMinResponseBytes(256);
+        filter = factory.apply(config);
+    }
+
+    @Test
+    void shouldGzipStreamedJsonBody() throws IOException {
+        MockServerWebExchange exchange = exchange("gzip, deflate");
+        filter.filter(exchange, upstream(MediaType.APPLICATION_JSON, 100)).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+        byte[] compressed = body(exchange);
+        assertTrue(compressed.length < CHUNK.length() * 100);
+        assertEquals(CHUNK.repeat(100), new String(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(CHUNK.length() * 100, meterRegistry.counter(CompressionGatewayFilterFactory.METRIC_NAME, "routeId", "tasks", "direction", "in").count());
+    }
+
+    @Test
+    void shouldUseDeflateWhenPreferred() throws IOException {
+        MockServerWebExchange exchange = exchange("gzip;q=0.5, deflate");
+        filter.filter(exchange, upstream(MediaType.APPLICATION_JSON, 100)).block();
+
+        assertEquals("deflate", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        InputStream inflated = new InflaterInputStream(new ByteArrayInputStream(body(exchange)));
+        assertEquals(CHUNK.repeat(100), new String(inflated.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldLeaveSmallOrUnlistedResponsesAlone() {
+        MockServerWebExchange small = exchange("gzip");
+        filter.filter(small, upstream(MediaType.APPLICATION_JSON, 1)).block();
+        MockServerWebExchange image = exchange("gzip");
+        filter.filter(image, upstream(MediaType.IMAGE_PNG, 100)).block();
+
+        assertNull(small.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(image.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(CHUNK, new String(body(small), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldNotForwardAcceptEncodingUpstream() {
+        MockServerWebExchange exchange = exchange("gzip");
+        filter.filter(exchange, forwarded -> {
+            assertFalse(forwarded.getRequest().getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING));
+            return upstream(MediaType.APPLICATION_JSON, 1).filter(forwarded);
+        }).block();
+    }
+
+    @Test
+    void shouldNotForwardAcceptEncodingWhenNoCodingIsAcceptable() {
+        MockServerWebExchange exchange = exchange("br");
+        filter.filter(exchange, forwarded -> {
+            assertFalse(forwarded.getRequest().getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING));
+            return upstream(MediaType.APPLICATION_JSON, 100).filter(forwarded);
+        }).block();
+
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(CHUNK.repeat(100), new String(body(exchange), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldReleaseHeldBackBuffersWhenCancelled() {
+        NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+        List<NettyDataBuffer> written = new ArrayList<>();
+        MockServerWebExchange exchange = exchange("gzip");
+
+        Disposable subscription = filter.filter(exchange, forwarded -> {
+            forwarded.getResponse().setStatusCode(HttpStatus.OK);
+            forwarded.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            Flux<DataBuffer> belowThreshold = Flux.range(0, 2).map(i -> {
+                NettyDataBuffer buffer = bufferFactory.allocateBuffer(64).write(CHUNK.getBytes(StandardCharsets.UTF_8));
+                written.add(buffer);
+                return buffer;
+            });
+            return forwarded.getResponse().writeWith(Flux.concat(belowThreshold, Flux.never()));
+        }).subscribe();
+        subscription.dispose();
+
+        assertEquals(2, written.size());
+        written.forEach(buffer -> assertEquals(0, buffer.getNativeBuffer().refCnt()));
+    }
+
+    @Test
+    void shouldServeCachedHitFromCompressedVariant() throws IOException {
+        ResponseCacheGatewayFilterFactory cacheFactory = new ResponseCacheGatewayFilterFactory(
+                new ResponseCache(meterRegistry, 1 << 20, 1 << 16), meterRegistry);
+        ResponseCacheGatewayFilterFactory.Config cacheConfig = new ResponseCacheGatewayFilterFactory.Config();
+        cacheConfig.setRouteId("tasks");
+        GatewayFilter cache = cacheFactory.apply(cacheConfig);
+        GatewayFilterChain upstream = upstream(MediaType.APPLICATION_JSON, 100);
+
+        MockServerWebExchange first = exchange("gzip");
+        filter.filter(first, e -> cache.filter(e, upstream)).block();
+        MockServerWebExchange second = exchange("gzip");
+        filter.filter(second, e -> cache.filter(e, upstream)).block();
+        MockServerWebExchange identity = exchange("identity");
+        filter.filter(identity, e -> cache.filter(e, upstream)).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst("X-Gateway-Cache"));
+        assertEquals("gzip", second.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        byte[] compressed = body(second);
+        assertEquals(compressed.length, second.getResponse().getHeaders().getContentLength());
+        assertEquals(CHUNK.repeat(100), new String(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes(), StandardCharsets.UTF_8));
+        assertNull(identity.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(CHUNK.repeat(100), new String(body(identity), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldNegotiateByQuality() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate(List.of("deflate, gzip")));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate(List.of("gzip;q=0, *")));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate(List.of("*")));
+        assertNull(ContentCoding.negotiate(List.of("br, identity")));
+        assertNull(ContentCoding.negotiate(List.of()));
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/tasks").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        DataBuffer joined = DataBufferUtils.join(exchange.getResponse().getBody()).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        return bytes;
+    }
+
+    private GatewayFilterChain upstream(MediaType contentType, int chunks) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(contentType);
+            exchange.getResponse().getHeaders().set(HttpHeaders.CACHE_CONTROL, "max-age=60");
+            return exchange.getResponse().writeWith(Flux.range(0, chunks)
+                    .map(i -> exchange.getResponse().bufferFactory().wrap(CHUNK.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+}
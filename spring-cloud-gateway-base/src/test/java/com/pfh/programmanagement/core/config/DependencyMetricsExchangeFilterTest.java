@@ -0,0 +1,75 @@
+package com.tanvir.gateway.core.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyMetricsExchangeFilterTest {
+
+    private static final String DEPENDENCY = "http://localhost:8081";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DependencyMetricsExchangeFilter filter = new DependencyMetricsExchangeFilter(DEPENDENCY, meterRegistry);
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create(DEPENDENCY + "/tasks")).build();
+
+    @Test
+    void shouldTimeResponsesByStatusClass() {
+        StepVerifier.create(filter.filter(request, r -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build())))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, timerCount("5xx"));
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void shouldCountTimeoutsSeparatelyFromErrors() {
+        StepVerifier.create(filter.filter(request, r -> Mono.error(
+                        new WebClientRequestException(ReadTimeoutException.INSTANCE, HttpMethod.GET, request.url(), request.headers()))))
+                .verifyError(WebClientRequestException.class);
+        StepVerifier.create(filter.filter(request, r -> Mono.error(new IllegalStateException("connection reset"))))
+                .verifyError(IllegalStateException.class);
+
+        assertEquals(1, meterRegistry.get(DependencyMetricsExchangeFilter.TIMEOUTS_METRIC_NAME).counter().count());
+        assertEquals(1, meterRegistry.get(DependencyMetricsExchangeFilter.ERRORS_METRIC_NAME)
+                .tag("exception", "IllegalStateException").counter().count());
+        assertEquals(1, timerCount("TIMEOUT"));
+        assertEquals(1, timerCount("ERROR"));
+    }
+
+    @Test
+    void shouldTrackInFlightUntilCancelled() {
+        StepVerifier.create(filter.filter(request, r -> Mono.never()))
+                .then(() -> assertEquals(1, inFlight()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(0, inFlight());
+        assertEquals(1, timerCount("CANCELLED"));
+    }
+
+    private long timerCount(String status) {
+        return meterRegistry.get(DependencyMetricsExchangeFilter.TIMER_NAME)
+                .tag("dependency", DEPENDENCY)
+                .tag("method", "GET")
+                .tag("status", status)
+                .timer()
+                .count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get(DependencyMetricsExchangeFilter.IN_FLIGHT_METRIC_NAME).gauge().value();
+    }
+}
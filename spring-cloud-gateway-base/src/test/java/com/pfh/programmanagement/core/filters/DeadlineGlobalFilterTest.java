@@ -0,0 +1,108 @@
+package com.tanvir.gateway.core.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class DeadlineGlobalFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeadlineGlobalFilter filter = new DeadlineGlobalFilter(meterRegistry, 1000);
+    private final AtomicLong upstreamDeadlineMs = new AtomicLong(-1);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void shouldSendRouteDeadlineUpstream() {
+        MockServerWebExchange exchange = exchange(route(3000), null);
+
+        filter.filter(exchange, upstream()).block();
+
+        assertTrue(upstreamDeadlineMs.get() > 2500 && upstreamDeadlineMs.get() <= 3000, "sent " + upstreamDeadlineMs.get());
+        assertNotNull(exchange.getAttribute(ExchangeAttributes.REQUEST_DEADLINE_NANOS.getValue()));
+    }
+
+    @Test
+    void shouldPreferTighterCallerDeadline() {
+        MockServerWebExchange exchange = exchange(route(3000), "200");
+
+        filter.filter(exchange, upstream()).block();
+
+        assertTrue(upstreamDeadlineMs.get() > 0 && upstreamDeadlineMs.get() <= 200, "sent " + upstreamDeadlineMs.get());
+    }
+
+    @Test
+    void shouldIgnoreLooserCallerDeadline() {
+        MockServerWebExchange exchange = exchange(route(300), "60000");
+
+        filter.filter(exchange, upstream()).block();
+
+        assertTrue(upstreamDeadlineMs.get() > 0 && upstreamDeadlineMs.get() <= 300, "sent " + upstreamDeadlineMs.get());
+    }
+
+    @Test
+    void shouldFallBackToDefaultOnInvalidRouteDeadline() {
+        MockServerWebExchange exchange = exchange(route("3s"), null);
+
+        filter.filter(exchange, upstream()).block();
+
+        assertTrue(upstreamDeadlineMs.get() > 500 && upstreamDeadlineMs.get() <= 1000, "sent " + upstreamDeadlineMs.get());
+    }
+
+    @Test
+    void shouldFailWith504WhenUpstreamIsTooSlow() {
+        MockServerWebExchange exchange = exchange(route(3000), "50");
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> filter.filter(exchange, forwarded -> Mono.never()).block(Duration.ofSeconds(2)));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, error.getStatusCode());
+        assertEquals(1, meterRegistry.counter(DeadlineGlobalFilter.METRIC_NAME, "routeId", "tasks").count());
+    }
+
+    @Test
+    void shouldNotCallUpstreamWhenBudgetIsSpent() {
+        MockServerWebExchange exchange = exchange(route(100), null);
+        exchange.getAttributes().put(ExchangeAttributes.REQUEST_START_NANOS.getValue(), System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+
+        assertThrows(ResponseStatusException.class, () -> filter.filter(exchange, upstream()).block());
+
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    private static Route route(Object deadlineMs) {
+        return Route.async().id("tasks").uri("http://localhost:8081").predicate(exchange -> true)
+                .metadata(DeadlineGlobalFilter.DEADLINE_METADATA, deadlineMs).build();
+    }
+
+    private static MockServerWebExchange exchange(Route route, String callerDeadline) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/tasks");
+        if (callerDeadline != null) {
+            request.header(HeaderNames.REQUEST_DEADLINE_IN_MS.getValue(), callerDeadline);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            upstreamDeadlineMs.set(Long.parseLong(exchange.getRequest().getHeaders().getFirst(HeaderNames.REQUEST_DEADLINE_IN_MS.getValue())));
+            return Mono.empty();
+        };
+    }
+}
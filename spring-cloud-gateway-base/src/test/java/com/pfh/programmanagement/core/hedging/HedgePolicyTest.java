@@ -0,0 +1,74 @@
+package com.tanvir.gateway.core.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgePolicyTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(30);
+
+    @Test
+    void shouldNotHedgeUntilWindowHasMinSamples() {
+        HedgePolicy policy = new HedgePolicy(95, 3, 10, 5, 1000, 5, HIGHEST_TRACKABLE_MICROS);
+        policy.record(TimeUnit.MILLISECONDS.toNanos(20));
+        policy.record(TimeUnit.MILLISECONDS.toNanos(20));
+
+        assertTrue(policy.delayMicros(nextWindow()) < 0);
+    }
+
+    @Test
+    void shouldUsePercentileOfLastWindow() {
+        HedgePolicy policy = new HedgePolicy(95, 3, 10, 5, 1000, 5, HIGHEST_TRACKABLE_MICROS);
+        for (int i = 0; i < 100; i++) {
+            policy.record(TimeUnit.MILLISECONDS.toNanos(i < 90 ? 10 : 200));
+        }
+
+        long delayMicros = policy.delayMicros(nextWindow());
+
+        assertEquals(200, TimeUnit.MICROSECONDS.toMillis(delayMicros), 2);
+    }
+
+    @Test
+    void shouldClampDelay() {
+        HedgePolicy fast = new HedgePolicy(95, 1, 10, 5, 1000, 5, HIGHEST_TRACKABLE_MICROS);
+        fast.record(TimeUnit.MILLISECONDS.toNanos(1));
+        HedgePolicy slow = new HedgePolicy(95, 1, 10, 5, 1000, 5, HIGHEST_TRACKABLE_MICROS);
+        slow.record(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(TimeUnit.MILLISECONDS.toMicros(5), fast.delayMicros(nextWindow()));
+        assertEquals(TimeUnit.MILLISECONDS.toMicros(1000), slow.delayMicros(nextWindow()));
+    }
+
+    @Test
+    void shouldSpendBudgetEarnedByRequests() {
+        HedgePolicy policy = new HedgePolicy(95, 1, 10, 5, 1000, 50, HIGHEST_TRACKABLE_MICROS);
+
+        policy.onRequest();
+        assertFalse(policy.tryAcquireHedge());
+        policy.onRequest();
+        assertTrue(policy.tryAcquireHedge());
+        assertFalse(policy.tryAcquireHedge());
+    }
+
+    @Test
+    void shouldCapSavedBudget() {
+        HedgePolicy policy = new HedgePolicy(95, 1, 10, 5, 1000, 100, HIGHEST_TRACKABLE_MICROS);
+        for (int i = 0; i < 100; i++) {
+            policy.onRequest();
+        }
+
+        int hedges = 0;
+        while (policy.tryAcquireHedge()) {
+            hedges++;
+        }
+
+        assertEquals(10, hedges);
+    }
+
+    private static long nextWindow() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    }
+}
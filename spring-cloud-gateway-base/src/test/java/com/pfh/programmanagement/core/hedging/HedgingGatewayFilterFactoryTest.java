@@ -0,0 +1,204 @@
+package com.tanvir.gateway.core.hedging;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import com.tanvir.gateway.core.loadbalancer.InstanceStats;
+import com.tanvir.gateway.core.loadbalancer.InstanceStatsRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+
+class HedgingGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InstanceStatsRegistry instanceStatsRegistry = new InstanceStatsRegistry(meterRegistry, 10000, 2, 30000, 8, 50);
+    private final ServiceInstance primaryInstance = new DefaultServiceInstance("a", "program-task-service", "localhost", 8081, false);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicReference<String> winner = new AtomicReference<>();
+    private volatile BiFunction<Integer, HttpServerResponse, Mono<Void>> upstream;
+    private DisposableServer server;
+    private HedgingGatewayFilterFactory factory;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle((request, response) -> upstream.apply(requests.incrementAndGet(), response))
+                .bindNow();
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+        when(headersFilters.getIfAvailable(any())).thenReturn(List.of());
+        factory = new HedgingGatewayFilterFactory(HttpClient.create().disableRetry(true), new HttpClientProperties(),
+                headersFilters, mock(ObjectProvider.class), instanceStatsRegistry, meterRegistry, 30000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void shouldHedgeAfterDelayAndCancelSlowPrimary() {
+        upstream = (attempt, response) -> attempt == 2 ? respond(response, attempt, Duration.ofSeconds(5)) : respond(response, attempt, Duration.ZERO);
+        GatewayFilter filter = warmedUpFilter();
+        InstanceStats.Call primaryCall = instanceStatsRegistry.start(primaryInstance);
+
+        long startNanos = System.nanoTime();
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(url()), null);
+        exchange.getAttributes().put(ExchangeAttributes.UPSTREAM_INSTANCE_CALL.getValue(), primaryCall);
+        filter.filter(exchange, winningResponse()).block(Duration.ofSeconds(3));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+
+        assertEquals("3", winner.get());
+        assertTrue(elapsedMillis >= 50, "hedge sent after " + elapsedMillis + " ms");
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals(1, meterRegistry.counter(HedgingGatewayFilterFactory.METRIC_NAME, "routeId", "tasks", "outcome", "won").count());
+        InstanceStats stats = instanceStatsRegistry.stats(primaryInstance);
+        assertEquals(0, stats.getInFlight());
+        assertEquals(0.0, stats.getEwmaNanos(), "a cancelled primary records no latency");
+    }
+
+    @Test
+    void shouldRecordFailedPrimaryAsFailureWhenHedgeWins() {
+        upstream = (attempt, response) -> attempt == 2 ? closeAfter(response, Duration.ofMillis(100)) : respond(response, attempt, attempt == 3 ? Duration.ofMillis(300) : Duration.ZERO);
+        GatewayFilter filter = warmedUpFilter();
+        InstanceStats.Call primaryCall = instanceStatsRegistry.start(primaryInstance);
+
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(url()), null);
+        exchange.getAttributes().put(ExchangeAttributes.UPSTREAM_INSTANCE_CALL.getValue(), primaryCall);
+        filter.filter(exchange, winningResponse()).block(Duration.ofSeconds(3));
+
+        assertEquals("3", winner.get());
+        instanceStatsRegistry.start(primaryInstance).failed();
+        assertTrue(instanceStatsRegistry.stats(primaryInstance).isEjected(System.nanoTime()),
+                "the failed primary and one more failure reach the ejection threshold of 2");
+    }
+
+    @Test
+    void shouldNeverHedgeNonIdempotentMethods() {
+        upstream = (attempt, response) -> respond(response, attempt, Duration.ZERO);
+        GatewayFilter filter = warmedUpFilter();
+        AtomicInteger chainCalls = new AtomicInteger();
+
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.post(url()), null);
+        filter.filter(exchange, forwarded -> {
+            chainCalls.incrementAndGet();
+            assertFalse(isAlreadyRouted(forwarded));
+            return Mono.empty();
+        }).block(Duration.ofSeconds(3));
+
+        assertEquals(1, chainCalls.get());
+        assertEquals(1, requests.get(), "only the warm-up request reached the upstream");
+    }
+
+    @Test
+    void shouldApplyRouteResponseTimeout() {
+        upstream = (attempt, response) -> respond(response, attempt, Duration.ofSeconds(5));
+        GatewayFilter filter = factory.apply(config());
+        Route route = Route.async().id("tasks").uri(url()).predicate(exchange -> true)
+                .metadata(RESPONSE_TIMEOUT_ATTR, 100).build();
+
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(url()), route);
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> filter.filter(exchange, winningResponse()).block(Duration.ofSeconds(3)));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, error.getStatusCode());
+    }
+
+    /**
+     * A filter whose policy already learned one fast sample, so the next request is hedged after the
+     * clamped 50 ms delay.
+     */
+    private GatewayFilter warmedUpFilter() {
+        GatewayFilter filter = factory.apply(config());
+        filter.filter(exchange(MockServerHttpRequest.get(url()), null), winningResponse()).block(Duration.ofSeconds(3));
+        try {
+            Thread.sleep(30);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return filter;
+    }
+
+    private HedgingGatewayFilterFactory.Config config() {
+        HedgingGatewayFilterFactory.Config config = new HedgingGatewayFilterFactory.Config();
+        config.setRouteId("tasks");
+        config.setMinSamples(1);
+        config.setWindowMs(10);
+        config.setMinDelayMs(50);
+        config.setMaxDelayMs(50);
+        config.setBudgetPercent(100);
+        return config;
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, Route route) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create(url()));
+        if (route != null) {
+            exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        }
+        return exchange;
+    }
+
+    private GatewayFilterChain winningResponse() {
+        return exchange -> {
+            HttpClientResponse response = exchange.getAttribute(CLIENT_RESPONSE_ATTR);
+            winner.set(response.responseHeaders().get("X-Attempt"));
+            Connection connection = exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+            connection.dispose();
+            return Mono.empty();
+        };
+    }
+
+    private String url() {
+        return "http://localhost:" + server.port() + "/tasks";
+    }
+
+    private static Mono<Void> respond(HttpServerResponse response, int attempt, Duration delay) {
+        return Mono.delay(delay)
+                .then(response.header("X-Attempt", String.valueOf(attempt)).sendString(Mono.just("attempt " + attempt)).then());
+    }
+
+    private static Mono<Void> closeAfter(HttpServerResponse response, Duration delay) {
+        return Mono.delay(delay)
+                .then(Mono.fromRunnable(() -> response.withConnection(connection -> connection.channel().close())));
+    }
+}
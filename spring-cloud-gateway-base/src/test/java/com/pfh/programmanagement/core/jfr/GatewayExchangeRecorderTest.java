@@ -0,0 +1,69 @@
+package com.tanvir.gateway.core.jfr;
+
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.SignalType;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayExchangeRecorderTest {
+
+    private static final String EVENT_NAME = "com.tanvir.gateway.Exchange";
+
+    private final GatewayExchangeRecorder recorder = new GatewayExchangeRecorder();
+
+    @Test
+    void shouldNotTrackExchangesWhileNoRecordingIsRunning() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/programs"));
+
+        recorder.begin(exchange);
+
+        assertNull(exchange.getAttribute(ExchangeAttributes.JFR_EXCHANGE_EVENT.getValue()));
+    }
+
+    @Test
+    void shouldRecordRouteStatusBytesAndFilterTime(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("exchange.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT_NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/programs")
+                    .header("Content-Length", "42"));
+            exchange.getAttributes().put(ExchangeAttributes.REQUEST_START_NANOS.getValue(), 1_000L);
+            recorder.begin(exchange);
+            exchange.getAttributes().put(ExchangeAttributes.UPSTREAM_CALL_NANOS.getValue(), 251_000L);
+            exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+            exchange.getResponse().getHeaders().setContentLength(7);
+            recorder.commit(exchange, "program-task-service", SignalType.ON_COMPLETE);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(EVENT_NAME))
+                .toList();
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("program-task-service", event.getString("routeId"));
+        assertEquals("POST", event.getString("method"));
+        assertEquals("/api/v1/programs", event.getString("path"));
+        assertEquals(201, event.getInt("status"));
+        assertEquals("ON_COMPLETE", event.getString("outcome"));
+        assertEquals(42, event.getLong("requestBytes"));
+        assertEquals(7, event.getLong("responseBytes"));
+        assertEquals(Duration.ofNanos(250_000), event.getDuration("filterTime"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.tanvir.gateway.core.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PeakEwmaLoadBalancerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(meterRegistry, 10000, 2, 30000, 8, 50);
+    @SuppressWarnings("unchecked")
+    private final PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(mock(ObjectProvider.class), registry);
+
+    private final ServiceInstance a = instance("a", 8081);
+    private final ServiceInstance b = instance("b", 8082);
+    private final ServiceInstance c = instance("c", 8083);
+
+    @Test
+    void shouldPreferInstanceWithFewerRequestsInFlight() {
+        registry.start(a);
+        registry.start(a);
+
+        for (int i = 0; i < 20; i++) {
+            assertSame(b, loadBalancer.select(List.of(a, b), null).getServer());
+        }
+    }
+
+    @Test
+    void shouldSkipEjectedInstance() {
+        registry.start(a).failed();
+        registry.start(a).failed();
+
+        assertTrue(registry.stats(a).isEjected(System.nanoTime()));
+        assertEquals(1, meterRegistry.counter(InstanceStatsRegistry.EJECTIONS_METRIC_NAME, "instance", "program-task-service@a:8081").count());
+        for (int i = 0; i < 20; i++) {
+            assertNotSame(a, loadBalancer.select(List.of(a, b, c), null).getServer());
+        }
+    }
+
+    @Test
+    void shouldIgnoreEjectionWhenTooManyInstancesAreOut() {
+        for (ServiceInstance instance : List.of(a, b)) {
+            registry.start(instance).failed();
+            registry.start(instance).failed();
+        }
+
+        assertTrue(loadBalancer.select(List.of(a, b, c), null).hasServer());
+        assertTrue(loadBalancer.select(List.of(a), null).hasServer());
+    }
+
+    @Test
+    void shouldResetFailureRunOnSuccess() {
+        registry.start(a).failed();
+        registry.start(a).succeeded();
+        registry.start(a).failed();
+
+        assertFalse(registry.stats(a).isEjected(System.nanoTime()));
+    }
+
+    @Test
+    void shouldExcludeInstanceWhenAlternativeExists() {
+        for (int i = 0; i < 20; i++) {
+            assertSame(b, loadBalancer.select(List.of(a, b), a).getServer());
+        }
+        assertSame(a, loadBalancer.select(List.of(a), a).getServer());
+    }
+
+    @Test
+    void shouldReleaseInFlightOnceWhenCallEndsTwice() {
+        InstanceStats.Call call = registry.start(a);
+        call.cancelled();
+        call.succeeded();
+
+        assertEquals(0, registry.stats(a).getInFlight());
+        assertEquals(0.0, registry.stats(a).getEwmaNanos());
+    }
+
+    private static ServiceInstance instance(String host, int port) {
+        return new DefaultServiceInstance(host, "program-task-service", host, port, false);
+    }
+}
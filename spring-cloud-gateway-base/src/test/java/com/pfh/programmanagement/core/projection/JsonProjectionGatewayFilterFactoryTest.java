@@ -0,0 +1,168 @@
+package com.tanvir.gateway.core.projection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonProjectionGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"userMessage\":\"ok\",\"count\":2,\"tasks\":["
+            + "{\"exercises\":\"walk\",\"vitals\":{\"hr\":[72,75]},\"questionnaires\":null},"
+            + "{\"exercises\":\"swim\",\"vitals\":{\"hr\":[80]},\"questionnaires\":\"phq9\"}]}";
+
+    private final JsonProjectionGatewayFilterFactory factory =
+            new JsonProjectionGatewayFilterFactory(new ObjectMapper(), new SimpleMeterRegistry());
+
+    @Test
+    void shouldKeepOnlyRequestedFields() {
+        String body = run(filter(List.of()), "/tasks?fields=userMessage,tasks.exercises", MediaType.APPLICATION_JSON);
+
+        assertEquals("{\"userMessage\":\"ok\",\"tasks\":[{\"exercises\":\"walk\"},{\"exercises\":\"swim\"}]}", body);
+    }
+
+    @Test
+    void shouldRedactConfiguredFields() {
+        String body = run(filter(List.of("tasks.vitals")), "/tasks", MediaType.APPLICATION_JSON);
+
+        assertEquals(BODY.replace("{\"hr\":[72,75]}", "\"***\"").replace("{\"hr\":[80]}", "\"***\""), body);
+    }
+
+    @Test
+    void shouldRedactInsideProjectedSubtree() {
+        String body = run(filter(List.of("tasks.vitals")), "/tasks?fields=tasks", MediaType.APPLICATION_JSON);
+
+        assertEquals("{\"tasks\":[{\"exercises\":\"walk\",\"vitals\":\"***\",\"questionnaires\":null},"
+                + "{\"exercises\":\"swim\",\"vitals\":\"***\",\"questionnaires\":\"phq9\"}]}", body);
+    }
+
+    @Test
+    void shouldKeepNumberTextByteForByte() {
+        String body = "{\"price\":1.10,\"rate\":0.1000000000000000055511151231257827,"
+                + "\"total\":12345678901234567890.123456789,\"big\":123456789012345678901234567890,"
+                + "\"negative\":-0.50,\"exponent\":1.5E+3,\"vitals\":{\"hr\":72}}";
+
+        String redacted = run(filter(List.of("vitals")), "/tasks", MediaType.APPLICATION_JSON, body);
+        String projected = run(filter(List.of()), "/tasks?fields=price,rate,total", MediaType.APPLICATION_JSON, body);
+
+        assertEquals(body.replace("{\"hr\":72}", "\"***\""), redacted);
+        assertEquals("{\"price\":1.10,\"rate\":0.1000000000000000055511151231257827,"
+                + "\"total\":12345678901234567890.123456789}", projected);
+    }
+
+    @Test
+    void shouldPassNonJsonResponsesThrough() {
+        String body = run(filter(List.of("tasks.vitals")), "/tasks?fields=count", MediaType.TEXT_PLAIN);
+
+        assertEquals(BODY, body);
+    }
+
+    @Test
+    void shouldRedactErrorResponses() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/tasks?fields=count"));
+        filter(List.of("tasks.vitals")).filter(exchange, upstream(HttpStatus.INTERNAL_SERVER_ERROR, MediaType.APPLICATION_JSON)).block();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exchange.getResponse().getStatusCode());
+        assertEquals(BODY.replace("{\"hr\":[72,75]}", "\"***\"").replace("{\"hr\":[80]}", "\"***\""),
+                exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void shouldFailClosedOnGzipBodyWhenRedacting() {
+        AtomicReference<HttpHeaders> upstreamRequestHeaders = new AtomicReference<>();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/tasks")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        filter(List.of("tasks.vitals")).filter(exchange, forwarded -> {
+            upstreamRequestHeaders.set(forwarded.getRequest().getHeaders());
+            forwarded.getResponse().setStatusCode(HttpStatus.OK);
+            forwarded.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            forwarded.getResponse().getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return forwarded.getResponse().writeWith(Flux.just(forwarded.getResponse().bufferFactory().wrap(gzip(BODY))));
+        }).block();
+
+        assertFalse(upstreamRequestHeaders.get().containsKey(HttpHeaders.ACCEPT_ENCODING));
+        assertEquals(HttpStatus.BAD_GATEWAY, exchange.getResponse().getStatusCode());
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("", exchange.getResponse().getBodyAsString().defaultIfEmpty("").block());
+    }
+
+    @Test
+    void shouldKeepAcceptEncodingWithoutRedaction() {
+        AtomicReference<HttpHeaders> upstreamRequestHeaders = new AtomicReference<>();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/tasks?fields=count")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        filter(List.of()).filter(exchange, forwarded -> {
+            upstreamRequestHeaders.set(forwarded.getRequest().getHeaders());
+            return upstream(HttpStatus.OK, MediaType.APPLICATION_JSON).filter(forwarded);
+        }).block();
+
+        assertEquals("gzip", upstreamRequestHeaders.get().getFirst(HttpHeaders.ACCEPT_ENCODING));
+        assertEquals("{\"count\":2}", exchange.getResponse().getBodyAsString().block());
+    }
+
+    private GatewayFilter filter(List<String> redact) {
+        JsonProjectionGatewayFilterFactory.Config config = new JsonProjectionGatewayFilterFactory.Config();
+        config.setRouteId("tasks");
+        config.setRedact(redact);
+        return factory.apply(config);
+    }
+
+    private static String run(GatewayFilter filter, String uri, MediaType contentType) {
+        return run(filter, uri, contentType, BODY);
+    }
+
+    private static String run(GatewayFilter filter, String uri, MediaType contentType, String body) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+        filter.filter(exchange, upstream(HttpStatus.OK, contentType, body)).block();
+        assertNull(exchange.getResponse().getHeaders().getFirst("Content-Length"));
+        return exchange.getResponse().getBodyAsString().block();
+    }
+
+    /**
+     * Writes the body in 5 byte buffers so tokens are split across buffers.
+     */
+    private static GatewayFilterChain upstream(HttpStatus status, MediaType contentType) {
+        return upstream(status, contentType, BODY);
+    }
+
+    private static GatewayFilterChain upstream(HttpStatus status, MediaType contentType, String body) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(status);
+            exchange.getResponse().getHeaders().setContentType(contentType);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Flux.range(0, (bytes.length + 4) / 5)
+                    .map(i -> exchange.getResponse().bufferFactory()
+                            .wrap(Arrays.copyOfRange(bytes, i * 5, Math.min(bytes.length, i * 5 + 5)))));
+        };
+    }
+
+    private static byte[] gzip(String body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
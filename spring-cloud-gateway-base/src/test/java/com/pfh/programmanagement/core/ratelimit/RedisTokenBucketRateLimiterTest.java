@@ -0,0 +1,80 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisTokenBucketRateLimiterTest {
+
+    private RedisServer server;
+    private LettuceConnectionFactory connectionFactory;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(server.getHost(), server.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @Test
+    void shouldShareBucketsBetweenNodes() {
+        LocalRateLimiter routeLimits = new LocalRateLimiter("route", 1, 3);
+        RedisTokenBucketRateLimiter nodeA = newLimiter(1);
+        RedisTokenBucketRateLimiter nodeB = newLimiter(1);
+
+        assertEquals(2, nodeA.tryAcquire(routeLimits, "user", 1).block());
+        assertEquals(1, nodeB.tryAcquire(routeLimits, "user", 1).block());
+        assertEquals(0, nodeA.tryAcquire(routeLimits, "user", 1).block());
+        assertTrue(nodeB.tryAcquire(routeLimits, "user", 1).block() < 0);
+        assertEquals(2, nodeB.tryAcquire(routeLimits, "other", 1).block());
+    }
+
+    @Test
+    void shouldServeLeasedPermitsLocally() {
+        LocalRateLimiter routeLimits = new LocalRateLimiter("route", 1, 4);
+        RedisTokenBucketRateLimiter leasing = newLimiter(4);
+        RedisTokenBucketRateLimiter other = newLimiter(1);
+
+        assertTrue(leasing.tryAcquire(routeLimits, "user", 1).block() >= 0);
+        assertTrue(other.tryAcquire(routeLimits, "user", 1).block() < 0);
+        assertEquals(2, leasing.tryAcquire(routeLimits, "user", 1).block());
+        assertEquals(1, leasing.tryAcquire(routeLimits, "user", 1).block());
+        assertEquals(0, leasing.tryAcquire(routeLimits, "user", 1).block());
+        assertTrue(leasing.tryAcquire(routeLimits, "user", 1).block() < 0);
+    }
+
+    @Test
+    void shouldFallBackToLocalBucketsWhenStoreIsUnreachable() throws IOException {
+        LocalRateLimiter routeLimits = new LocalRateLimiter("route", 1, 2);
+        RedisTokenBucketRateLimiter limiter = newLimiter(1);
+        server.stop();
+
+        assertEquals(1, limiter.tryAcquire(routeLimits, "user", 1).block());
+        assertEquals(0, limiter.tryAcquire(routeLimits, "user", 1).block());
+        assertTrue(limiter.tryAcquire(routeLimits, "user", 1).block() < 0);
+        assertTrue(meterRegistry.counter("gateway.rate-limiter.backend", "outcome", "fallback").count() >= 3);
+    }
+
+    private RedisTokenBucketRateLimiter newLimiter(int batchSize) {
+        return new RedisTokenBucketRateLimiter(new ReactiveStringRedisTemplate(connectionFactory), meterRegistry,
+                500, 1000, batchSize, 1000);
+    }
+}
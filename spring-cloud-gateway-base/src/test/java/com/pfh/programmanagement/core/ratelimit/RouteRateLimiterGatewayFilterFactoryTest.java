@@ -0,0 +1,49 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteRateLimiterGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RouteRateLimiterGatewayFilterFactory factory = new RouteRateLimiterGatewayFilterFactory(
+            new LocalRateLimiterRegistry(meterRegistry, 60_000, 10_000), new LocalBucketRateLimiter(), meterRegistry);
+
+    @Test
+    void shouldRejectNonPositiveReplenishRate() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> factory.apply(config(0, 20)));
+        assertTrue(error.getMessage().contains("replenishRate"), error.getMessage());
+    }
+
+    @Test
+    void shouldRejectEmptyBurstCapacity() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> factory.apply(config(10, 0)));
+        assertTrue(error.getMessage().contains("burstCapacity"), error.getMessage());
+    }
+
+    @Test
+    void shouldAcceptSingleTokenBucket() {
+        assertNotNull(factory.apply(config(1, 1)));
+    }
+
+    @Test
+    void shouldKeepDeprecatedFilterName() {
+        @SuppressWarnings("deprecation")
+        LocalRateLimiterGatewayFilterFactory deprecated = new LocalRateLimiterGatewayFilterFactory(
+                new LocalRateLimiterRegistry(meterRegistry, 60_000, 10_000), new LocalBucketRateLimiter(), meterRegistry);
+
+        assertEquals("RouteRateLimiter", factory.name());
+        assertEquals("LocalRateLimiter", deprecated.name());
+        assertNotNull(deprecated.apply(config(1, 1)));
+    }
+
+    private static RouteRateLimiterGatewayFilterFactory.Config config(long replenishRate, long burstCapacity) {
+        RouteRateLimiterGatewayFilterFactory.Config config = new RouteRateLimiterGatewayFilterFactory.Config();
+        config.setRouteId("tasks");
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        return config;
+    }
+}
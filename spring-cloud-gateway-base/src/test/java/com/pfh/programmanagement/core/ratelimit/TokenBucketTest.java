@@ -0,0 +1,48 @@
+package com.tanvir.gateway.core.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long EMISSION_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void shouldAllowBurstCapacityAndThenReject() {
+        long now = 1_000_000_000L;
+        TokenBucket bucket = new TokenBucket(EMISSION_INTERVAL_NANOS, 3, now);
+
+        assertEquals(2, bucket.tryAcquire(now, 1));
+        assertEquals(1, bucket.tryAcquire(now, 1));
+        assertEquals(0, bucket.tryAcquire(now, 1));
+
+        long rejected = bucket.tryAcquire(now, 1);
+        assertTrue(rejected < 0);
+        assertEquals(EMISSION_INTERVAL_NANOS, -rejected);
+    }
+
+    @Test
+    void shouldRefillLazilyWithoutExceedingCapacity() {
+        long now = -5_000_000_000L;
+        TokenBucket bucket = new TokenBucket(EMISSION_INTERVAL_NANOS, 2, now);
+        bucket.tryAcquire(now, 2);
+
+        assertTrue(bucket.tryAcquire(now + EMISSION_INTERVAL_NANOS / 2, 1) < 0);
+        assertEquals(0, bucket.tryAcquire(now + EMISSION_INTERVAL_NANOS, 1));
+        assertEquals(1, bucket.tryAcquire(now + TimeUnit.SECONDS.toNanos(10), 1));
+    }
+
+    @Test
+    void shouldBecomeIdleOnlyAfterBeingFullForTheIdleTimeout() {
+        long now = 0L;
+        TokenBucket bucket = new TokenBucket(EMISSION_INTERVAL_NANOS, 2, now);
+        bucket.tryAcquire(now, 2);
+        long idleTimeout = TimeUnit.SECONDS.toNanos(1);
+
+        assertFalse(bucket.isIdle(now + 2 * EMISSION_INTERVAL_NANOS, idleTimeout));
+        assertTrue(bucket.isIdle(now + 2 * EMISSION_INTERVAL_NANOS + idleTimeout, idleTimeout));
+    }
+}
@@ -0,0 +1,106 @@
+package com.tanvir.gateway.core.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tanvir.gateway.core.filters.ExchangeAttributes;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebHandler;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FallbackHandlerTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private FallbackProperties fallbackProperties;
+
+    @BeforeEach
+    void setUp() {
+        fallbackProperties = new FallbackProperties();
+    }
+
+    @Test
+    void shouldServeDefaultFallbackWhenBreakerIsOpen() {
+        CircuitBreaker breaker = CircuitBreaker.ofDefaults("programTaskService");
+        breaker.transitionToOpenState();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/program/client/task/list"));
+
+        callThroughBreaker(breaker, exchange, "program-task-service").block();
+
+        assertEquals(0, upstreamCalls.get());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals(MediaType.APPLICATION_JSON, headers.getContentType());
+        assertEquals("no-store", headers.getCacheControl());
+        assertEquals("{\"status\":503,\"error\":\"Service Unavailable\",\"message\":\"program-task-service is temporarily unavailable\"}",
+                exchange.getResponse().getBodyAsString().block());
+        assertEquals(Boolean.TRUE, exchange.getAttribute(ExchangeAttributes.FALLBACK_RESPONSE.getValue()));
+    }
+
+    @Test
+    void shouldServeConfiguredFallbackWithNoStore() {
+        FallbackProperties.Response response = new FallbackProperties.Response();
+        response.setBody("{\"userMessage\":\"Tasks are temporarily unavailable\",\"tasks\":[]}");
+        fallbackProperties.getResponses().put("program-task-service", response);
+        CircuitBreaker breaker = CircuitBreaker.ofDefaults("programTaskService");
+        breaker.transitionToOpenState();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/program/client/task/list"));
+
+        callThroughBreaker(breaker, exchange, "program-task-service").block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals("no-store", exchange.getResponse().getHeaders().getCacheControl());
+        assertEquals("{\"userMessage\":\"Tasks are temporarily unavailable\",\"tasks\":[]}",
+                exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void shouldCallUpstreamWhileBreakerIsClosed() {
+        CircuitBreaker breaker = CircuitBreaker.ofDefaults("programTaskService");
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/program/client/task/list"));
+
+        callThroughBreaker(breaker, exchange, "program-task-service").block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertNull(exchange.getAttribute(ExchangeAttributes.FALLBACK_RESPONSE.getValue()));
+    }
+
+    @Test
+    void shouldAnswerUnknownServicesWithDefault() {
+        CircuitBreaker breaker = CircuitBreaker.ofDefaults("unknown");
+        breaker.transitionToOpenState();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/anything"));
+
+        callThroughBreaker(breaker, exchange, "not-configured").block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals("no-store", exchange.getResponse().getHeaders().getCacheControl());
+    }
+
+    private Mono<Void> callThroughBreaker(CircuitBreaker breaker, ServerWebExchange exchange, String service) {
+        FallbackHandler handler = new FallbackHandler(fallbackProperties, new ObjectMapper());
+        WebHandler fallback = RouterFunctions.toWebHandler(new FallbackRouter().fallbackRoutes(handler));
+        return Mono.defer(() -> {
+                    upstreamCalls.incrementAndGet();
+                    exchange.getResponse().setStatusCode(HttpStatus.OK);
+                    return exchange.getResponse().setComplete();
+                })
+                .transformDeferred(CircuitBreakerOperator.of(breaker))
+                .onErrorResume(CallNotPermittedException.class, e -> fallback.handle(exchange.mutate()
+                        .request(request -> request.path("/fallback/" + service))
+                        .build()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.tanvir.gateway.core.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.StripPrefixGatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileRouteDefinitionLocatorTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Object> events = new ArrayList<>();
+    private Path file;
+    private FileRouteDefinitionLocator locator;
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void setUp() throws IOException {
+        file = directory.resolve("routes.json");
+        write("tenant-acme", "Path=/tenants/acme/**", "StripPrefix=2");
+        RouteTableProperties properties = new RouteTableProperties();
+        properties.setFile(file.toString());
+        properties.setWatch(false);
+        ObjectProvider<List<RoutePredicateFactory>> predicateFactories = mock(ObjectProvider.class);
+        when(predicateFactories.getIfAvailable(any())).thenReturn(List.of(new PathRoutePredicateFactory()));
+        ObjectProvider<List<GatewayFilterFactory>> filterFactories = mock(ObjectProvider.class);
+        when(filterFactories.getIfAvailable(any())).thenReturn(List.of(new StripPrefixGatewayFilterFactory()));
+        locator = new FileRouteDefinitionLocator(properties, new ObjectMapper(), events::add, predicateFactories, filterFactories);
+        locator.start();
+    }
+
+    @Test
+    void shouldRejectUnknownPredicateAndKeepCurrentRoutes() throws IOException {
+        write("tenant-beta", "Paht=/tenants/beta/**", "StripPrefix=2");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, locator::reload);
+
+        assertTrue(error.getMessage().contains("Paht"), error.getMessage());
+        assertEquals(List.of("tenant-acme"), routeIds());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void shouldRejectUnknownFilterAndKeepCurrentRoutes() throws IOException {
+        write("tenant-beta", "Path=/tenants/beta/**", "StripPrefixes=2");
+
+        assertThrows(IllegalArgumentException.class, locator::reload);
+
+        assertEquals(List.of("tenant-acme"), routeIds());
+    }
+
+    @Test
+    void shouldRestorePreviousRoutesWhenRefreshFails() throws IOException {
+        write("tenant-beta", "Path=/tenants/beta/**", "StripPrefix=2");
+        locator.reload();
+        assertEquals(List.of("tenant-beta"), routeIds());
+
+        locator.onRefreshResult(new RefreshRoutesResultEvent(this, new IllegalArgumentException("bad route")));
+
+        assertEquals(List.of("tenant-acme"), routeIds());
+        assertEquals(2, events.stream().filter(RefreshRoutesEvent.class::isInstance).count());
+    }
+
+    @Test
+    void shouldKeepNewRoutesOnceRefreshSucceeded() throws IOException {
+        write("tenant-beta", "Path=/tenants/beta/**", "StripPrefix=2");
+        locator.reload();
+
+        locator.onRefreshResult(new RefreshRoutesResultEvent(this));
+        locator.onRefreshResult(new RefreshRoutesResultEvent(this, new IllegalArgumentException("unrelated")));
+
+        assertEquals(List.of("tenant-beta"), routeIds());
+        assertEquals(1, events.size());
+    }
+
+    private List<String> routeIds() {
+        return locator.getRouteDefinitions().map(RouteDefinition::getId).collectList().block();
+    }
+
+    private void write(String id, String predicate, String filter) throws IOException {
+        Files.writeString(file, """
+                [{"id": "%s", "uri": "http://localhost:8081", "predicates": ["%s"], "filters": ["%s"]}]
+                """.formatted(id, predicate, filter));
+    }
+}
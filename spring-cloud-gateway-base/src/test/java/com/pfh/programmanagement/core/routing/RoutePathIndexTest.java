@@ -0,0 +1,97 @@
+package com.tanvir.gateway.core.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutePathIndexTest {
+
+    private final Route tasks = pathRoute("tasks", "/api/v1/program/client/task/list");
+    private final Route admin = pathRoute("admin", "/api/v1/admin/**");
+    private final Route login = pathRoute("login", "/login/**", "/logout");
+    private final Route tenant = pathRoute("tenant", "/tenants/{tenant}/**");
+    private final Route anyGet = methodRoute("any-get");
+
+    private final RoutePathIndex index = RoutePathIndex.compile(List.of(tasks, admin, login, anyGet, tenant));
+
+    @Test
+    void shouldReturnOnlyRoutesWithMatchingPrefix() {
+        assertEquals(List.of(tasks, anyGet), index.candidates(path("/api/v1/program/client/task/list")));
+        assertEquals(List.of(admin, anyGet), index.candidates(path("/api/v1/admin/users/42")));
+        assertEquals(List.of(login, anyGet), index.candidates(path("/logout")));
+    }
+
+    @Test
+    void shouldIndexUpToFirstVariableSegment() {
+        assertEquals(List.of(anyGet, tenant), index.candidates(path("/tenants/acme/orders")));
+    }
+
+    @Test
+    void shouldKeepRoutesWithoutPathPredicateAsCandidates() {
+        assertEquals(List.of(anyGet), index.candidates(path("/unknown")));
+        assertEquals(5, index.size());
+        assertEquals(1, index.unindexedSize());
+    }
+
+    @Test
+    void shouldIndexPathAndedWithOtherPredicates() {
+        Route adminGet = route("admin-get", pathPredicate("/api/v1/admin/**").and(methodPredicate()));
+        RoutePathIndex anded = RoutePathIndex.compile(List.of(adminGet));
+
+        assertEquals(0, anded.unindexedSize());
+        assertEquals(List.of(adminGet), anded.candidates(path("/api/v1/admin/users")));
+        assertEquals(List.of(), anded.candidates(path("/unknown")));
+    }
+
+    @Test
+    void shouldNotIndexOredOrNegatedPath() {
+        Route adminOrGet = route("admin-or-get", pathPredicate("/api/v1/admin/**").or(methodPredicate()));
+        Route notAdmin = route("not-admin", pathPredicate("/api/v1/admin/**").negate());
+        RoutePathIndex mixed = RoutePathIndex.compile(List.of(tasks, adminOrGet, notAdmin));
+
+        assertEquals(2, mixed.unindexedSize());
+        assertEquals(List.of(adminOrGet, notAdmin), mixed.candidates(path("/unknown")));
+    }
+
+    @Test
+    void shouldMatchDecodedSegments() {
+        assertEquals(List.of(admin, anyGet), index.candidates(path("/api/v1/%61dmin/users")));
+    }
+
+    private static PathContainer path(String rawPath) {
+        return PathContainer.parsePath(rawPath);
+    }
+
+    private static Route pathRoute(String id, String... patterns) {
+        return route(id, pathPredicate(patterns));
+    }
+
+    private static Route methodRoute(String id) {
+        return route(id, methodPredicate());
+    }
+
+    private static AsyncPredicate<ServerWebExchange> pathPredicate(String... patterns) {
+        PathRoutePredicateFactory.Config config = new PathRoutePredicateFactory.Config();
+        config.setPatterns(List.of(patterns));
+        return new PathRoutePredicateFactory().applyAsync(config);
+    }
+
+    private static AsyncPredicate<ServerWebExchange> methodPredicate() {
+        MethodRoutePredicateFactory.Config config = new MethodRoutePredicateFactory.Config();
+        config.setMethods(HttpMethod.GET);
+        return new MethodRoutePredicateFactory().applyAsync(config);
+    }
+
+    private static Route route(String id, AsyncPredicate<ServerWebExchange> predicate) {
+        return Route.async().id(id).uri("http://localhost:8081").asyncPredicate(predicate).build();
+    }
+}
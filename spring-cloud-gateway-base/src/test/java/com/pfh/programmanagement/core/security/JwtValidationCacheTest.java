@@ -0,0 +1,54 @@
+package com.tanvir.gateway.core.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtValidationCacheTest {
+
+    private final JwtValidationCache cache = new JwtValidationCache(new SimpleMeterRegistry(), 100, 300);
+
+    @Test
+    void shouldReturnCachedAuthenticationForSameToken() {
+        JwtAuthenticationToken authentication = authentication("alice", Instant.now().plusSeconds(60));
+        cache.put("token-a", authentication);
+
+        assertSame(authentication, cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+    }
+
+    @Test
+    void shouldNotCacheExpiredTokens() {
+        cache.put("token-a", authentication("alice", Instant.now().minusSeconds(1)));
+
+        assertNull(cache.get("token-a"));
+    }
+
+    @Test
+    void shouldInvalidateAllTokensOfSubject() {
+        cache.put("token-a", authentication("alice", Instant.now().plusSeconds(60)));
+        cache.put("token-b", authentication("alice", Instant.now().plusSeconds(60)));
+        cache.put("token-c", authentication("bob", Instant.now().plusSeconds(60)));
+
+        assertEquals(2, cache.invalidateSubject("alice"));
+        assertNull(cache.get("token-a"));
+        assertNotNull(cache.get("token-c"));
+    }
+
+    private static JwtAuthenticationToken authentication(String subject, Instant expiresAt) {
+        Jwt jwt = Jwt.withTokenValue("value")
+                .header("alg", "RS256")
+                .subject(subject)
+                .issuedAt(expiresAt.minusSeconds(120))
+                .expiresAt(expiresAt)
+                .build();
+        return new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
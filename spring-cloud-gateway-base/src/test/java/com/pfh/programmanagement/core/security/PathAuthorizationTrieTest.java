@@ -0,0 +1,79 @@
+package com.tanvir.gateway.core.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathAuthorizationTrieTest {
+
+    private final PathAuthorizationTrie trie = PathAuthorizationTrie.compile(List.of(
+            rule("/auth/**", AuthorizationAccess.PERMIT_ALL),
+            rule("/api/v1/**", AuthorizationAccess.AUTHENTICATED),
+            rule("/api/v1/admin/**", AuthorizationAccess.AUTHENTICATED, "ADMIN"),
+            rule("/api/v1/*/reports", AuthorizationAccess.DENY_ALL),
+            rule("/api/v1/program/client/task/list", AuthorizationAccess.AUTHENTICATED, "USER")
+    ), AuthorizationAccess.DENY_ALL);
+
+    @Test
+    void shouldPreferMostSpecificRule() {
+        assertEquals(Set.of("ROLE_USER"), trie.match("/api/v1/program/client/task/list").getAuthorities());
+        assertEquals(Set.of("ROLE_ADMIN"), trie.match("/api/v1/admin/users/7").getAuthorities());
+        assertEquals(AuthorizationAccess.DENY_ALL, trie.match("/api/v1/program/reports").getAccess());
+        assertEquals(Set.of(), trie.match("/api/v1/program/client/task/other").getAuthorities());
+    }
+
+    @Test
+    void shouldMatchDoubleWildcardWithZeroSegments() {
+        assertTrue(trie.match("/auth").isPermitAll());
+        assertTrue(trie.match("/auth/").isPermitAll());
+        assertTrue(trie.match("/auth/oauth2/token").isPermitAll());
+    }
+
+    @Test
+    void shouldMatchPercentEncodedSegmentsDecoded() {
+        assertEquals(Set.of("ROLE_ADMIN"), trie.match("/api/v1/%61dmin/users/7").getAuthorities());
+        assertEquals(Set.of("ROLE_USER"), trie.match("/api/v1/program/client/task/%6Cist").getAuthorities());
+    }
+
+    @Test
+    void shouldIgnoreMatrixParameters() {
+        assertEquals(Set.of("ROLE_ADMIN"), trie.match("/api/v1/admin;x=1/users").getAuthorities());
+        assertEquals(Set.of("ROLE_ADMIN"), trie.match("/api/v1;a=b/admin").getAuthorities());
+        assertEquals(AuthorizationAccess.DENY_ALL, trie.match("/api/v1/program/reports;jsessionid=1").getAccess());
+    }
+
+    @Test
+    void shouldNotLetEncodedActuatorPathFallToDefault() {
+        PathAuthorizationTrie actuator = PathAuthorizationTrie.compile(List.of(
+                rule("/actuator/health", AuthorizationAccess.AUTHENTICATED),
+                rule("/actuator/**", AuthorizationAccess.AUTHENTICATED, "ADMIN")
+        ), AuthorizationAccess.AUTHENTICATED);
+
+        assertEquals(Set.of("ROLE_ADMIN"), actuator.match("/%61ctuator/routetable").getAuthorities());
+        assertEquals(Set.of("ROLE_ADMIN"), actuator.match("/actuator;x=1/jfr").getAuthorities());
+        assertEquals(Set.of(), actuator.match("/actuator/health;v=1").getAuthorities());
+    }
+
+    @Test
+    void shouldFallBackToDefaultAccess() {
+        assertEquals(AuthorizationAccess.DENY_ALL, trie.match("/unknown").getAccess());
+        assertEquals(AuthorizationAccess.DENY_ALL, trie.match("/").getAccess());
+    }
+
+    @Test
+    void shouldRejectDoubleWildcardInTheMiddle() {
+        assertThrows(IllegalArgumentException.class, () -> PathAuthorizationTrie.compile(
+                List.of(rule("/api/**/items", AuthorizationAccess.AUTHENTICATED)), AuthorizationAccess.AUTHENTICATED));
+    }
+
+    private static AuthorizationProperties.Rule rule(String path, AuthorizationAccess access, String... roles) {
+        AuthorizationProperties.Rule rule = new AuthorizationProperties.Rule();
+        rule.setPath(path);
+        rule.setAccess(access);
+        rule.setRoles(List.of(roles));
+        return rule;
+    }
+}
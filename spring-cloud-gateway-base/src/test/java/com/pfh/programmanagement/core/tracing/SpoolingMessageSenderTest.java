@@ -0,0 +1,141 @@
+package com.tanvir.gateway.core.tracing;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import zipkin2.reporter.Encoding;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpoolingMessageSenderTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger collectorStatus = new AtomicInteger(202);
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer collector;
+
+    @BeforeEach
+    void startCollector() throws IOException {
+        collector = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        collector.createContext("/api/v2/spans", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            int status = collectorStatus.get();
+            if (status == 202) {
+                received.add(body);
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        collector.start();
+    }
+
+    @AfterEach
+    void stopCollector() {
+        collector.stop(0);
+    }
+
+    @Test
+    void shouldPostBatchWhileCollectorIsUp() throws IOException {
+        try (SpoolingMessageSender sender = sender()) {
+            sender.send(List.of(span("a"), span("b")));
+        }
+
+        assertEquals(List.of("[" + new String(span("a")) + "," + new String(span("b")) + "]"), received);
+    }
+
+    @Test
+    void shouldSpoolWhileCollectorIsDownAndReplayInOrder() throws IOException {
+        try (SpoolingMessageSender sender = sender()) {
+            collectorStatus.set(503);
+            sender.send(List.of(span("a")));
+            sender.send(List.of(span("b")));
+            assertEquals(2, meterRegistry.get(SpoolingMessageSender.METRIC_PREFIX + ".depth").gauge().value());
+            assertEquals(2, meterRegistry.get(SpoolingMessageSender.METRIC_PREFIX + ".messages").tag("outcome", "spooled").counter().count());
+
+            collectorStatus.set(202);
+            sender.replay();
+
+            assertEquals(List.of("[" + new String(span("a")) + "]", "[" + new String(span("b")) + "]"), received);
+            assertEquals(0, meterRegistry.get(SpoolingMessageSender.METRIC_PREFIX + ".bytes").gauge().value());
+        }
+    }
+
+    @Test
+    void shouldKeepSpoolAcrossRestartsAndWrapAround() throws IOException {
+        Path file = directory.resolve("ring.dat");
+        try (SpoolFile spool = new SpoolFile(file, 32 + 40)) {
+            assertTrue(spool.append(bytes("0123456789")));
+            assertTrue(spool.append(bytes("abcdefghij")));
+            assertFalse(spool.append(bytes("0123456789abcdefghij")), "full");
+            spool.removeFirst();
+        }
+        try (SpoolFile spool = new SpoolFile(file, 32 + 40)) {
+            assertEquals(1, spool.messageCount());
+            assertTrue(spool.append(bytes("wrapped-1")));
+            assertEquals("abcdefghij", new String(spool.peek(), StandardCharsets.UTF_8));
+            spool.removeFirst();
+            assertEquals("wrapped-1", new String(spool.peek(), StandardCharsets.UTF_8));
+            spool.removeFirst();
+            assertNull(spool.peek());
+            assertEquals(0, spool.sizeInBytes());
+        }
+    }
+
+    @Test
+    void shouldEmptySpoolWhenMessageLengthIsCorrupt() throws IOException {
+        Path file = directory.resolve("corrupt.dat");
+        try (SpoolFile spool = new SpoolFile(file, 32 + 40)) {
+            assertTrue(spool.append(bytes("0123456789")));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(32);
+            raw.writeInt(1_000_000);
+        }
+        try (SpoolFile spool = new SpoolFile(file, 32 + 40)) {
+            assertNull(spool.peek());
+            assertEquals(0, spool.sizeInBytes());
+            assertEquals(0, spool.messageCount());
+            assertTrue(spool.append(bytes("fresh")));
+            assertEquals("fresh", new String(spool.peek(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void shouldRejectSpoolWithoutRoomForMessages() {
+        assertThrows(IllegalArgumentException.class, () -> new SpoolFile(directory.resolve("tiny.dat"), 32));
+    }
+
+    private SpoolingMessageSender sender() throws IOException {
+        ZipkinReporterProperties.Spool spool = new ZipkinReporterProperties.Spool();
+        spool.setSizeBytes(64 * 1024);
+        spool.setRetryIntervalMs(60_000);
+        URI endpoint = URI.create("http://127.0.0.1:" + collector.getAddress().getPort() + "/api/v2/spans");
+        return new SpoolingMessageSender(endpoint, Encoding.JSON, Duration.ofSeconds(1), Duration.ofSeconds(1), spool,
+                directory.resolve("spool.dat"), meterRegistry);
+    }
+
+    private static byte[] span(String id) {
+        return bytes("{\"traceId\":\"" + id + "\"}");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,137 @@
+package com.tanvir.gateway.core.tracing;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TailSamplingSpanHandlerTest {
+
+    private final List<MutableSpan> reported = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Tracing tracing;
+
+    @AfterEach
+    void close() {
+        tracing.close();
+    }
+
+    @Test
+    void shouldDropFastTraceThatWasNotHeadSampled() {
+        Tracer tracer = tracer(Sampler.NEVER_SAMPLE, 1000);
+
+        finishTrace(tracer, 200_000, false);
+
+        assertTrue(reported.isEmpty());
+        assertEquals(1, meterRegistry.counter(TailSamplingSpanHandler.METRIC_NAME, "decision", "dropped").count());
+    }
+
+    @Test
+    void shouldReportWholeSlowTraceThroughSampledContext() {
+        Tracer tracer = tracer(Sampler.NEVER_SAMPLE, 100);
+
+        finishTrace(tracer, 200_000, false);
+
+        assertEquals(2, reported.size());
+        assertEquals("child", reported.get(0).name());
+        assertEquals("root", reported.get(1).name());
+        assertEquals(1, meterRegistry.counter(TailSamplingSpanHandler.METRIC_NAME, "decision", "slow").count());
+    }
+
+    @Test
+    void shouldKeepTraceWhenOnlyAChildFailed() {
+        Tracer tracer = tracer(Sampler.NEVER_SAMPLE, 1000);
+
+        finishTrace(tracer, 1_000, true);
+
+        assertEquals(2, reported.size());
+        assertEquals(1, meterRegistry.counter(TailSamplingSpanHandler.METRIC_NAME, "decision", "error").count());
+    }
+
+    @Test
+    void shouldReportOnlySpansOfKeptTraceWhenTracesInterleave() {
+        Tracer tracer = tracer(Sampler.NEVER_SAMPLE, 100);
+        Span slowRoot = tracer.newTrace().name("slow-root").start(1_000_000);
+        Span fastRoot = tracer.newTrace().name("fast-root").start(1_000_000);
+        for (int i = 0; i < 3; i++) {
+            tracer.newChild(slowRoot.context()).name("slow-child").start(1_000_010).finish(1_000_020);
+            tracer.newChild(fastRoot.context()).name("fast-child").start(1_000_010).finish(1_000_020);
+        }
+
+        fastRoot.finish(1_001_000);
+        slowRoot.finish(1_200_000);
+
+        assertEquals(List.of("slow-child", "slow-child", "slow-child", "slow-root"),
+                reported.stream().map(MutableSpan::name).toList());
+    }
+
+    @Test
+    void shouldLoseOnlyOverwrittenSpansOfKeptTrace() {
+        Tracer tracer = tracer(Sampler.NEVER_SAMPLE, 100);
+        Span root = tracer.newTrace().name("root").start(1_000_000);
+        for (int i = 0; i < 20; i++) {
+            tracer.newChild(root.context()).name("child-" + i).start(1_000_010).finish(1_000_020);
+        }
+
+        root.finish(1_200_000);
+
+        assertEquals(17, reported.size(), "16 buffered children and the root");
+        assertEquals("child-19", reported.get(0).name());
+        assertEquals("root", reported.get(16).name());
+    }
+
+    @Test
+    void shouldReportHeadSampledSpansAsTheyEnd() {
+        Tracer tracer = tracer(Sampler.ALWAYS_SAMPLE, 1000);
+
+        finishTrace(tracer, 1_000, false);
+
+        assertEquals(2, reported.size());
+        assertEquals(1, meterRegistry.counter(TailSamplingSpanHandler.METRIC_NAME, "decision", "head").count());
+    }
+
+    private Tracer tracer(Sampler sampler, long thresholdMs) {
+        TailSamplingProperties properties = new TailSamplingProperties();
+        properties.setLatencyThresholdMs(thresholdMs);
+        properties.setBufferSize(16);
+        SpanHandler reporter = new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                if (Boolean.TRUE.equals(context.sampled())) {
+                    reported.add(span);
+                }
+                return true;
+            }
+        };
+        tracing = Tracing.newBuilder()
+                .sampler(sampler)
+                .alwaysSampleLocal()
+                .addSpanHandler(new TailSamplingSpanHandler(List.of(reporter), properties, meterRegistry))
+                .build();
+        return tracing.tracer();
+    }
+
+    /**
+     * A root span lasting {@code durationMicros} with one child that ends first.
+     */
+    private static void finishTrace(Tracer tracer, long durationMicros, boolean childFails) {
+        Span root = tracer.newTrace().name("root").start(1_000_000);
+        Span child = tracer.newChild(root.context()).name("child").start(1_000_010);
+        if (childFails) {
+            child.error(new IllegalStateException("upstream failed"));
+        }
+        child.finish(1_000_020);
+        root.finish(1_000_000 + durationMicros);
+    }
+}
@@ -0,0 +1,121 @@
+package com.tanvir.gateway.core.tracing;
+
+import brave.Tracing;
+import brave.propagation.CurrentTraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.brave.bridge.BraveBaggageManager;
+import io.micrometer.tracing.brave.bridge.BraveCurrentTraceContext;
+import io.micrometer.tracing.brave.bridge.BraveTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceContextResolverTest {
+
+    private static final String TRACE_PARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private final Tracing tracing = Tracing.newBuilder().build();
+    private final Tracer tracer = new BraveTracer(tracing.tracer(),
+            new BraveCurrentTraceContext(tracing.currentTraceContext()), new BraveBaggageManager());
+
+    @AfterEach
+    void close() {
+        tracing.close();
+    }
+
+    @Test
+    void shouldRoundTripTraceParent() {
+        TraceParent parsed = TraceParent.parse(TRACE_PARENT);
+
+        assertNotNull(parsed);
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", parsed.traceId());
+        assertEquals("00f067aa0ba902b7", parsed.spanId());
+        assertTrue(parsed.sampled());
+        assertEquals(TRACE_PARENT, parsed.format());
+    }
+
+    @Test
+    void shouldRejectMalformedTraceParent() {
+        assertNull(TraceParent.parse(null));
+        assertNull(TraceParent.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01"));
+        assertNull(TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01"));
+        assertNull(TraceParent.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01"));
+        assertNull(TraceParent.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+        assertNull(TraceParent.parse(TRACE_PARENT + "-extra"));
+        assertNotNull(TraceParent.parse("01" + TRACE_PARENT.substring(2) + "-extra"));
+    }
+
+    @Test
+    void shouldGenerateLowerHexIds() {
+        String traceId = TraceIds.newTraceId();
+        String spanId = TraceIds.newSpanId();
+
+        assertTrue(traceId.matches("[0-9a-f]{32}"));
+        assertTrue(spanId.matches("[0-9a-f]{16}"));
+        assertNotEquals(traceId, TraceIds.newTraceId());
+    }
+
+    @Test
+    void shouldResolveIncomingTraceParentOnceAndCacheIt() {
+        MockServerWebExchange exchange = exchange(HttpHeaders.EMPTY, TraceParent.HEADER, TRACE_PARENT);
+        TraceContextResolver resolver = new TraceContextResolver(tracer, true);
+
+        TraceParent resolved = resolver.resolve(exchange);
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", resolved.traceId());
+        assertSame(resolved, resolver.resolve(exchange));
+    }
+
+    @Test
+    void shouldPreferSpanInScope() {
+        brave.Span span = tracing.tracer().newTrace().start();
+        try (CurrentTraceContext.Scope ignored = tracing.currentTraceContext().newScope(span.context())) {
+            TraceParent resolved = new TraceContextResolver(tracer, false)
+                    .resolve(exchange(HttpHeaders.EMPTY, TraceParent.HEADER, TRACE_PARENT));
+
+            assertEquals(TraceIds.toTraceId128(span.context().traceIdString()), resolved.traceId());
+            assertEquals(span.context().spanIdString(), resolved.spanId());
+            assertTrue(resolved.isW3c());
+        } finally {
+            span.finish();
+        }
+    }
+
+    @Test
+    void shouldHonourLegacyHeadersOnlyInCompatibilityMode() {
+        HttpHeaders legacy = new HttpHeaders();
+        legacy.set("Trace-Id", "5f1c2a9e-7b1d-4d8e-9b1f-0a2c3d4e5f60");
+
+        assertEquals("5f1c2a9e-7b1d-4d8e-9b1f-0a2c3d4e5f60",
+                new TraceContextResolver(tracer, true).resolve(exchange(legacy, TraceParent.HEADER, TRACE_PARENT)).traceId());
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736",
+                new TraceContextResolver(tracer, false).resolve(exchange(legacy, TraceParent.HEADER, TRACE_PARENT)).traceId());
+    }
+
+    @Test
+    void shouldInjectTraceParentAndLegacyHeaders() {
+        TraceContextResolver resolver = new TraceContextResolver(tracer, true);
+        HttpHeaders headers = new HttpHeaders();
+
+        resolver.inject(TraceParent.parse(TRACE_PARENT), headers);
+
+        assertEquals(TRACE_PARENT, headers.getFirst(TraceParent.HEADER));
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", headers.getFirst("Trace-Id"));
+        assertEquals("00f067aa0ba902b7", headers.getFirst("Span-Id"));
+
+        HttpHeaders uuidHeaders = new HttpHeaders();
+        resolver.inject(new TraceParent("5f1c2a9e-7b1d-4d8e-9b1f-0a2c3d4e5f60", TraceIds.newSpanId(), false), uuidHeaders);
+        assertFalse(uuidHeaders.containsKey(TraceParent.HEADER));
+        assertEquals("5f1c2a9e-7b1d-4d8e-9b1f-0a2c3d4e5f60", uuidHeaders.getFirst("Trace-Id"));
+    }
+
+    private static MockServerWebExchange exchange(HttpHeaders headers, String name, String value) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/programs")
+                .headers(headers)
+                .header(name, value));
+    }
+}